@@ -0,0 +1,29 @@
+package com.example.vc_data_fetcher.compact;
+
+import com.example.vc_data_fetcher.dto.FileData;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * FileData whose patch stays in a {@link PatchArena}. JSON gets the patch streamed under {@code code};
+ * {@link #getCode()} decodes it for everything else, such as GraphQL field resolution.
+ */
+public final class ArenaFileData extends FileData {
+
+	private final ArenaPatch patch;
+
+	ArenaFileData(ArenaPatch patch) {
+		this.patch = patch;
+	}
+
+	@Override
+	@JsonIgnore
+	public String getCode() {
+		return patch.toString();
+	}
+
+	@JsonProperty("code")
+	public ArenaPatch getPatch() {
+		return patch;
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.vc_data_fetcher.compact;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+
+/**
+ * Handle to one patch in a {@link PatchArena}. JSON serialization streams the text from the arena
+ * into the response instead of building a String. Binary formats (Smile, CBOR) need the length of a
+ * string up front, so they get the decoded text of one patch at a time.
+ */
+@JsonSerialize(using = ArenaPatch.Serializer.class)
+public final class ArenaPatch {
+
+	private final PatchArena arena;
+	private final long handle;
+
+	ArenaPatch(PatchArena arena, long handle) {
+		this.arena = arena;
+		this.handle = handle;
+	}
+
+	/**
+	 * Copy the patch's UTF-8 bytes to {@code out}, returning the number of bytes written
+	 */
+	public int writeUtf8(OutputStream out) throws IOException {
+		return arena.transferTo(handle, out);
+	}
+
+	/**
+	 * Reader decoding the patch straight from the arena
+	 */
+	public Reader reader() {
+		return arena.reader(handle);
+	}
+
+	@Override
+	public String toString() {
+		return arena.read(handle);
+	}
+
+	static final class Serializer extends StdSerializer<ArenaPatch> {
+
+		Serializer() {
+			super(ArenaPatch.class);
+		}
+
+		@Override
+		public void serialize(ArenaPatch patch, JsonGenerator generator, SerializerProvider provider) throws IOException {
+			if (!(generator instanceof JsonGeneratorImpl)) {
+				generator.writeString(patch.toString());
+				return;
+			}
+			try (Reader reader = patch.arena.reader(patch.handle)) {
+				generator.writeString(reader, -1);
+			}
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package com.example.vc_data_fetcher.compact;
+
+import com.example.vc_data_fetcher.dto.FileData;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Compact store for the commit files of one fetch. Paths are dictionary-encoded once per fetch,
+ * file names and extensions are derived from them, and statuses are enum ordinals, so a large history
+ * retains little more than its distinct paths and patch text.
+ * <p>
+ * {@link FileData} objects are only created by {@link #view} lists as they are read, which is during
+ * response serialization; nothing holds on to them afterwards. With a {@link PatchArena}, patch text
+ * lives off-heap as well and is streamed from the arena when the response is written.
+ */
+public final class CommitFileTable {
+
+	private final StringDictionary paths = new StringDictionary();
+	private final boolean includePatches;
+	private final PatchArena arena;
+	private final PatchReducer reducer;
+
+	/**
+	 * @param includePatches false to drop patch text on encoding and materialize files with empty code
+	 */
+	public CommitFileTable(boolean includePatches) {
+		this(includePatches, null);
+	}
+
+	/**
+	 * @param arena off-heap store for patch text, or null to keep patches on the heap
+	 */
+	public CommitFileTable(boolean includePatches, PatchArena arena) {
+		this(includePatches, arena, null);
+	}
+
+	/**
+	 * @param reducer reduction applied to every patch before it is stored, or null to store patches as fetched
+	 */
+	public CommitFileTable(boolean includePatches, PatchArena arena, PatchReducer reducer) {
+		this.includePatches = includePatches;
+		this.arena = includePatches ? arena : null;
+		this.reducer = includePatches ? reducer : null;
+	}
+
+	/**
+	 * Encode the files of one commit. Safe to call from several threads.
+	 */
+	public CompactFiles encode(List<FileData> files) {
+		if (files == null || files.isEmpty()) {
+			return CompactFiles.EMPTY;
+		}
+		CompactFiles compact = new CompactFiles(files.size(), arena != null);
+		for (int i = 0; i < files.size(); i++) {
+			FileData file = files.get(i);
+			FileOperation operation = FileOperation.of(file.getOperation());
+			String fullPath = file.getFullPath() != null ? file.getFullPath() : "";
+			String previousFilename = file.getPreviousFilename();
+
+			compact.paths[i] = paths.id(fullPath);
+			compact.previousPaths[i] = previousFilename != null ? paths.id(previousFilename) : -1;
+			compact.operations[i] = (byte) operation.ordinal();
+			compact.additions[i] = file.getAdditions();
+			compact.deletions[i] = file.getDeletions();
+			compact.changes[i] = file.getChanges();
+			compact.binary[i] = file.isBinaryFile();
+			String placeholder = operation.placeholderPatch(fullPath, previousFilename);
+			String patch = includePatches && file.getCode() != null && !file.getCode().equals(placeholder) ? file.getCode() : null;
+			if (patch != null && reducer != null) {
+				patch = reducer.reduce(fullPath, operation, previousFilename, file.getAdditions(), file.getDeletions(), patch);
+				patch = patch.equals(placeholder) ? null : patch;
+			}
+			if (arena != null) {
+				compact.patchHandles[i] = patch != null ? arena.write(patch) : -1;
+			} else if (patch != null) {
+				compact.patches[i] = patch;
+			}
+		}
+		return compact;
+	}
+
+	/**
+	 * Read-only list materializing each file as it is accessed
+	 */
+	public List<FileData> view(CompactFiles files) {
+		return new FileView(files);
+	}
+
+	/**
+	 * Patch reducer of this table, or null when patches are stored as fetched
+	 */
+	public PatchReducer getReducer() {
+		return reducer;
+	}
+
+	/**
+	 * Number of distinct paths encoded so far
+	 */
+	public int pathCount() {
+		return paths.size();
+	}
+
+	/**
+	 * Patch arena of this table, or null when patches are kept on the heap
+	 */
+	public PatchArena getArena() {
+		return arena;
+	}
+
+	FileData materialize(CompactFiles files, int index) {
+		String fullPath = paths.get(files.paths[index]);
+		String previousFilename = files.previousPaths[index] >= 0 ? paths.get(files.previousPaths[index]) : null;
+		FileOperation operation = FileOperation.ofOrdinal(files.operations[index]);
+		String fileName = fullPath.substring(fullPath.lastIndexOf('/') + 1);
+		int dotIndex = fileName.lastIndexOf('.');
+
+		String extension = dotIndex > 0 ? fileName.substring(dotIndex + 1) : "";
+
+		if (arena != null && files.patchHandles[index] >= 0) {
+			FileData file = new ArenaFileData(new ArenaPatch(arena, files.patchHandles[index]));
+			file.setFileName(fileName);
+			file.setFullPath(fullPath);
+			file.setExtension(extension);
+			file.setOperation(operation.getLabel());
+			file.setAdditions(files.additions[index]);
+			file.setDeletions(files.deletions[index]);
+			file.setChanges(files.changes[index]);
+			file.setBinaryFile(files.binary[index]);
+			file.setPreviousFilename(previousFilename);
+			return file;
+		}
+
+		String code;
+		if (!includePatches) {
+			code = "";
+		} else if (files.patches != null && files.patches[index] != null) {
+			code = files.patches[index];
+		} else {
+			code = operation.placeholderPatch(fullPath, previousFilename);
+		}
+		return new FileData(fileName, fullPath, extension, operation.getLabel(), code, files.additions[index],
+				files.deletions[index], files.changes[index], files.binary[index], previousFilename);
+	}
+
+	private final class FileView extends AbstractList<FileData> implements RandomAccess {
+		private final CompactFiles files;
+
+		private FileView(CompactFiles files) {
+			this.files = files;
+		}
+
+		@Override
+		public FileData get(int index) {
+			if (index < 0 || index >= files.size()) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			return materialize(files, index);
+		}
+
+		@Override
+		public int size() {
+			return files.size();
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.vc_data_fetcher.compact;
+
+/**
+ * Files of one commit in columnar form: path ids into the owning {@link CommitFileTable}'s dictionary,
+ * operations as enum ordinals and primitive stats. Patch text is either kept as Strings or, when the table
+ * has a {@link PatchArena}, as arena handles; a missing patch (null / -1) gets a placeholder on materialization.
+ */
+public final class CompactFiles {
+
+	public static final CompactFiles EMPTY = new CompactFiles(0, false);
+
+	final int[] paths;
+	// Previous path id of renamed or copied files, -1 otherwise
+	final int[] previousPaths;
+	final byte[] operations;
+	final int[] additions;
+	final int[] deletions;
+	final int[] changes;
+	final boolean[] binary;
+	final String[] patches;
+	final long[] patchHandles;
+
+	CompactFiles(int size, boolean arenaPatches) {
+		paths = new int[size];
+		previousPaths = new int[size];
+		operations = new byte[size];
+		additions = new int[size];
+		deletions = new int[size];
+		changes = new int[size];
+		binary = new boolean[size];
+		patches = arenaPatches ? null : new String[size];
+		patchHandles = arenaPatches ? new long[size] : null;
+	}
+
+	public int size() {
+		return paths.length;
+	}
+}
@@ -0,0 +1,50 @@
+package com.example.vc_data_fetcher.compact;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Direct buffers of one size handed back by released {@link PatchArena}s for the next fetch to reuse.
+ * <p>
+ * At most {@code maxPooledBytes} are kept; buffers returned past that are dropped, so a burst of concurrent
+ * fetches does not pin its peak off-heap use for good.
+ */
+public final class DirectChunkPool {
+
+	private final int chunkBytes;
+	private final long maxPooledBytes;
+	private final ArrayDeque<ByteBuffer> pooled = new ArrayDeque<>();
+
+	public DirectChunkPool(int chunkBytes, long maxPooledBytes) {
+		this.chunkBytes = chunkBytes;
+		this.maxPooledBytes = maxPooledBytes;
+	}
+
+	public int getChunkBytes() {
+		return chunkBytes;
+	}
+
+	/**
+	 * A cleared pooled chunk, or a newly allocated one when the pool is empty
+	 */
+	public ByteBuffer take() {
+		ByteBuffer chunk;
+		synchronized (this) {
+			chunk = pooled.pollFirst();
+		}
+		return chunk != null ? chunk.clear() : ByteBuffer.allocateDirect(chunkBytes);
+	}
+
+	/**
+	 * Hand a chunk back. Chunks of another size, or past the pool's limit, are left to the collector.
+	 */
+	public synchronized void give(ByteBuffer chunk) {
+		if (chunk.isDirect() && chunk.capacity() == chunkBytes && (long) (pooled.size() + 1) * chunkBytes <= maxPooledBytes) {
+			pooled.addFirst(chunk);
+		}
+	}
+
+	public synchronized long getPooledBytes() {
+		return (long) pooled.size() * chunkBytes;
+	}
+}
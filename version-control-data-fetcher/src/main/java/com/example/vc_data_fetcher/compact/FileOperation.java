@@ -0,0 +1,70 @@
+package com.example.vc_data_fetcher.compact;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * File status of a commit file, stored as one byte instead of a status string per file
+ */
+public enum FileOperation {
+	NONE(""),
+	ADDED("added"),
+	REMOVED("removed"),
+	MODIFIED("modified"),
+	RENAMED("renamed"),
+	COPIED("copied"),
+	CHANGED("changed"),
+	UNCHANGED("unchanged");
+
+	private static final FileOperation[] VALUES = values();
+	private static final Map<String, FileOperation> BY_LABEL = new HashMap<>();
+
+	static {
+		for (FileOperation operation : VALUES) {
+			BY_LABEL.put(operation.label, operation);
+		}
+	}
+
+	private final String label;
+
+	FileOperation(String label) {
+		this.label = label;
+	}
+
+	/**
+	 * Status string as GitHub reports it
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * Operation for a status string. GitHub reports only the statuses above; anything else is kept as CHANGED.
+	 */
+	public static FileOperation of(String label) {
+		if (label == null) {
+			return NONE;
+		}
+		return BY_LABEL.getOrDefault(label, CHANGED);
+	}
+
+	static FileOperation ofOrdinal(int ordinal) {
+		return VALUES[ordinal];
+	}
+
+	/**
+	 * Stand-in text for files GitHub returns without a patch (binary, too large, pure rename)
+	 */
+	public String placeholderPatch(String fullPath, String previousFilename) {
+		switch (this) {
+			case ADDED:
+				return "// New file added";
+			case REMOVED:
+				return "// File deleted";
+			case RENAMED:
+				return "// File renamed from: " + (previousFilename != null ? previousFilename : "unknown") + " to: " + fullPath;
+			default:
+				return "// No patch data available";
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.vc_data_fetcher.compact;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from non-negative int keys, such as {@link StringDictionary} ids, to long values.
+ * Keys and values live in two primitive arrays, so counting per path or directory allocates nothing per entry.
+ * Not thread-safe.
+ */
+public final class IntLongMap {
+
+	private static final int FREE = -1;
+
+	private int[] keys;
+	private long[] values;
+	private int size;
+
+	public IntLongMap() {
+		this(16);
+	}
+
+	public IntLongMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+		keys = new int[capacity];
+		values = new long[capacity];
+		Arrays.fill(keys, FREE);
+	}
+
+	public long get(int key, long defaultValue) {
+		if (key < 0) {
+			return defaultValue;
+		}
+		int slot = find(key);
+		return keys[slot] == key ? values[slot] : defaultValue;
+	}
+
+	public boolean containsKey(int key) {
+		return key >= 0 && keys[find(key)] == key;
+	}
+
+	public void put(int key, long value) {
+		int slot = slotFor(key);
+		values[slot] = value;
+	}
+
+	/**
+	 * Add {@code delta} to the value of {@code key}, starting from 0, and return the new value
+	 */
+	public long addTo(int key, long delta) {
+		int slot = slotFor(key);
+		values[slot] += delta;
+		return values[slot];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void forEach(Consumer consumer) {
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != FREE) {
+				consumer.accept(keys[slot], values[slot]);
+			}
+		}
+	}
+
+	private int slotFor(int key) {
+		if (key < 0) {
+			throw new IllegalArgumentException("Keys must be non-negative: " + key);
+		}
+		int slot = find(key);
+		if (keys[slot] == FREE) {
+			if ((size + 1) * 2 > keys.length) {
+				grow();
+				slot = find(key);
+			}
+			keys[slot] = key;
+			values[slot] = 0;
+			size++;
+		}
+		return slot;
+	}
+
+	private int find(int key) {
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while (keys[slot] != FREE && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		int[] oldKeys = keys;
+		long[] oldValues = values;
+		keys = new int[oldKeys.length * 2];
+		values = new long[oldKeys.length * 2];
+		Arrays.fill(keys, FREE);
+		for (int slot = 0; slot < oldKeys.length; slot++) {
+			if (oldKeys[slot] != FREE) {
+				int target = find(oldKeys[slot]);
+				keys[target] = oldKeys[slot];
+				values[target] = oldValues[slot];
+			}
+		}
+	}
+
+	private static int mix(int key) {
+		int hash = key * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	@FunctionalInterface
+	public interface Consumer {
+		void accept(int key, long value);
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.vc_data_fetcher.compact;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from non-negative long keys to int values, the counterpart of {@link IntLongMap}
+ * for counting pairs of ids: {@link #pair} packs two ints into one key, so a sparse graph of pair weights
+ * costs two primitive array slots per edge. Not thread-safe.
+ */
+public final class LongIntMap {
+
+	private static final long FREE = -1;
+
+	private long[] keys;
+	private int[] values;
+	private int size;
+
+	public LongIntMap() {
+		this(16);
+	}
+
+	public LongIntMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 3 / 2)) << 1;
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, FREE);
+	}
+
+	/**
+	 * Key of the unordered pair {@code a, b} of non-negative ids, the smaller id in the high half
+	 */
+	public static long pair(int a, int b) {
+		return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+	}
+
+	public static int first(long pair) {
+		return (int) (pair >>> 32);
+	}
+
+	public static int second(long pair) {
+		return (int) pair;
+	}
+
+	public int get(long key, int defaultValue) {
+		if (key < 0) {
+			return defaultValue;
+		}
+		int slot = find(key);
+		return keys[slot] == key ? values[slot] : defaultValue;
+	}
+
+	/**
+	 * Add {@code delta} to the value of {@code key}, starting from 0, and return the new value
+	 */
+	public int addTo(long key, int delta) {
+		int slot = slotFor(key);
+		values[slot] += delta;
+		return values[slot];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public void forEach(Consumer consumer) {
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (keys[slot] != FREE) {
+				consumer.accept(keys[slot], values[slot]);
+			}
+		}
+	}
+
+	private int slotFor(long key) {
+		if (key < 0) {
+			throw new IllegalArgumentException("Keys must be non-negative: " + key);
+		}
+		int slot = find(key);
+		if (keys[slot] == FREE) {
+			// Grow at 2/3 load; pair maps are the largest structures here, so they run fuller than IntLongMap
+			if ((size + 1) * 3L > keys.length * 2L) {
+				grow();
+				slot = find(key);
+			}
+			keys[slot] = key;
+			values[slot] = 0;
+			size++;
+		}
+		return slot;
+	}
+
+	private int find(long key) {
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while (keys[slot] != FREE && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new long[oldKeys.length * 2];
+		values = new int[oldKeys.length * 2];
+		Arrays.fill(keys, FREE);
+		for (int slot = 0; slot < oldKeys.length; slot++) {
+			if (oldKeys[slot] != FREE) {
+				int target = find(oldKeys[slot]);
+				keys[target] = oldKeys[slot];
+				values[target] = oldValues[slot];
+			}
+		}
+	}
+
+	private static int mix(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	@FunctionalInterface
+	public interface Consumer {
+		void accept(long key, int value);
+	}
+}
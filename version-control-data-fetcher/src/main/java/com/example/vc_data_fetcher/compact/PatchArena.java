@@ -0,0 +1,225 @@
+package com.example.vc_data_fetcher.compact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only store for the patch text of one fetch, kept outside the Java heap.
+ * <p>
+ * Patches are written as UTF-8 into direct buffers until {@code memoryLimit} bytes are allocated, then into
+ * memory-mapped segments of a temp file under {@code spillDir}, so a fetch is bounded by disk rather than heap
+ * and the collector never scans patch text. Each write returns a {@code long} handle (chunk index and offset).
+ * <p>
+ * An arena is reference counted, starting with one reference for its creator. The holders are the requests
+ * whose responses read its patches (see {@link PatchArenaScope}). Dropping the last reference hands the direct
+ * chunks back to the {@link DirectChunkPool} and truncates the spill files, which are unlinked right after
+ * mapping, so their disk space is freed without waiting for the collector. Patches cannot be read after that.
+ */
+public final class PatchArena {
+
+	public static final int CHUNK_BYTES = 4 << 20;
+	private static final int SEGMENT_BYTES = 64 << 20;
+
+	private final long memoryLimit;
+	private final Path spillDir;
+	private final DirectChunkPool pool;
+	private final List<ByteBuffer> chunks = new ArrayList<>();
+	private final List<ByteBuffer> directChunks = new ArrayList<>();
+	private final List<FileChannel> spillFiles = new ArrayList<>();
+	private ByteBuffer current;
+	private long offHeapBytes;
+	private long spilledBytes;
+	private int references = 1;
+
+	public PatchArena(long memoryLimit, Path spillDir) {
+		this(memoryLimit, spillDir, null);
+	}
+
+	/**
+	 * @param pool source of direct chunks, and where they go back on release; null to allocate fresh ones
+	 */
+	public PatchArena(long memoryLimit, Path spillDir, DirectChunkPool pool) {
+		this.memoryLimit = memoryLimit;
+		this.spillDir = spillDir;
+		this.pool = pool;
+	}
+
+	public synchronized long write(String text) {
+		checkLive();
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		int needed = Integer.BYTES + bytes.length;
+		if (current == null || current.remaining() < needed) {
+			current = allocate(needed);
+			chunks.add(current);
+		}
+		int offset = current.position();
+		current.putInt(bytes.length);
+		current.put(bytes);
+		return ((long) (chunks.size() - 1) << 32) | offset;
+	}
+
+	/**
+	 * Decode a patch into a String, for consumers that need one
+	 */
+	public String read(long handle) {
+		ByteBuffer patch = slice(handle);
+		byte[] bytes = new byte[patch.remaining()];
+		patch.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reader decoding a patch straight from its buffer, without copying it onto the heap as a whole
+	 */
+	public Reader reader(long handle) {
+		return new InputStreamReader(new BufferInputStream(slice(handle)), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Copy a patch's UTF-8 bytes to {@code out} without decoding them, returning the number of bytes copied
+	 */
+	public int transferTo(long handle, OutputStream out) throws IOException {
+		ByteBuffer patch = slice(handle);
+		int length = patch.remaining();
+		new BufferInputStream(patch).transferTo(out);
+		return length;
+	}
+
+	public synchronized long getOffHeapBytes() {
+		return offHeapBytes;
+	}
+
+	public synchronized long getSpilledBytes() {
+		return spilledBytes;
+	}
+
+	/**
+	 * Take {@code count} more references, one for each further holder
+	 */
+	public synchronized void retain(int count) {
+		checkLive();
+		references += count;
+	}
+
+	/**
+	 * Drop one reference. The last one frees the arena's memory and disk space.
+	 */
+	public void release() {
+		List<ByteBuffer> pooled;
+		List<FileChannel> files;
+		synchronized (this) {
+			if (references == 0) {
+				throw new IllegalStateException("Patch arena was already released");
+			}
+			if (--references > 0) {
+				return;
+			}
+			pooled = new ArrayList<>(directChunks);
+			files = new ArrayList<>(spillFiles);
+			chunks.clear();
+			directChunks.clear();
+			spillFiles.clear();
+			current = null;
+		}
+		if (pool != null) {
+			pooled.forEach(pool::give);
+		}
+		for (FileChannel file : files) {
+			try (file) {
+				// The mapping outlives the channel; truncating drops its pages and disk blocks now
+				file.truncate(0);
+			} catch (IOException e) {
+				// The unlinked file's space is still reclaimed once the mapping is collected
+			}
+		}
+	}
+
+	public synchronized boolean isReleased() {
+		return references == 0;
+	}
+
+	private ByteBuffer slice(long handle) {
+		ByteBuffer chunk = chunk((int) (handle >>> 32));
+		int offset = (int) handle;
+		int length = chunk.getInt(offset);
+		return chunk.slice(offset + Integer.BYTES, length);
+	}
+
+	private synchronized ByteBuffer chunk(int index) {
+		checkLive();
+		return chunks.get(index);
+	}
+
+	private void checkLive() {
+		if (references == 0) {
+			throw new IllegalStateException("Patch arena was released");
+		}
+	}
+
+	private ByteBuffer allocate(int needed) {
+		int size = Math.max(CHUNK_BYTES, needed);
+		if (offHeapBytes + size <= memoryLimit) {
+			offHeapBytes += size;
+			ByteBuffer chunk = pool != null && size == CHUNK_BYTES ? pool.take() : ByteBuffer.allocateDirect(size);
+			directChunks.add(chunk);
+			return chunk;
+		}
+		size = Math.max(SEGMENT_BYTES, needed);
+		try {
+			Files.createDirectories(spillDir);
+			Path file = Files.createTempFile(spillDir, "patches-", ".arena");
+			FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			try {
+				ByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+				spillFiles.add(channel);
+				spilledBytes += size;
+				return segment;
+			} catch (IOException | RuntimeException e) {
+				channel.close();
+				throw e;
+			} finally {
+				// The mapping stays valid; the channel is kept open so release can truncate the file
+				if (!file.toFile().delete()) {
+					file.toFile().deleteOnExit();
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to spill patches to " + spillDir, e);
+		}
+	}
+
+	private static final class BufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		private BufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, count);
+			return count;
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.vc_data_fetcher.compact;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The patch arenas one request holds a reference to, released together when the request is done with them.
+ * <p>
+ * A scope is opened per REST request and per GraphQL execution and bound to the thread running the request's
+ * handlers, so the arenas created by a fetch are added to it without being passed around. It is closed once
+ * the response no longer reads patches: when a REST response is complete, including a streamed body, and when
+ * a GraphQL execution has produced its result.
+ */
+public final class PatchArenaScope implements AutoCloseable {
+
+	private static final ThreadLocal<PatchArenaScope> CURRENT = new ThreadLocal<>();
+
+	private final List<PatchArena> arenas = new ArrayList<>();
+	private boolean closed;
+
+	/**
+	 * Scope bound to the calling thread, if any
+	 */
+	public static PatchArenaScope current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Bind this scope to the calling thread until the returned binding is closed
+	 */
+	public Binding bind() {
+		PatchArenaScope previous = CURRENT.get();
+		CURRENT.set(this);
+		return () -> {
+			if (previous != null) {
+				CURRENT.set(previous);
+			} else {
+				CURRENT.remove();
+			}
+		};
+	}
+
+	/**
+	 * Take over one reference to {@code arena}, released when this scope closes
+	 */
+	public void adopt(PatchArena arena) {
+		synchronized (this) {
+			if (!closed) {
+				arenas.add(arena);
+				return;
+			}
+		}
+		arena.release();
+	}
+
+	/**
+	 * Hand the adopted references to the caller, leaving this scope empty
+	 */
+	public synchronized List<PatchArena> detach() {
+		List<PatchArena> detached = new ArrayList<>(arenas);
+		arenas.clear();
+		return detached;
+	}
+
+	@Override
+	public void close() {
+		List<PatchArena> released;
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			released = new ArrayList<>(arenas);
+			arenas.clear();
+		}
+		released.forEach(PatchArena::release);
+	}
+
+	public interface Binding extends AutoCloseable {
+		@Override
+		void close();
+	}
+}
@@ -0,0 +1,255 @@
+package com.example.vc_data_fetcher.compact;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Rule-driven reduction of patch text before it is stored in a {@link CommitFileTable}. Patches of excluded
+ * paths, generated files, pure renames and oversized diffs are replaced by a one-line stub, and hunks that
+ * only change whitespace are dropped. Line statistics are left untouched.
+ * <p>
+ * Globs without a {@code /} match the file name, others the full path; {@code **} crosses directories.
+ * One reducer serves one fetch and counts the files it reduced and the UTF-8 bytes it saved.
+ */
+public final class PatchReducer {
+
+	// Files whose name alone marks them as generated or minified
+	private static final Pattern GENERATED_NAME = Pattern.compile(
+			".*(\\.min\\.(js|css)|\\.pb\\.(go|cc|h)|_pb2(_grpc)?\\.py|\\.g\\.dart|\\.designer\\.cs|\\.generated\\.\\w+)$"
+					+ "|.*(^|/)(generated|__generated__)/.*");
+	// Markers code generators put near the top of their output
+	private static final Pattern GENERATED_MARKER = Pattern.compile(
+			"@generated|Code generated .* DO NOT EDIT|<auto-generated|\\bautogenerated\\b|\\bauto-generated\\b",
+			Pattern.CASE_INSENSITIVE);
+	private static final int MARKER_SCAN_LINES = 20;
+	// Longer lines only occur in minified or otherwise machine-written files
+	private static final int MINIFIED_LINE_LENGTH = 1000;
+
+	private final List<String> excludeGlobs;
+	private final List<Pattern> excludePatterns;
+	private final int maxPatchBytes;
+	private final boolean detectGenerated;
+	private final boolean dropWhitespaceOnly;
+	private final boolean stubRenameOnly;
+
+	private final AtomicLong savedBytes = new AtomicLong();
+	private final AtomicInteger excluded = new AtomicInteger();
+	private final AtomicInteger generated = new AtomicInteger();
+	private final AtomicInteger renames = new AtomicInteger();
+	private final AtomicInteger whitespace = new AtomicInteger();
+	private final AtomicInteger oversized = new AtomicInteger();
+
+	/**
+	 * @param maxPatchBytes largest patch kept, in UTF-8 bytes; 0 or less for no limit
+	 */
+	public PatchReducer(List<String> excludeGlobs, int maxPatchBytes, boolean detectGenerated,
+						boolean dropWhitespaceOnly, boolean stubRenameOnly) {
+		this.excludeGlobs = List.copyOf(excludeGlobs);
+		this.excludePatterns = excludeGlobs.stream().map(PatchReducer::globPattern).toList();
+		this.maxPatchBytes = maxPatchBytes;
+		this.detectGenerated = detectGenerated;
+		this.dropWhitespaceOnly = dropWhitespaceOnly;
+		this.stubRenameOnly = stubRenameOnly;
+	}
+
+	/**
+	 * Reduced patch of one file: the patch itself, a stub, or the patch without its whitespace-only hunks.
+	 * Safe to call from several threads.
+	 */
+	public String reduce(String fullPath, FileOperation operation, String previousFilename, int additions, int deletions,
+						 String patch) {
+		if (patch == null || patch.isEmpty()) {
+			return patch;
+		}
+		String fileName = fullPath.substring(fullPath.lastIndexOf('/') + 1);
+		String reduced = patch;
+		AtomicInteger reason = null;
+
+		String glob = excludedBy(fullPath, fileName);
+		if (glob != null) {
+			reduced = "// Patch omitted (matches " + glob + ")";
+			reason = excluded;
+		} else if (detectGenerated && isGenerated(fullPath, patch)) {
+			reduced = "// Patch omitted (generated file)";
+			reason = generated;
+		} else if (stubRenameOnly && operation == FileOperation.RENAMED && additions == 0 && deletions == 0) {
+			reduced = operation.placeholderPatch(fullPath, previousFilename);
+			reason = renames;
+		} else if (dropWhitespaceOnly) {
+			reduced = dropWhitespaceOnlyHunks(patch);
+			if (reduced != patch) {
+				reason = whitespace;
+			}
+		}
+
+		if (reason != excluded && reason != generated && maxPatchBytes > 0) {
+			long bytes = utf8Length(reduced);
+			if (bytes > maxPatchBytes) {
+				reduced = "// Patch omitted (" + bytes + " bytes, limit " + maxPatchBytes + ")";
+				reason = oversized;
+			}
+		}
+
+		if (reason != null) {
+			reason.incrementAndGet();
+			savedBytes.addAndGet(utf8Length(patch) - utf8Length(reduced));
+		}
+		return reduced;
+	}
+
+	public long getSavedBytes() {
+		return savedBytes.get();
+	}
+
+	public int getReducedFiles() {
+		return excluded.get() + generated.get() + renames.get() + whitespace.get() + oversized.get();
+	}
+
+	/**
+	 * Stable description of the rules, for cache and coalescing keys
+	 */
+	public String key() {
+		return String.join(",", excludeGlobs) + "|" + maxPatchBytes + "|" + detectGenerated + "|"
+				+ dropWhitespaceOnly + "|" + stubRenameOnly;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("saved %d bytes over %d files (%d excluded, %d generated, %d renames, %d whitespace-only, %d oversized)",
+				getSavedBytes(), getReducedFiles(), excluded.get(), generated.get(), renames.get(), whitespace.get(),
+				oversized.get());
+	}
+
+	private String excludedBy(String fullPath, String fileName) {
+		for (int i = 0; i < excludePatterns.size(); i++) {
+			String glob = excludeGlobs.get(i);
+			if (excludePatterns.get(i).matcher(glob.indexOf('/') >= 0 ? fullPath : fileName).matches()) {
+				return glob;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isGenerated(String fullPath, String patch) {
+		if (GENERATED_NAME.matcher(fullPath).matches()) {
+			return true;
+		}
+		int lineStart = 0;
+		int line = 0;
+		while (lineStart < patch.length()) {
+			int lineEnd = patch.indexOf('\n', lineStart);
+			if (lineEnd < 0) {
+				lineEnd = patch.length();
+			}
+			if (lineEnd - lineStart > MINIFIED_LINE_LENGTH) {
+				return true;
+			}
+			if (line++ < MARKER_SCAN_LINES && GENERATED_MARKER.matcher(patch.substring(lineStart, lineEnd)).find()) {
+				return true;
+			}
+			lineStart = lineEnd + 1;
+		}
+		return false;
+	}
+
+	/**
+	 * The patch without hunks whose removed and added lines differ only in whitespace, or a stub when
+	 * no hunk is left. Returns {@code patch} itself when every hunk changes more than whitespace.
+	 */
+	static String dropWhitespaceOnlyHunks(String patch) {
+		String[] lines = patch.split("\n", -1);
+		StringBuilder kept = new StringBuilder(patch.length());
+		List<String> hunk = new ArrayList<>();
+		boolean dropped = false;
+		boolean anyKept = false;
+
+		for (int i = 0; i <= lines.length; i++) {
+			boolean hunkEnds = i == lines.length || lines[i].startsWith("@@");
+			if (hunkEnds && !hunk.isEmpty()) {
+				if (hunk.get(0).startsWith("@@") && isWhitespaceOnly(hunk)) {
+					dropped = true;
+				} else {
+					anyKept |= hunk.get(0).startsWith("@@");
+					for (String line : hunk) {
+						kept.append(line).append('\n');
+					}
+				}
+				hunk.clear();
+			}
+			if (i < lines.length) {
+				hunk.add(lines[i]);
+			}
+		}
+		if (!dropped) {
+			return patch;
+		}
+		if (!anyKept) {
+			return "// Patch omitted (whitespace-only changes)";
+		}
+		// The split keeps a trailing empty line for a patch ending in a newline; match the original ending
+		kept.setLength(kept.length() - 1);
+		return kept.toString();
+	}
+
+	private static boolean isWhitespaceOnly(List<String> hunk) {
+		StringBuilder removed = new StringBuilder();
+		StringBuilder added = new StringBuilder();
+		for (String line : hunk) {
+			if (line.startsWith("-")) {
+				appendNonWhitespace(removed, line);
+			} else if (line.startsWith("+")) {
+				appendNonWhitespace(added, line);
+			}
+		}
+		return removed.toString().contentEquals(added);
+	}
+
+	private static void appendNonWhitespace(StringBuilder target, String line) {
+		for (int i = 1; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (!Character.isWhitespace(c)) {
+				target.append(c);
+			}
+		}
+	}
+
+	private static Pattern globPattern(String glob) {
+		StringBuilder regex = new StringBuilder();
+		for (int i = 0; i < glob.length(); i++) {
+			char c = glob.charAt(i);
+			if (c == '*' && i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+				// "**/" also matches no directory at all
+				boolean slash = i + 2 < glob.length() && glob.charAt(i + 2) == '/';
+				regex.append(slash ? "(.*/)?" : ".*");
+				i += slash ? 2 : 1;
+			} else if (c == '*') {
+				regex.append("[^/]*");
+			} else if (c == '?') {
+				regex.append("[^/]");
+			} else {
+				regex.append(Pattern.quote(String.valueOf(c)));
+			}
+		}
+		return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+	}
+
+	private static long utf8Length(String text) {
+		long length = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				length++;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isSurrogate(c)) {
+				length += 2;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+}
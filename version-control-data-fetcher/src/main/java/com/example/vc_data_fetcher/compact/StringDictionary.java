@@ -0,0 +1,52 @@
+package com.example.vc_data_fetcher.compact;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe dictionary assigning dense int ids to strings, so repeated paths and names are kept once
+ * and referenced by id. Lookups by id are lock-free; only new entries take the lock.
+ */
+public final class StringDictionary {
+
+	private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+	private volatile String[] values = new String[64];
+	private int size;
+
+	public int id(String value) {
+		Integer id = ids.get(value);
+		if (id != null) {
+			return id;
+		}
+		synchronized (this) {
+			id = ids.get(value);
+			if (id != null) {
+				return id;
+			}
+			String[] current = values;
+			if (size == current.length) {
+				current = Arrays.copyOf(current, size * 2);
+			}
+			current[size] = value;
+			values = current;
+			ids.put(value, size);
+			return size++;
+		}
+	}
+
+	public String get(int id) {
+		return values[id];
+	}
+
+	/**
+	 * The dictionary's own instance of {@code value}, for callers that keep strings rather than ids
+	 */
+	public String intern(String value) {
+		return value == null ? null : get(id(value));
+	}
+
+	public int size() {
+		return ids.size();
+	}
+}
@@ -0,0 +1,41 @@
+package com.example.vc_data_fetcher.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary response formats for the REST data endpoints. Clients sending
+ * {@code Accept: application/x-jackson-smile} or {@code application/cbor} get Smile or CBOR,
+ * everything else keeps getting JSON. Both converters use the application's Jackson settings.
+ * Response compression is configured with {@code server.compression.*}.
+ */
+@Configuration
+public class ContentNegotiationConfig {
+
+	@Bean
+	public WebMvcConfigurer binaryFormatsConfigurer(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+		return new WebMvcConfigurer() {
+			@Override
+			public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+				// Replace the defaults Spring registers with ones built from the application's builder,
+				// keeping them after the JSON converter so JSON stays the default
+				converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+						|| converter instanceof MappingJackson2CborHttpMessageConverter);
+				converters.add(new MappingJackson2SmileHttpMessageConverter(
+						objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+				converters.add(new MappingJackson2CborHttpMessageConverter(
+						objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+			}
+		};
+	}
+}
@@ -0,0 +1,85 @@
+package com.example.vc_data_fetcher.config;
+
+import com.example.vc_data_fetcher.http.ConditionalRequestCache;
+import com.example.vc_data_fetcher.ratelimit.RateLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+@Configuration
+public class GithubClientConfig {
+
+	@Value("${github.http.max-connections:64}")
+	private int maxConnections;
+
+	@Value("${github.http.max-connections-per-route:32}")
+	private int maxConnectionsPerRoute;
+
+	@Value("${github.http.connect-timeout-ms:5000}")
+	private long connectTimeoutMs;
+
+	@Value("${github.http.read-timeout-ms:60000}")
+	private long readTimeoutMs;
+
+	@Value("${github.http.idle-timeout-ms:30000}")
+	private long idleTimeoutMs;
+
+	/**
+	 * Connection pool shared by all GitHub traffic, so TLS sessions are kept alive across requests
+	 */
+	@Bean(destroyMethod = "close")
+	public PoolingHttpClientConnectionManager githubConnectionManager(MeterRegistry meterRegistry) {
+		PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(maxConnections)
+				.setMaxConnPerRoute(maxConnectionsPerRoute)
+				.setDefaultConnectionConfig(ConnectionConfig.custom()
+						.setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+						.setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+						.setValidateAfterInactivity(TimeValue.ofSeconds(2))
+						.build())
+				.build();
+		new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "github").bindTo(meterRegistry);
+		return connectionManager;
+	}
+
+	/**
+	 * Pooled keep-alive client; it sends Accept-Encoding and transparently decompresses gzip/deflate bodies
+	 */
+	@Bean(destroyMethod = "close")
+	public CloseableHttpClient githubHttpClient(PoolingHttpClientConnectionManager githubConnectionManager) {
+		return HttpClients.custom()
+				.setConnectionManager(githubConnectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+						.build())
+				.evictIdleConnections(TimeValue.ofMilliseconds(idleTimeoutMs))
+				.evictExpiredConnections()
+				.build();
+	}
+
+	/**
+	 * RestTemplate for all GitHub API traffic. The rate-limit interceptor is outermost so it sees
+	 * the quota headers of revalidated (304) responses as well.
+	 */
+	@Bean
+	public RestTemplate githubRestTemplate(CloseableHttpClient githubHttpClient,
+										   RateLimitInterceptor rateLimitInterceptor,
+										   ConditionalRequestCache conditionalRequestCache) {
+		RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(githubHttpClient));
+		restTemplate.getInterceptors().add(rateLimitInterceptor);
+		restTemplate.getInterceptors().add(conditionalRequestCache);
+		return restTemplate;
+	}
+}
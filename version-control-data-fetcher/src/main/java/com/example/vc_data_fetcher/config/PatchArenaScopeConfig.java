@@ -0,0 +1,118 @@
+package com.example.vc_data_fetcher.config;
+
+import com.example.vc_data_fetcher.compact.PatchArenaScope;
+import graphql.ExecutionResult;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Ties every {@link PatchArenaScope} to a request, so patch arenas are released when the response is done
+ * with them rather than whenever the collector gets to their buffers.
+ * <p>
+ * REST requests get a scope bound while the handler runs and closed once the response is complete; for a
+ * streamed body that is when the async request completes. A GraphQL execution gets its own scope in its
+ * {@link graphql.GraphQLContext}, bound around each data fetcher and closed when the execution result is
+ * complete, by which point patch text has been copied into the result. Batch loaders run outside data
+ * fetchers and bind it themselves.
+ */
+@Configuration
+public class PatchArenaScopeConfig {
+
+	@Bean
+	public OncePerRequestFilter patchArenaScopeFilter() {
+		return new ScopeFilter();
+	}
+
+	@Bean
+	public Instrumentation patchArenaScopeInstrumentation() {
+		return new ScopeInstrumentation();
+	}
+
+	private static class ScopeFilter extends OncePerRequestFilter {
+
+		@Override
+		protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+				throws ServletException, IOException {
+			PatchArenaScope scope = new PatchArenaScope();
+			try (PatchArenaScope.Binding binding = scope.bind()) {
+				chain.doFilter(request, response);
+			} finally {
+				if (request.isAsyncStarted()) {
+					request.getAsyncContext().addListener(new CloseOnComplete(scope));
+				} else {
+					scope.close();
+				}
+			}
+		}
+	}
+
+	private static class CloseOnComplete implements AsyncListener {
+		private final PatchArenaScope scope;
+
+		private CloseOnComplete(PatchArenaScope scope) {
+			this.scope = scope;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			scope.close();
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+	}
+
+	private static class ScopeInstrumentation extends SimplePerformantInstrumentation {
+
+		@Override
+		public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters,
+																	 InstrumentationState state) {
+			PatchArenaScope scope = new PatchArenaScope();
+			parameters.getGraphQLContext().put(PatchArenaScope.class, scope);
+			return SimpleInstrumentationContext.whenCompleted((result, error) -> scope.close());
+		}
+
+		@Override
+		public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters,
+													InstrumentationState state) {
+			if (parameters.isTrivialDataFetcher()) {
+				return dataFetcher;
+			}
+			return environment -> {
+				PatchArenaScope scope = environment.getGraphQlContext().get(PatchArenaScope.class);
+				if (scope == null) {
+					return dataFetcher.get(environment);
+				}
+				try (PatchArenaScope.Binding binding = scope.bind()) {
+					return dataFetcher.get(environment);
+				}
+			};
+		}
+	}
+}
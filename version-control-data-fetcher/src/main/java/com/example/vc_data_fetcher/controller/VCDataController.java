@@ -1,20 +1,47 @@
 package com.example.vc_data_fetcher.controller;
 
+import com.example.vc_data_fetcher.compact.ArenaFileData;
+import com.example.vc_data_fetcher.compact.PatchArenaScope;
 import com.example.vc_data_fetcher.dto.CheckAccessRequest;
+import com.example.vc_data_fetcher.dto.Commit;
+import com.example.vc_data_fetcher.dto.Connection;
+import com.example.vc_data_fetcher.dto.ContributorNode;
 import com.example.vc_data_fetcher.dto.ContributorWithCommits;
+import com.example.vc_data_fetcher.dto.DetailLevel;
+import com.example.vc_data_fetcher.dto.DiffHunk;
+import com.example.vc_data_fetcher.dto.FileData;
+import com.example.vc_data_fetcher.dto.HistoryFilter;
+import com.example.vc_data_fetcher.dto.PatchReduction;
+import com.example.vc_data_fetcher.dto.CoChangeGraph;
+import com.example.vc_data_fetcher.dto.RepoHistory;
+import com.example.vc_data_fetcher.dto.RepoMetrics;
+import com.example.vc_data_fetcher.segment.SegmentReader;
+import com.example.vc_data_fetcher.segment.SegmentWriter;
+import com.example.vc_data_fetcher.service.CommitHistoryIndex;
+import com.example.vc_data_fetcher.service.UnifiedDiffParser;
 import com.example.vc_data_fetcher.service.VCDataService;
+import graphql.GraphQLContext;
 import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +53,9 @@ public class VCDataController {
 
 	private static final Logger logger = LoggerFactory.getLogger(VCDataController.class);
 
+	private static final int DEFAULT_METRICS_LIMIT = 20;
+	private static final int DEFAULT_COUPLINGS = 5;
+
 	private final VCDataService vcDataService;
 
 	public VCDataController(VCDataService vcDataService) {
@@ -70,16 +100,22 @@ public class VCDataController {
 	}
 
 	/**
-	 * Get contributors along with their commits in one aggregated query
+	 * Get contributors along with their commits in one aggregated query, optionally restricted
+	 * to a branch, time range, author or path. Commit files are resolved by {@link #files} only
+	 * when the query selects them.
 	 */
 	@QueryMapping
-	public List<ContributorWithCommits> repoData(@Argument String repoUrl, @Argument Long userId) {
-		logger.info("GraphQL: Fetching repo data for repo: {} by user ID: {}", repoUrl, userId);
+	public List<ContributorWithCommits> repoData(@Argument String repoUrl, @Argument Long userId, @Argument DetailLevel detail,
+												 @Argument String since, @Argument String until, @Argument String author,
+												 @Argument String path, @Argument String branch, @Argument PatchReduction reduction) {
+		logger.info("GraphQL: Fetching repo data for repo: {} by user ID: {} with detail {}", repoUrl, userId, detail);
 		try {
-			return vcDataService.getContributorsWithCommits(repoUrl, userId);
+			HistoryFilter filter = HistoryFilter.of(since, until, author, path, branch);
+			return vcDataService.getContributorsWithLazyCommits(repoUrl, userId, detail != null ? detail : DetailLevel.PATCHES,
+					filter, reduction != null ? reduction : PatchReduction.defaults());
 		} catch (IllegalArgumentException e) {
-			logger.warn("GraphQL: Invalid repository URL for repo data: {}", e.getMessage());
-			throw new GraphQLException("Invalid repository URL: " + e.getMessage());
+			logger.warn("GraphQL: Invalid arguments for repo data: {}", e.getMessage());
+			throw new GraphQLException("Invalid arguments: " + e.getMessage());
 		} catch (RuntimeException e) {
 			logger.error("GraphQL: Runtime error fetching repo data: {}", e.getMessage());
 			throw new GraphQLException("Error fetching repository data: " + e.getMessage());
@@ -89,6 +125,239 @@ public class VCDataController {
 		}
 	}
 
+	@GetMapping("/repo-data")
+	public List<ContributorWithCommits> getRepoData(@RequestParam String repoUrl, @RequestParam Long userId,
+													@RequestParam(defaultValue = "PATCHES") DetailLevel detail,
+													@RequestParam(required = false) String since,
+													@RequestParam(required = false) String until,
+													@RequestParam(required = false) String author,
+													@RequestParam(required = false) String path,
+													@RequestParam(required = false) String branch,
+													@RequestParam(required = false) Boolean reduce,
+													@RequestParam(required = false) List<String> excludePaths,
+													@RequestParam(required = false) Integer maxPatchBytes) {
+		logger.info("REST: Fetching repo data for repo: {} by user ID: {} with detail {}", repoUrl, userId, detail);
+		try {
+			HistoryFilter filter = HistoryFilter.of(since, until, author, path, branch);
+			return vcDataService.getContributorsWithCommits(repoUrl, userId, detail, filter,
+					PatchReduction.of(reduce, excludePaths, maxPatchBytes));
+		} catch (IllegalArgumentException e) {
+			logger.warn("REST: Invalid arguments for repo data: {}", e.getMessage());
+			throw new GraphQLException("Invalid arguments: " + e.getMessage());
+		} catch (RuntimeException e) {
+			logger.error("REST: Runtime error fetching repo data: {}", e.getMessage());
+			throw new GraphQLException("Error fetching repository data: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Stream the same data as {@code /repo-data} as a segment file, which {@link SegmentReader} maps and
+	 * iterates without parsing. The history is fetched before the response starts, so fetch errors still
+	 * produce an error response.
+	 */
+	@GetMapping("/repo-export")
+	public ResponseEntity<StreamingResponseBody> exportRepoData(@RequestParam String repoUrl, @RequestParam Long userId,
+																@RequestParam(defaultValue = "PATCHES") DetailLevel detail,
+																@RequestParam(required = false) String since,
+																@RequestParam(required = false) String until,
+																@RequestParam(required = false) String author,
+																@RequestParam(required = false) String path,
+																@RequestParam(required = false) String branch,
+																@RequestParam(required = false) Boolean reduce,
+																@RequestParam(required = false) List<String> excludePaths,
+																@RequestParam(required = false) Integer maxPatchBytes) {
+		logger.info("REST: Exporting repo data for repo: {} by user ID: {} with detail {}", repoUrl, userId, detail);
+		List<ContributorWithCommits> contributors;
+		try {
+			HistoryFilter filter = HistoryFilter.of(since, until, author, path, branch);
+			contributors = vcDataService.getContributorsWithCommits(repoUrl, userId, detail, filter,
+					PatchReduction.of(reduce, excludePaths, maxPatchBytes));
+		} catch (IllegalArgumentException e) {
+			logger.warn("REST: Invalid arguments for repo export: {}", e.getMessage());
+			throw new GraphQLException("Invalid arguments: " + e.getMessage());
+		} catch (RuntimeException e) {
+			logger.error("REST: Runtime error exporting repo data: {}", e.getMessage());
+			throw new GraphQLException("Error exporting repository data: " + e.getMessage());
+		}
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(SegmentWriter.MEDIA_TYPE))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"repo-data.seg\"")
+				.body(out -> {
+					long bytes = SegmentWriter.write(contributors, out);
+					logger.info("REST: Exported {} contributors of {} as {} bytes", contributors.size(), repoUrl, bytes);
+				});
+	}
+
+	/**
+	 * Contribution metrics (churn, files and modules touched, directory ownership, rework rate, hotspots)
+	 * of a repository, optionally restricted like {@link #repoData}
+	 */
+	@QueryMapping
+	public RepoMetrics repoMetrics(@Argument String repoUrl, @Argument Long userId, @Argument String since,
+								   @Argument String until, @Argument String author, @Argument String path,
+								   @Argument String branch, @Argument Integer limit) {
+		logger.info("GraphQL: Computing metrics for repo: {} by user ID: {}", repoUrl, userId);
+		try {
+			HistoryFilter filter = HistoryFilter.of(since, until, author, path, branch);
+			return vcDataService.getRepoMetrics(repoUrl, userId, filter, limit != null ? limit : DEFAULT_METRICS_LIMIT);
+		} catch (IllegalArgumentException e) {
+			logger.warn("GraphQL: Invalid arguments for repo metrics: {}", e.getMessage());
+			throw new GraphQLException("Invalid arguments: " + e.getMessage());
+		} catch (RuntimeException e) {
+			logger.error("GraphQL: Runtime error computing repo metrics: {}", e.getMessage());
+			throw new GraphQLException("Error computing repository metrics: " + e.getMessage());
+		}
+	}
+
+	@GetMapping("/repo-metrics")
+	public RepoMetrics getRepoMetrics(@RequestParam String repoUrl, @RequestParam Long userId,
+									  @RequestParam(required = false) String since,
+									  @RequestParam(required = false) String until,
+									  @RequestParam(required = false) String author,
+									  @RequestParam(required = false) String path,
+									  @RequestParam(required = false) String branch,
+									  @RequestParam(defaultValue = "20") int limit) {
+		logger.info("REST: Computing metrics for repo: {} by user ID: {}", repoUrl, userId);
+		try {
+			HistoryFilter filter = HistoryFilter.of(since, until, author, path, branch);
+			return vcDataService.getRepoMetrics(repoUrl, userId, filter, limit);
+		} catch (IllegalArgumentException e) {
+			logger.warn("REST: Invalid arguments for repo metrics: {}", e.getMessage());
+			throw new GraphQLException("Invalid arguments: " + e.getMessage());
+		} catch (RuntimeException e) {
+			logger.error("REST: Runtime error computing repo metrics: {}", e.getMessage());
+			throw new GraphQLException("Error computing repository metrics: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Files most often changed together and contributors who change the same files, optionally restricted
+	 * like {@link #repoData}
+	 */
+	@QueryMapping
+	public CoChangeGraph coChangeGraph(@Argument String repoUrl, @Argument Long userId, @Argument String since,
+									   @Argument String until, @Argument String author, @Argument String path,
+									   @Argument String branch, @Argument Integer limit, @Argument Integer top) {
+		logger.info("GraphQL: Analyzing co-changes for repo: {} by user ID: {}", repoUrl, userId);
+		try {
+			HistoryFilter filter = HistoryFilter.of(since, until, author, path, branch);
+			return vcDataService.getCoChangeGraph(repoUrl, userId, filter, limit != null ? limit : DEFAULT_METRICS_LIMIT,
+					top != null ? top : DEFAULT_COUPLINGS);
+		} catch (IllegalArgumentException e) {
+			logger.warn("GraphQL: Invalid arguments for co-change graph: {}", e.getMessage());
+			throw new GraphQLException("Invalid arguments: " + e.getMessage());
+		} catch (RuntimeException e) {
+			logger.error("GraphQL: Runtime error analyzing co-changes: {}", e.getMessage());
+			throw new GraphQLException("Error analyzing co-changes: " + e.getMessage());
+		}
+	}
+
+	@GetMapping("/repo-cochange")
+	public CoChangeGraph getCoChangeGraph(@RequestParam String repoUrl, @RequestParam Long userId,
+										  @RequestParam(required = false) String since,
+										  @RequestParam(required = false) String until,
+										  @RequestParam(required = false) String author,
+										  @RequestParam(required = false) String path,
+										  @RequestParam(required = false) String branch,
+										  @RequestParam(defaultValue = "20") int limit,
+										  @RequestParam(defaultValue = "5") int top) {
+		logger.info("REST: Analyzing co-changes for repo: {} by user ID: {}", repoUrl, userId);
+		try {
+			HistoryFilter filter = HistoryFilter.of(since, until, author, path, branch);
+			return vcDataService.getCoChangeGraph(repoUrl, userId, filter, limit, top);
+		} catch (IllegalArgumentException e) {
+			logger.warn("REST: Invalid arguments for co-change graph: {}", e.getMessage());
+			throw new GraphQLException("Invalid arguments: " + e.getMessage());
+		} catch (RuntimeException e) {
+			logger.error("REST: Runtime error analyzing co-changes: {}", e.getMessage());
+			throw new GraphQLException("Error analyzing co-changes: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Get the indexed history of a repository for paginated access through its connection fields
+	 */
+	@QueryMapping
+	public RepoHistory repoHistory(@Argument String repoUrl, @Argument Long userId, @Argument DetailLevel detail,
+								   @Argument String since, @Argument String until, @Argument String author,
+								   @Argument String path, @Argument String branch, @Argument PatchReduction reduction) {
+		logger.info("GraphQL: Fetching paginated repo history for repo: {} by user ID: {}", repoUrl, userId);
+		try {
+			HistoryFilter filter = HistoryFilter.of(since, until, author, path, branch);
+			return vcDataService.getRepoHistory(repoUrl, userId, detail != null ? detail : DetailLevel.PATCHES, filter,
+					reduction != null ? reduction : PatchReduction.defaults());
+		} catch (IllegalArgumentException e) {
+			logger.warn("GraphQL: Invalid arguments for repo history: {}", e.getMessage());
+			throw new GraphQLException("Invalid arguments: " + e.getMessage());
+		} catch (RuntimeException e) {
+			logger.error("GraphQL: Runtime error fetching repo history: {}", e.getMessage());
+			throw new GraphQLException("Error fetching repository history: " + e.getMessage());
+		}
+	}
+
+	@SchemaMapping(typeName = "RepoHistory", field = "contributors")
+	public Connection<ContributorNode> contributors(RepoHistory history, @Argument Integer first, @Argument String after) {
+		try {
+			return vcDataService.getContributorPage(history, first, after);
+		} catch (IllegalArgumentException e) {
+			throw new GraphQLException("Invalid pagination arguments: " + e.getMessage());
+		}
+	}
+
+	@SchemaMapping(typeName = "RepoHistory", field = "commits")
+	public Connection<Commit> commits(RepoHistory history, @Argument Integer first, @Argument String after) {
+		return commitPage(history, null, first, after);
+	}
+
+	@SchemaMapping(typeName = "ContributorNode", field = "commits")
+	public Connection<Commit> commits(ContributorNode contributor, @Argument Integer first, @Argument String after) {
+		return commitPage(contributor.getHistory(), contributor.getAuthor(), first, after);
+	}
+
+	/**
+	 * Hunks of a file's patch, parsed on demand. Patches in the patch arena are parsed as they are decoded.
+	 */
+	@SchemaMapping(typeName = "FileData", field = "hunks")
+	public List<DiffHunk> hunks(FileData file, @Argument Boolean lines) {
+		boolean includeLines = Boolean.TRUE.equals(lines);
+		if (file instanceof ArenaFileData arenaFile) {
+			try (Reader reader = arenaFile.getPatch().reader()) {
+				return UnifiedDiffParser.parse(reader, includeLines);
+			} catch (IOException e) {
+				throw new GraphQLException("Error reading patch of " + file.getFullPath() + ": " + e.getMessage());
+			}
+		}
+		return UnifiedDiffParser.parse(file.getCode(), includeLines);
+	}
+
+	/**
+	 * Resolve Commit.files for all commits of a request in one batch through the parallel detail fetcher.
+	 * Batch loaders run outside any data fetcher, so the execution's patch arena scope is bound here.
+	 */
+	@BatchMapping(typeName = "Commit", field = "files")
+	public List<List<FileData>> files(List<Commit> commits, GraphQLContext context) {
+		logger.debug("GraphQL: Resolving files for {} commits", commits.size());
+		PatchArenaScope scope = context.get(PatchArenaScope.class);
+		if (scope == null) {
+			return vcDataService.fetchFilesFor(commits);
+		}
+		try (PatchArenaScope.Binding binding = scope.bind()) {
+			return vcDataService.fetchFilesFor(commits);
+		}
+	}
+
+	private Connection<Commit> commitPage(RepoHistory history, CommitHistoryIndex.AuthorCommits author,
+										  Integer first, String after) {
+		try {
+			return vcDataService.getCommitPage(history, author, first, after);
+		} catch (IllegalArgumentException e) {
+			throw new GraphQLException("Invalid pagination arguments: " + e.getMessage());
+		} catch (RuntimeException e) {
+			logger.error("GraphQL: Runtime error fetching commit page: {}", e.getMessage());
+			throw new GraphQLException("Error fetching commits: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Custom exception for GraphQL error responses
 	 */
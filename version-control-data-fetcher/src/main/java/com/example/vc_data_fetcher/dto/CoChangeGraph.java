@@ -0,0 +1,23 @@
+package com.example.vc_data_fetcher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Strongest co-change couplings between files, and between contributors through the files they share
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CoChangeGraph {
+	private int commitsAnalyzed;
+	private int commitsSkipped;                       // Commits touching more files than the configured maximum
+	private int fileCouplings;                        // Distinct coupled file pairs before ranking
+	private List<FileCoupling> files;                 // By strongest coupling, highest first
+	private List<ContributorCoupling> contributors;   // By strongest coupling, highest first
+}
@@ -1,5 +1,6 @@
 package com.example.vc_data_fetcher.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.AllArgsConstructor;
@@ -14,5 +15,13 @@ public class Commit {
 	private String msg;
 	private String sha;
 	private String date;
+	private String authorName;
+	private int additions;
+	private int deletions;
+	private int changedFiles;
 	private List<FileData> files;
+
+	// Repository the commit was read from; lets GraphQL resolve files lazily when they are null
+	@JsonIgnore
+	private RepoHistory history;
 }
\ No newline at end of file
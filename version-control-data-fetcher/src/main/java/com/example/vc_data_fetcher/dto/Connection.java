@@ -0,0 +1,74 @@
+package com.example.vc_data_fetcher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Relay-style connection page. Cursors encode the key of an item (a login or a SHA) rather than
+ * its position, so commits landing between two page requests do not shift the next page.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class Connection<T> {
+	public static final int DEFAULT_PAGE_SIZE = 20;
+	public static final int MAX_PAGE_SIZE = 100;
+
+	private List<Edge<T>> edges;
+	private PageInfo pageInfo;
+	private int totalCount;
+
+	/**
+	 * Slice one page out of {@code items}: the {@code first} items following the item whose key
+	 * the {@code after} cursor encodes, found through {@code indexOf} (-1 for a key not in
+	 * {@code items}). Nodes are only built for the items of the page.
+	 */
+	public static <S, T> Connection<T> page(List<S> items, Integer first, String after, Function<S, String> key,
+											ToIntFunction<String> indexOf, Function<List<S>, List<T>> toNodes) {
+		int size = first == null ? DEFAULT_PAGE_SIZE : first;
+		if (size < 0 || size > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("first must be between 0 and " + MAX_PAGE_SIZE);
+		}
+
+		int start = 0;
+		if (after != null) {
+			int position = indexOf.applyAsInt(decodeCursor(after));
+			if (position < 0) {
+				throw new IllegalArgumentException("Unknown cursor: " + after);
+			}
+			start = position + 1;
+		}
+
+		int end = Math.min(start + size, items.size());
+		List<S> slice = items.subList(start, end);
+		List<T> nodes = toNodes.apply(slice);
+		List<Edge<T>> edges = new ArrayList<>(slice.size());
+		for (int i = 0; i < slice.size(); i++) {
+			edges.add(new Edge<>(encodeCursor(key.apply(slice.get(i))), nodes.get(i)));
+		}
+		String endCursor = edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor();
+		return new Connection<>(edges, new PageInfo(end < items.size(), endCursor), items.size());
+	}
+
+	private static String encodeCursor(String key) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String decodeCursor(String cursor) {
+		try {
+			return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Malformed cursor: " + cursor);
+		}
+	}
+}
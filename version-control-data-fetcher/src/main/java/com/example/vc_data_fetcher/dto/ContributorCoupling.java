@@ -0,0 +1,30 @@
+package com.example.vc_data_fetcher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Contributors who changed the most files in common with one contributor
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContributorCoupling {
+	private String authorName;
+	private int files;                          // Distinct paths changed
+	private List<CoupledContributor> couplings;  // By shared files, highest first
+
+	@Getter
+	@Setter
+	@AllArgsConstructor
+	@NoArgsConstructor
+	public static class CoupledContributor {
+		private String authorName;
+		private int sharedFiles;
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.vc_data_fetcher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Metrics of one contributor
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContributorMetrics {
+	private String authorName;
+	private int commits;
+	private long additions;
+	private long deletions;
+	private long churn;             // additions + deletions
+	private int filesTouched;       // Distinct paths changed
+	private int modulesTouched;     // Distinct top-level directories changed
+	private double reworkRate;      // Share of file churn on files the contributor changed within the rework window
+}
@@ -0,0 +1,27 @@
+package com.example.vc_data_fetcher.dto;
+
+import com.example.vc_data_fetcher.service.CommitHistoryIndex;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Contributor of a {@link RepoHistory}; its commits are paged on demand
+ */
+@Getter
+@AllArgsConstructor
+public class ContributorNode {
+	private final RepoHistory history;
+	private final CommitHistoryIndex.AuthorCommits author;
+
+	public String getAuthorName() {
+		return author.getLogin();
+	}
+
+	public String getGithubUrl() {
+		return author.getUrl();
+	}
+
+	public int getContributions() {
+		return author.getContributions();
+	}
+}
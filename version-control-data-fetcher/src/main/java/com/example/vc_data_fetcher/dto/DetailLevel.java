@@ -0,0 +1,13 @@
+package com.example.vc_data_fetcher.dto;
+
+/**
+ * How much per-commit detail a repository fetch returns
+ */
+public enum DetailLevel {
+	// Commit-level totals from the history pages only; no per-commit REST calls and no files
+	STATS_ONLY,
+	// File list with per-file stats, without patch text
+	FILES,
+	// File list including the patch of every file
+	PATCHES
+}
@@ -0,0 +1,27 @@
+package com.example.vc_data_fetcher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One hunk of a unified diff: the line ranges it covers in the old and new file, and its changed lines
+ * when they were asked for
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DiffHunk {
+	private int oldStart;
+	private int oldLines;
+	private int newStart;
+	private int newLines;
+	private String section;         // Text after the closing @@, usually the enclosing function
+	private int additions;
+	private int deletions;
+	private List<DiffLine> lines;   // Added and removed lines, or null when not requested
+}
@@ -0,0 +1,25 @@
+package com.example.vc_data_fetcher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One added or removed line of a diff hunk, with its line number in the file it belongs to
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DiffLine {
+	private Kind kind;
+	private Integer oldLine;   // Line number in the old file, null for added lines
+	private Integer newLine;   // Line number in the new file, null for removed lines
+	private String text;       // Line content without the leading +/-
+
+	public enum Kind {
+		ADDED,
+		REMOVED
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.vc_data_fetcher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * How the churn of one directory is shared between contributors
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DirectoryOwnership {
+	private String directory;       // "." for the repository root
+	private long churn;
+	private List<Owner> owners;     // By share, highest first
+
+	@Getter
+	@Setter
+	@AllArgsConstructor
+	@NoArgsConstructor
+	public static class Owner {
+		private String authorName;
+		private long churn;
+		private double share;
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.vc_data_fetcher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Files most often changed in the same commit as one file
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FileCoupling {
+	private String path;
+	private int commits;
+	private List<CoupledFile> couplings;   // By shared commits, highest first
+
+	@Getter
+	@Setter
+	@AllArgsConstructor
+	@NoArgsConstructor
+	public static class CoupledFile {
+		private String path;
+		private int sharedCommits;
+		private double confidence;   // Share of the file's commits that also changed this one
+	}
+}
@@ -0,0 +1,20 @@
+package com.example.vc_data_fetcher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A frequently changed file
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FileHotspot {
+	private String path;
+	private int commits;
+	private long churn;
+	private int authors;
+}
@@ -0,0 +1,90 @@
+package com.example.vc_data_fetcher.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Server-side restriction of a history fetch, pushed down into GitHub's commit history connection.
+ * Every field is optional; an empty filter reads the whole default-branch history.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+public class HistoryFilter {
+	// ISO-8601 timestamp or date (a date means midnight UTC)
+	private String since;
+	private String until;
+	// GitHub login, or a commit author email when it contains '@'
+	private String author;
+	// Only commits touching this path (a file or directory prefix)
+	private String path;
+	// Branch to read instead of the default branch
+	private String branch;
+
+	public static HistoryFilter none() {
+		return new HistoryFilter();
+	}
+
+	/**
+	 * Build a filter from request arguments, treating blank values as absent
+	 */
+	public static HistoryFilter of(String since, String until, String author, String path, String branch) {
+		HistoryFilter filter = new HistoryFilter();
+		filter.since = blankToNull(since);
+		filter.until = blankToNull(until);
+		filter.author = blankToNull(author);
+		String trimmedPath = blankToNull(path);
+		filter.path = trimmedPath != null ? blankToNull(trimmedPath.replaceAll("^/+|/+$", "")) : null;
+		filter.branch = blankToNull(branch);
+		// Fail fast on malformed timestamps
+		filter.sinceInstant();
+		filter.untilInstant();
+		return filter;
+	}
+
+	/**
+	 * Whether the filter selects a subset of the branch history, as opposed to only choosing the branch
+	 */
+	public boolean isPartial() {
+		return since != null || until != null || author != null || path != null;
+	}
+
+	public Instant sinceInstant() {
+		return parseTime("since", since);
+	}
+
+	public Instant untilInstant() {
+		return parseTime("until", until);
+	}
+
+	/**
+	 * Normalized form used in coalescing keys
+	 */
+	public String key() {
+		return sinceInstant() + "|" + untilInstant() + "|" + author + "|" + path;
+	}
+
+	private static String blankToNull(String value) {
+		return value == null || value.isBlank() ? null : value.trim();
+	}
+
+	private static Instant parseTime(String name, String value) {
+		if (value == null) {
+			return null;
+		}
+		try {
+			if (value.length() == 10) {
+				return LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant();
+			}
+			return Instant.parse(value);
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid " + name + " timestamp: " + value);
+		}
+	}
+}
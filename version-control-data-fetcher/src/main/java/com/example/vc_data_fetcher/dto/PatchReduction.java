@@ -0,0 +1,38 @@
+package com.example.vc_data_fetcher.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Per-request overrides of the patch reduction rules. Fields left null fall back to the
+ * configured {@code github.fetch.reduction.*} defaults.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class PatchReduction {
+	private Boolean enabled;
+	private List<String> exclude;
+	private Integer maxPatchBytes;
+	private Boolean generated;
+	private Boolean whitespaceOnly;
+	private Boolean renameOnly;
+
+	/**
+	 * The configured defaults, unchanged
+	 */
+	public static PatchReduction defaults() {
+		return new PatchReduction();
+	}
+
+	public static PatchReduction of(Boolean enabled, List<String> exclude, Integer maxPatchBytes) {
+		PatchReduction reduction = new PatchReduction();
+		reduction.setEnabled(enabled);
+		reduction.setExclude(exclude);
+		reduction.setMaxPatchBytes(maxPatchBytes);
+		return reduction;
+	}
+}
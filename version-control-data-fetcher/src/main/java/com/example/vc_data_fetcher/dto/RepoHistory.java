@@ -0,0 +1,25 @@
+package com.example.vc_data_fetcher.dto;
+
+import com.example.vc_data_fetcher.service.CommitHistoryIndex;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Indexed history of a repository that the paginated GraphQL fields page through.
+ * Holds commit metadata only; file details are fetched per requested page.
+ */
+@Getter
+@AllArgsConstructor
+public class RepoHistory {
+	private final String repoUrl;
+	private final String owner;
+	private final String repo;
+	private final String accessToken;
+	private final CommitHistoryIndex index;
+	private final DetailLevel detail;
+	private final PatchReduction reduction;
+
+	public int getTotalCommits() {
+		return index.getTotalCommits();
+	}
+}
@@ -0,0 +1,23 @@
+package com.example.vc_data_fetcher.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Contribution metrics of a repository history, computed from commit and file statistics only
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RepoMetrics {
+	private int totalCommits;
+	private long totalChurn;
+	private List<ContributorMetrics> contributors;   // By churn, highest first
+	private List<DirectoryOwnership> directories;    // By churn, highest first
+	private List<FileHotspot> hotspots;              // By commits, then churn
+}
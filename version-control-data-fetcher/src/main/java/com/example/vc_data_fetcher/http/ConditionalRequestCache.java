@@ -0,0 +1,237 @@
+package com.example.vc_data_fetcher.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP response cache for GitHub GET requests using conditional requests.
+ * <p>
+ * Responses carrying an ETag or Last-Modified header are kept with their body. The next identical
+ * request is sent with If-None-Match / If-Modified-Since and a 304 is answered from the cache;
+ * GitHub does not count 304 responses against the rate limit. Entries are keyed by URL and a hash
+ * of the Authorization header, so one user's cached body is never served to another, and evicted
+ * least-recently-used once the total body size exceeds {@code github.http.cache.max-bytes}.
+ * <p>
+ * Bodies larger than {@code github.http.cache.max-entry-bytes} are streamed through without being buffered,
+ * judged by Content-Length or, without one, by reading no more than the cap. The fetcher's GET traffic is the
+ * commit detail request made when the commit store has no files for a SHA, so a repeated miss (a failed
+ * store write, a fetch retried after an error) is answered by a 304 instead of spending rate limit.
+ */
+@Component
+public class ConditionalRequestCache implements ClientHttpRequestInterceptor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConditionalRequestCache.class);
+
+	private final long maxBytes;
+	private final int maxEntryBytes;
+	private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+	private long totalBytes;
+
+	private final Counter hits;
+	private final Counter misses;
+	private final Counter evictions;
+
+	public ConditionalRequestCache(@Value("${github.http.cache.max-bytes:67108864}") long maxBytes,
+								   @Value("${github.http.cache.max-entry-bytes:1048576}") int maxEntryBytes,
+								   MeterRegistry meterRegistry) {
+		this.maxBytes = maxBytes;
+		this.maxEntryBytes = (int) Math.min(maxEntryBytes, maxBytes);
+		this.hits = Counter.builder("github.http.cache.requests").tag("result", "hit").register(meterRegistry);
+		this.misses = Counter.builder("github.http.cache.requests").tag("result", "miss").register(meterRegistry);
+		this.evictions = Counter.builder("github.http.cache.evictions").register(meterRegistry);
+		Gauge.builder("github.http.cache.size", this, cache -> cache.sizeInBytes())
+				.baseUnit("bytes")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		if (request.getMethod() != HttpMethod.GET || maxBytes <= 0) {
+			return execution.execute(request, body);
+		}
+
+		String key = cacheKey(request);
+		CachedResponse cached;
+		synchronized (this) {
+			cached = entries.get(key);
+		}
+		if (cached != null) {
+			if (cached.etag != null) {
+				request.getHeaders().setIfNoneMatch(cached.etag);
+			} else {
+				request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified);
+			}
+		}
+
+		ClientHttpResponse response = execution.execute(request, body);
+
+		if (cached != null && response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+			hits.increment();
+			logger.debug("Conditional cache hit for {}", request.getURI());
+			HttpHeaders headers = new HttpHeaders();
+			headers.putAll(cached.headers);
+			// Keep fresh rate-limit and caching headers from the 304
+			response.getHeaders().forEach((name, values) -> {
+				if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+					headers.put(name, values);
+				}
+			});
+			response.close();
+			return new CachedResponse(HttpStatus.OK, headers, cached.body, cached.etag, cached.lastModified);
+		}
+
+		misses.increment();
+		String etag = response.getHeaders().getETag();
+		String lastModified = response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+		if (response.getStatusCode().value() != HttpStatus.OK.value() || (etag == null && lastModified == null)) {
+			return response;
+		}
+
+		long contentLength = response.getHeaders().getContentLength();
+		if (contentLength > maxEntryBytes) {
+			return response;
+		}
+		InputStream in = response.getBody();
+		byte[] prefix = in.readNBytes(maxEntryBytes + 1);
+		if (prefix.length > maxEntryBytes) {
+			// No Content-Length and over the cap: hand back what was read followed by the rest of the stream
+			return new PrefixedResponse(response, prefix);
+		}
+		byte[] responseBody = prefix;
+		HttpHeaders headers = new HttpHeaders();
+		headers.putAll(response.getHeaders());
+		response.close();
+		CachedResponse fresh = new CachedResponse(HttpStatus.OK, headers, responseBody, etag, lastModified);
+		put(key, fresh);
+		return fresh;
+	}
+
+	public synchronized long sizeInBytes() {
+		return totalBytes;
+	}
+
+	private synchronized void put(String key, CachedResponse response) {
+		CachedResponse previous = entries.put(key, response);
+		if (previous != null) {
+			totalBytes -= previous.body.length;
+		}
+		totalBytes += response.body.length;
+
+		Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+		while (totalBytes > maxBytes && eldest.hasNext()) {
+			totalBytes -= eldest.next().getValue().body.length;
+			eldest.remove();
+			evictions.increment();
+		}
+	}
+
+	private static String cacheKey(HttpRequest request) {
+		String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		if (authorization == null) {
+			return request.getURI().toString();
+		}
+		return TokenDigest.sha256(authorization) + " " + request.getURI();
+	}
+
+	/**
+	 * Response whose body was partly read while deciding whether to cache it
+	 */
+	private static class PrefixedResponse implements ClientHttpResponse {
+		private final ClientHttpResponse response;
+		private final InputStream body;
+
+		PrefixedResponse(ClientHttpResponse response, byte[] prefix) throws IOException {
+			this.response = response;
+			this.body = new SequenceInputStream(new ByteArrayInputStream(prefix), response.getBody());
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return response.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return response.getStatusText();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return response.getHeaders();
+		}
+
+		@Override
+		public InputStream getBody() {
+			return body;
+		}
+
+		@Override
+		public void close() {
+			response.close();
+		}
+	}
+
+	/**
+	 * Buffered response that can be handed out any number of times
+	 */
+	private static class CachedResponse implements ClientHttpResponse {
+		private final HttpStatus status;
+		private final HttpHeaders headers;
+		private final byte[] body;
+		private final String etag;
+		private final String lastModified;
+
+		CachedResponse(HttpStatus status, HttpHeaders headers, byte[] body, String etag, String lastModified) {
+			this.status = status;
+			this.headers = headers;
+			this.body = body;
+			this.etag = etag;
+			this.lastModified = lastModified;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() {
+			return status;
+		}
+
+		@Override
+		public String getStatusText() {
+			return status.getReasonPhrase();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return headers;
+		}
+
+		@Override
+		public InputStream getBody() {
+			return new ByteArrayInputStream(body);
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
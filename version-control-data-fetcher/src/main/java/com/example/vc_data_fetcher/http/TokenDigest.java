@@ -0,0 +1,24 @@
+package com.example.vc_data_fetcher.http;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hex SHA-256 of a credential, for keying per-token state without keeping the token itself around
+ */
+public final class TokenDigest {
+
+	private TokenDigest() {
+	}
+
+	public static String sha256(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
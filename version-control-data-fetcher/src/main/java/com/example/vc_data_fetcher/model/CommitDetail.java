@@ -0,0 +1,39 @@
+package com.example.vc_data_fetcher.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Parsed file details of a single commit. A SHA names immutable content, so a row never goes stale.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "commit_detail",
+		uniqueConstraints = @UniqueConstraint(columnNames = {"repo_key", "sha"}),
+		indexes = @Index(name = "idx_commit_detail_sha", columnList = "sha"))
+public class CommitDetail {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "repo_key", nullable = false)
+	private String repoKey;
+
+	@Column(name = "sha", nullable = false, length = 40)
+	private String sha;
+
+	// JSON array of FileData
+	@Column(name = "files", nullable = false, columnDefinition = "TEXT")
+	private String files;
+
+	@Column(name = "fetched_at", nullable = false)
+	private Instant fetchedAt;
+}
@@ -0,0 +1,61 @@
+package com.example.vc_data_fetcher.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One commit of a synced branch history. {@code seq} grows with every synced commit,
+ * so ordering by it descending reproduces the history order (newest first).
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "history_commit",
+		indexes = @Index(name = "idx_history_commit_repo_branch_seq", columnList = "repo_key, branch, seq"))
+public class HistoryCommit {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "repo_key", nullable = false)
+	private String repoKey;
+
+	@Column(name = "branch", nullable = false)
+	private String branch;
+
+	@Column(name = "seq", nullable = false)
+	private int seq;
+
+	@Column(name = "sha", nullable = false, length = 40)
+	private String sha;
+
+	@Column(name = "message", nullable = false, columnDefinition = "TEXT")
+	private String message;
+
+	@Column(name = "committed_date", nullable = false)
+	private String committedDate;
+
+	@Column(name = "author_login", nullable = false)
+	private String authorLogin;
+
+	@Column(name = "author_url", nullable = false)
+	private String authorUrl;
+
+	@Column(name = "additions", nullable = false)
+	private int additions;
+
+	@Column(name = "deletions", nullable = false)
+	private int deletions;
+
+	@Column(name = "changed_files", nullable = false)
+	private int changedFiles;
+
+	// Null for rows synced before parent counts were recorded
+	@Column(name = "parent_count")
+	private Integer parentCount;
+}
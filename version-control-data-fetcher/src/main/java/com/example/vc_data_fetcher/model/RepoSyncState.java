@@ -0,0 +1,41 @@
+package com.example.vc_data_fetcher.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * HEAD oid and commit count of a repository branch as seen on its last history sync
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "repo_sync_state",
+		uniqueConstraints = @UniqueConstraint(columnNames = {"repo_key", "branch"}))
+public class RepoSyncState {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "repo_key", nullable = false)
+	private String repoKey;
+
+	@Column(name = "branch", nullable = false)
+	private String branch;
+
+	@Column(name = "head_oid", nullable = false, length = 40)
+	private String headOid;
+
+	// Number of history commits seen up to head_oid; also the seq base for the next append
+	@Column(name = "commit_count", nullable = false)
+	private int commitCount;
+
+	@Column(name = "synced_at", nullable = false)
+	private Instant syncedAt;
+}
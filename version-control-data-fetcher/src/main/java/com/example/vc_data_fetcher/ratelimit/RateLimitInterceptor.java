@@ -0,0 +1,81 @@
+package com.example.vc_data_fetcher.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs every authenticated GitHub request through the {@link RateLimitScheduler}: waits for a slot
+ * before sending, feeds the rate-limit headers back, and on a rate-limit rejection parks until the
+ * reset (or Retry-After) and retries instead of failing the job.
+ */
+@Component
+public class RateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+	private static final Logger logger = LoggerFactory.getLogger(RateLimitInterceptor.class);
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	private final RateLimitScheduler scheduler;
+	private final int maxRetries;
+
+	public RateLimitInterceptor(RateLimitScheduler scheduler,
+								@Value("${github.rate-limit.max-retries:3}") int maxRetries) {
+		this.scheduler = scheduler;
+		this.maxRetries = maxRetries;
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+			return execution.execute(request, body);
+		}
+		String accessToken = authorization.substring(BEARER_PREFIX.length());
+		RateLimitScheduler.Resource resource = request.getURI().getPath().endsWith("/graphql")
+				? RateLimitScheduler.Resource.GRAPHQL
+				: RateLimitScheduler.Resource.CORE;
+
+		for (int attempt = 0; ; attempt++) {
+			try {
+				scheduler.acquire(accessToken, resource);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for GitHub rate limit");
+			}
+
+			ClientHttpResponse response = execution.execute(request, body);
+			scheduler.update(accessToken, resource, response.getHeaders());
+
+			int status = response.getStatusCode().value();
+			boolean limited = (status == 403 || status == 429)
+					&& ("0".equals(response.getHeaders().getFirst("X-RateLimit-Remaining"))
+					|| response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER) != null);
+			if (!limited || attempt >= maxRetries) {
+				return response;
+			}
+
+			String retryAfter = response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+			response.close();
+			logger.warn("GitHub rate limit hit for {} (attempt {}), waiting before retry", request.getURI(), attempt + 1);
+			if (retryAfter != null) {
+				try {
+					Thread.sleep(Long.parseLong(retryAfter.trim()) * 1000);
+				} catch (NumberFormatException e) {
+					logger.debug("Unparseable Retry-After: {}", retryAfter);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while waiting for GitHub rate limit");
+				}
+			}
+		}
+	}
+}
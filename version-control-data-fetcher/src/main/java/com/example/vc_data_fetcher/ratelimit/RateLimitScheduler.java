@@ -0,0 +1,262 @@
+package com.example.vc_data_fetcher.ratelimit;
+
+import com.example.vc_data_fetcher.http.TokenDigest;
+import com.example.vc_data_fetcher.service.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules GitHub requests against the rate-limit budget of each access token.
+ * <p>
+ * Remaining quota and reset time are tracked per token and resource (REST core / GraphQL) from
+ * the {@code X-RateLimit-*} response headers. A fetch opens a {@link Job} with its estimated cost;
+ * requests are then paced so the outstanding estimates fit the remaining budget, parked until the
+ * reset time once the budget is down to the reserve, and handed out least-served-job-first when
+ * several jobs share one token.
+ */
+@Component
+public class RateLimitScheduler {
+
+	private static final Logger logger = LoggerFactory.getLogger(RateLimitScheduler.class);
+
+	public enum Resource { CORE, GRAPHQL }
+
+	private static final ThreadLocal<Job> CURRENT_JOB = new ThreadLocal<>();
+
+	private final int reserve;
+	// Keyed by resource and token digest; a budget idle past its hourly window holds nothing worth keeping
+	private final ExpiringCache<String, Budget> budgets;
+
+	public RateLimitScheduler(@Value("${github.rate-limit.reserve:50}") int reserve,
+							  @Value("${github.rate-limit.budgets.size:1024}") int budgetsSize,
+							  @Value("${github.rate-limit.budgets.idle-minutes:60}") long budgetsIdleMinutes) {
+		this.reserve = reserve;
+		this.budgets = new ExpiringCache<>(budgetsSize, Duration.ofMinutes(budgetsIdleMinutes), true);
+	}
+
+	/**
+	 * Open a job for a fetch using the given token and bind it to the calling thread
+	 */
+	public Job openJob(String accessToken, String name) {
+		Job job = new Job(this, accessToken, name, CURRENT_JOB.get());
+		for (Resource resource : Resource.values()) {
+			Budget budget = budget(accessToken, resource);
+			synchronized (budget) {
+				budget.jobs.add(job);
+			}
+		}
+		CURRENT_JOB.set(job);
+		return job;
+	}
+
+	/**
+	 * Job bound to the calling thread, if any
+	 */
+	public Job currentJob() {
+		return CURRENT_JOB.get();
+	}
+
+	/**
+	 * Wrap a task so it runs with the calling thread's job bound, e.g. on an executor thread
+	 */
+	public <T> Supplier<T> propagate(Supplier<T> task) {
+		Job job = CURRENT_JOB.get();
+		if (job == null) {
+			return task;
+		}
+		return () -> {
+			Job previous = CURRENT_JOB.get();
+			CURRENT_JOB.set(job);
+			try {
+				return task.get();
+			} finally {
+				CURRENT_JOB.set(previous);
+			}
+		};
+	}
+
+	/**
+	 * Block until one request for the token and resource may be sent
+	 */
+	public void acquire(String accessToken, Resource resource) throws InterruptedException {
+		Budget budget = budget(accessToken, resource);
+		Job job = CURRENT_JOB.get();
+
+		synchronized (budget) {
+			budget.waiting.merge(job, 1, Integer::sum);
+			try {
+				while (true) {
+					long now = System.currentTimeMillis();
+					if (budget.remaining >= 0 && now >= budget.resetAt) {
+						// Window rolled over; unknown until the next response reports it
+						budget.remaining = -1;
+					}
+					if (budget.remaining >= 0 && budget.remaining <= reserve) {
+						long parkMillis = budget.resetAt - now + 1000;
+						logger.warn("Rate limit for {} down to {}, parking {} until reset in {}s",
+								resource, budget.remaining, job != null ? job.name : "request", parkMillis / 1000);
+						budget.wait(parkMillis);
+						continue;
+					}
+					if (job != null && !budget.isLeastServed(job, resource)) {
+						budget.wait();
+						continue;
+					}
+					if (now < budget.nextSlotAt) {
+						budget.wait(budget.nextSlotAt - now);
+						continue;
+					}
+
+					if (budget.remaining > 0) {
+						// Optimistic; corrected by the response headers
+						budget.remaining--;
+					}
+					budget.nextSlotAt = now + budget.paceMillis(resource, reserve, now);
+					if (job != null) {
+						job.spent[resource.ordinal()]++;
+					}
+					return;
+				}
+			} finally {
+				budget.waiting.computeIfPresent(job, (key, count) -> count > 1 ? count - 1 : null);
+				budget.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Record the quota reported by a GitHub response
+	 */
+	public void update(String accessToken, Resource requested, HttpHeaders headers) {
+		String remaining = headers.getFirst("X-RateLimit-Remaining");
+		String reset = headers.getFirst("X-RateLimit-Reset");
+		if (remaining == null || reset == null) {
+			return;
+		}
+		Resource resource = requested;
+		String reported = headers.getFirst("X-RateLimit-Resource");
+		if ("core".equals(reported)) {
+			resource = Resource.CORE;
+		} else if ("graphql".equals(reported)) {
+			resource = Resource.GRAPHQL;
+		}
+
+		try {
+			Budget budget = budget(accessToken, resource);
+			synchronized (budget) {
+				budget.remaining = Integer.parseInt(remaining);
+				budget.resetAt = Long.parseLong(reset) * 1000;
+				budget.notifyAll();
+			}
+		} catch (NumberFormatException e) {
+			logger.debug("Ignoring malformed rate limit headers: remaining={}, reset={}", remaining, reset);
+		}
+	}
+
+	private Budget budget(String accessToken, Resource resource) {
+		return budgets.computeIfAbsent(resource.name() + ":" + TokenDigest.sha256(accessToken), key -> new Budget());
+	}
+
+	private void close(Job job) {
+		for (Resource resource : Resource.values()) {
+			Budget budget = budget(job.accessToken, resource);
+			synchronized (budget) {
+				budget.jobs.remove(job);
+				budget.notifyAll();
+			}
+		}
+		if (CURRENT_JOB.get() == job) {
+			if (job.parent != null) {
+				CURRENT_JOB.set(job.parent);
+			} else {
+				CURRENT_JOB.remove();
+			}
+		}
+	}
+
+	/**
+	 * Quota state of one token and resource
+	 */
+	private static class Budget {
+		// -1 while unknown
+		private int remaining = -1;
+		private long resetAt;
+		private long nextSlotAt;
+		private final Set<Job> jobs = new HashSet<>();
+		// Jobs with threads blocked in acquire, with their thread count (null key for job-less requests)
+		private final Map<Job, Integer> waiting = new HashMap<>();
+
+		private boolean isLeastServed(Job job, Resource resource) {
+			int spent = job.spent[resource.ordinal()];
+			for (Job other : waiting.keySet()) {
+				if (other != null && other.spent[resource.ordinal()] < spent) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Spread requests over the rest of the window when the jobs' outstanding cost exceeds the budget
+		 */
+		private long paceMillis(Resource resource, int reserve, long now) {
+			if (remaining < 0 || resetAt <= now) {
+				return 0;
+			}
+			long outstanding = 0;
+			for (Job job : jobs) {
+				outstanding += Math.max(0, job.estimate[resource.ordinal()] - job.spent[resource.ordinal()]);
+			}
+			int usable = Math.max(1, remaining - reserve);
+			if (outstanding <= usable) {
+				return 0;
+			}
+			return (resetAt - now) / usable;
+		}
+	}
+
+	/**
+	 * One fetch drawing on a token's budget. Closing the job releases its share.
+	 */
+	public static class Job implements AutoCloseable {
+		private final RateLimitScheduler scheduler;
+		private final String accessToken;
+		private final String name;
+		private final Job parent;
+		private final int[] estimate = new int[Resource.values().length];
+		private final int[] spent = new int[Resource.values().length];
+
+		private Job(RateLimitScheduler scheduler, String accessToken, String name, Job parent) {
+			this.scheduler = scheduler;
+			this.accessToken = accessToken;
+			this.name = name;
+			this.parent = parent;
+		}
+
+		/**
+		 * Add the expected number of further requests against a resource
+		 */
+		public void estimate(Resource resource, int requests) {
+			Budget budget = scheduler.budget(accessToken, resource);
+			synchronized (budget) {
+				estimate[resource.ordinal()] = spent[resource.ordinal()] + requests;
+				if (budget.remaining >= 0 && requests > budget.remaining - scheduler.reserve) {
+					logger.info("Job {} needs ~{} {} requests with {} remaining; it will be paced until reset",
+							name, requests, resource, budget.remaining);
+				}
+			}
+		}
+
+		@Override
+		public void close() {
+			scheduler.close(this);
+		}
+	}
+}
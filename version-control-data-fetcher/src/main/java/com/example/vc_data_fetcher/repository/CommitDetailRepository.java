@@ -0,0 +1,16 @@
+package com.example.vc_data_fetcher.repository;
+
+import com.example.vc_data_fetcher.model.CommitDetail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CommitDetailRepository extends JpaRepository<CommitDetail, Long> {
+
+    List<CommitDetail> findByShaIn(Collection<String> shas);
+
+    boolean existsByRepoKeyAndSha(String repoKey, String sha);
+}
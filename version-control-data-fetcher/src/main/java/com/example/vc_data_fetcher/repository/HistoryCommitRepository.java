@@ -0,0 +1,21 @@
+package com.example.vc_data_fetcher.repository;
+
+import com.example.vc_data_fetcher.model.HistoryCommit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface HistoryCommitRepository extends JpaRepository<HistoryCommit, Long> {
+
+    List<HistoryCommit> findByRepoKeyAndBranchAndSeqLessThanEqualOrderBySeqDesc(String repoKey, String branch, int maxSeq);
+
+    // Bulk delete without loading every row into the persistence context
+    @Modifying
+    @Query("DELETE FROM HistoryCommit h WHERE h.repoKey = :repoKey AND h.branch = :branch")
+    void deleteByRepoKeyAndBranch(@Param("repoKey") String repoKey, @Param("branch") String branch);
+}
@@ -0,0 +1,22 @@
+package com.example.vc_data_fetcher.repository;
+
+import com.example.vc_data_fetcher.model.RepoSyncState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RepoSyncStateRepository extends JpaRepository<RepoSyncState, Long> {
+
+    Optional<RepoSyncState> findByRepoKeyAndBranch(String repoKey, String branch);
+
+    // Row lock held until the transaction ends, so writes to one branch history are serialized
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM RepoSyncState s WHERE s.repoKey = :repoKey AND s.branch = :branch")
+    Optional<RepoSyncState> findForUpdate(@Param("repoKey") String repoKey, @Param("branch") String branch);
+}
@@ -0,0 +1,80 @@
+package com.example.vc_data_fetcher.segment;
+
+/**
+ * Layout of a repository segment file. All numbers are big-endian and every section starts on an
+ * 8-byte boundary, so fixed-width records can be read in place from a memory mapping.
+ * <pre>
+ * header        magic, version, flags, creation time                      (32 bytes)
+ * patches       UTF-8 patch bytes, back to back                           (variable)
+ * files         one record per changed file, grouped by commit            (FILE_RECORD bytes each)
+ * commits       one record per commit, grouped by contributor             (COMMIT_RECORD bytes each)
+ * contributors  one record per contributor                                (CONTRIBUTOR_RECORD bytes each)
+ * strings       length-prefixed UTF-8 strings, then one long offset each  (variable)
+ * index         offset and count of each section                          (INDEX bytes)
+ * trailer       offset of the index, magic                                (TRAILER bytes)
+ * </pre>
+ * Sections are written in this order in a single pass, so a segment can be streamed as it is built.
+ * String fields hold dictionary ids, {@link #NO_STRING} for null.
+ */
+final class SegmentFormat {
+
+	static final int MAGIC = 0x56435347; // "VCSG"
+	static final int VERSION = 1;
+	static final int HEADER = 32;
+
+	static final int FILE_RECORD = 48;
+	static final int FILE_NAME = 0;
+	static final int FILE_PATH = 4;
+	static final int FILE_EXTENSION = 8;
+	static final int FILE_OPERATION = 12;
+	static final int FILE_PREVIOUS = 16;
+	static final int FILE_ADDITIONS = 20;
+	static final int FILE_DELETIONS = 24;
+	static final int FILE_CHANGES = 28;
+	static final int FILE_FLAGS = 32;
+	static final int FILE_PATCH_LENGTH = 36;
+	static final int FILE_PATCH_OFFSET = 40;
+
+	static final int COMMIT_RECORD = 48;
+	static final int COMMIT_SHA = 0;
+	static final int COMMIT_MESSAGE = 4;
+	static final int COMMIT_DATE = 8;
+	static final int COMMIT_AUTHOR = 12;
+	static final int COMMIT_CONTRIBUTOR = 16;
+	static final int COMMIT_ADDITIONS = 20;
+	static final int COMMIT_DELETIONS = 24;
+	static final int COMMIT_CHANGED_FILES = 28;
+	static final int COMMIT_FLAGS = 32;
+	static final int COMMIT_FILE_COUNT = 36;
+	static final int COMMIT_FIRST_FILE = 40;
+
+	static final int CONTRIBUTOR_RECORD = 24;
+	static final int CONTRIBUTOR_NAME = 0;
+	static final int CONTRIBUTOR_URL = 4;
+	static final int CONTRIBUTOR_CONTRIBUTIONS = 8;
+	static final int CONTRIBUTOR_COMMIT_COUNT = 12;
+	static final int CONTRIBUTOR_FIRST_COMMIT = 16;
+
+	static final int INDEX = 64;
+	static final int INDEX_PATCHES = 0;
+	static final int INDEX_FILES = 8;
+	static final int INDEX_COMMITS = 16;
+	static final int INDEX_CONTRIBUTORS = 24;
+	static final int INDEX_STRINGS = 32;
+	static final int INDEX_STRING_OFFSETS = 40;
+	static final int INDEX_FILE_COUNT = 48;
+	static final int INDEX_COMMIT_COUNT = 52;
+	static final int INDEX_CONTRIBUTOR_COUNT = 56;
+	static final int INDEX_STRING_COUNT = 60;
+
+	static final int TRAILER = 16;
+
+	static final int NO_STRING = -1;
+	static final long NO_PATCH = -1;
+
+	static final int FLAG_BINARY = 1;
+	static final int FLAG_HAS_FILES = 1;
+
+	private SegmentFormat() {
+	}
+}
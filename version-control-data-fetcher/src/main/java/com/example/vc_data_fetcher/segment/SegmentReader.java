@@ -0,0 +1,308 @@
+package com.example.vc_data_fetcher.segment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+
+import static com.example.vc_data_fetcher.segment.SegmentFormat.*;
+
+/**
+ * Memory-mapped view of a segment file written by {@link SegmentWriter}. Records are read in place from
+ * the mapping when accessed; strings are decoded once on first use and patches only when asked for, so
+ * iterating the commits of a repository never parses JSON or loads the patch region onto the heap.
+ * <p>
+ * The file is mapped in 1GB windows so segments larger than 2GB can be read. Readers are safe to
+ * share between threads once opened.
+ */
+public final class SegmentReader {
+
+	private static final int WINDOW_SHIFT = 30;
+	private static final long WINDOW_BYTES = 1L << WINDOW_SHIFT;
+
+	private final ByteBuffer[] windows;
+	private final long patchesOffset;
+	private final long filesOffset;
+	private final long commitsOffset;
+	private final long contributorsOffset;
+	private final long stringsOffset;
+	private final long stringOffsetsOffset;
+	private final int fileCount;
+	private final int commitCount;
+	private final int contributorCount;
+	private final String[] strings;
+
+	private SegmentReader(ByteBuffer[] windows, long size) {
+		this.windows = windows;
+		if (size < HEADER + INDEX + TRAILER || getInt(0) != MAGIC || getInt(size - TRAILER + 8) != MAGIC) {
+			throw new IllegalArgumentException("Not a segment file");
+		}
+		if (getInt(4) != VERSION) {
+			throw new IllegalArgumentException("Unsupported segment version " + getInt(4));
+		}
+		long index = getLong(size - TRAILER);
+		this.patchesOffset = getLong(index + INDEX_PATCHES);
+		this.filesOffset = getLong(index + INDEX_FILES);
+		this.commitsOffset = getLong(index + INDEX_COMMITS);
+		this.contributorsOffset = getLong(index + INDEX_CONTRIBUTORS);
+		this.stringsOffset = getLong(index + INDEX_STRINGS);
+		this.stringOffsetsOffset = getLong(index + INDEX_STRING_OFFSETS);
+		this.fileCount = getInt(index + INDEX_FILE_COUNT);
+		this.commitCount = getInt(index + INDEX_COMMIT_COUNT);
+		this.contributorCount = getInt(index + INDEX_CONTRIBUTOR_COUNT);
+		this.strings = new String[getInt(index + INDEX_STRING_COUNT)];
+	}
+
+	public static SegmentReader open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			ByteBuffer[] windows = new ByteBuffer[(int) ((size + WINDOW_BYTES - 1) >>> WINDOW_SHIFT)];
+			for (int i = 0; i < windows.length; i++) {
+				long start = (long) i << WINDOW_SHIFT;
+				windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_BYTES, size - start));
+			}
+			return new SegmentReader(windows, size);
+		}
+	}
+
+	public int getContributorCount() {
+		return contributorCount;
+	}
+
+	public int getCommitCount() {
+		return commitCount;
+	}
+
+	public int getFileCount() {
+		return fileCount;
+	}
+
+	public List<SegmentContributor> contributors() {
+		return new Range<>(0, contributorCount) {
+			@Override
+			SegmentContributor at(int index) {
+				return new SegmentContributor(index);
+			}
+		};
+	}
+
+	/**
+	 * All commits, grouped by contributor in the order they were written
+	 */
+	public List<SegmentCommit> commits() {
+		return commits(0, commitCount);
+	}
+
+	private List<SegmentCommit> commits(int first, int count) {
+		return new Range<>(first, count) {
+			@Override
+			SegmentCommit at(int index) {
+				return new SegmentCommit(index);
+			}
+		};
+	}
+
+	String string(int id) {
+		if (id == NO_STRING) {
+			return null;
+		}
+		String value = strings[id];
+		if (value == null) {
+			long offset = stringsOffset + getLong(stringOffsetsOffset + (long) id * Long.BYTES);
+			value = decode(offset + Integer.BYTES, getInt(offset));
+			strings[id] = value;
+		}
+		return value;
+	}
+
+	private String decode(long offset, int length) {
+		ByteBuffer window = windows[(int) (offset >>> WINDOW_SHIFT)];
+		int position = (int) (offset & (WINDOW_BYTES - 1));
+		byte[] bytes = new byte[length];
+		if (position + length <= window.limit()) {
+			window.get(position, bytes);
+		} else {
+			// Spans two windows
+			int head = window.limit() - position;
+			window.get(position, bytes, 0, head);
+			windows[(int) (offset >>> WINDOW_SHIFT) + 1].get(0, bytes, head, length - head);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	// Sections are 8-byte aligned and windows are a multiple of 8 bytes, so no number spans two windows
+	private int getInt(long offset) {
+		return windows[(int) (offset >>> WINDOW_SHIFT)].getInt((int) (offset & (WINDOW_BYTES - 1)));
+	}
+
+	private long getLong(long offset) {
+		return windows[(int) (offset >>> WINDOW_SHIFT)].getLong((int) (offset & (WINDOW_BYTES - 1)));
+	}
+
+	public final class SegmentContributor {
+		private final long record;
+
+		private SegmentContributor(int index) {
+			this.record = contributorsOffset + (long) index * CONTRIBUTOR_RECORD;
+		}
+
+		public String getAuthorName() {
+			return string(getInt(record + CONTRIBUTOR_NAME));
+		}
+
+		public String getGithubUrl() {
+			return string(getInt(record + CONTRIBUTOR_URL));
+		}
+
+		public int getContributions() {
+			return getInt(record + CONTRIBUTOR_CONTRIBUTIONS);
+		}
+
+		public List<SegmentCommit> getCommits() {
+			return commits(getInt(record + CONTRIBUTOR_FIRST_COMMIT), getInt(record + CONTRIBUTOR_COMMIT_COUNT));
+		}
+	}
+
+	public final class SegmentCommit {
+		private final long record;
+
+		private SegmentCommit(int index) {
+			this.record = commitsOffset + (long) index * COMMIT_RECORD;
+		}
+
+		public String getSha() {
+			return string(getInt(record + COMMIT_SHA));
+		}
+
+		public String getMsg() {
+			return string(getInt(record + COMMIT_MESSAGE));
+		}
+
+		public String getDate() {
+			return string(getInt(record + COMMIT_DATE));
+		}
+
+		public String getAuthorName() {
+			return string(getInt(record + COMMIT_AUTHOR));
+		}
+
+		public int getContributorIndex() {
+			return getInt(record + COMMIT_CONTRIBUTOR);
+		}
+
+		public int getAdditions() {
+			return getInt(record + COMMIT_ADDITIONS);
+		}
+
+		public int getDeletions() {
+			return getInt(record + COMMIT_DELETIONS);
+		}
+
+		public int getChangedFiles() {
+			return getInt(record + COMMIT_CHANGED_FILES);
+		}
+
+		/**
+		 * Changed files, or null when the segment was written without file detail
+		 */
+		public List<SegmentFile> getFiles() {
+			if ((getInt(record + COMMIT_FLAGS) & FLAG_HAS_FILES) == 0) {
+				return null;
+			}
+			return new Range<>(getInt(record + COMMIT_FIRST_FILE), getInt(record + COMMIT_FILE_COUNT)) {
+				@Override
+				SegmentFile at(int index) {
+					return new SegmentFile(index);
+				}
+			};
+		}
+	}
+
+	public final class SegmentFile {
+		private final long record;
+
+		private SegmentFile(int index) {
+			this.record = filesOffset + (long) index * FILE_RECORD;
+		}
+
+		public String getFileName() {
+			return string(getInt(record + FILE_NAME));
+		}
+
+		public String getFullPath() {
+			return string(getInt(record + FILE_PATH));
+		}
+
+		public String getExtension() {
+			return string(getInt(record + FILE_EXTENSION));
+		}
+
+		public String getOperation() {
+			return string(getInt(record + FILE_OPERATION));
+		}
+
+		public String getPreviousFilename() {
+			return string(getInt(record + FILE_PREVIOUS));
+		}
+
+		public int getAdditions() {
+			return getInt(record + FILE_ADDITIONS);
+		}
+
+		public int getDeletions() {
+			return getInt(record + FILE_DELETIONS);
+		}
+
+		public int getChanges() {
+			return getInt(record + FILE_CHANGES);
+		}
+
+		public boolean isBinaryFile() {
+			return (getInt(record + FILE_FLAGS) & FLAG_BINARY) != 0;
+		}
+
+		public int getPatchLength() {
+			return getInt(record + FILE_PATCH_LENGTH);
+		}
+
+		/**
+		 * Decoded patch, or null when the file was written without one
+		 */
+		public String getCode() {
+			long offset = getLong(record + FILE_PATCH_OFFSET);
+			return offset == NO_PATCH ? null : decode(patchesOffset + offset, getPatchLength());
+		}
+	}
+
+	/**
+	 * Fixed-size list of record views, created on access
+	 */
+	private abstract static class Range<T> extends AbstractList<T> {
+		private final int first;
+		private final int count;
+
+		private Range(int first, int count) {
+			this.first = first;
+			this.count = count;
+		}
+
+		abstract T at(int index);
+
+		@Override
+		public T get(int index) {
+			if (index < 0 || index >= count) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			return at(first + index);
+		}
+
+		@Override
+		public int size() {
+			return count;
+		}
+	}
+}
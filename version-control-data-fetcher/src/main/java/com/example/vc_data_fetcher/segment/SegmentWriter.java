@@ -0,0 +1,227 @@
+package com.example.vc_data_fetcher.segment;
+
+import com.example.vc_data_fetcher.compact.ArenaFileData;
+import com.example.vc_data_fetcher.compact.StringDictionary;
+import com.example.vc_data_fetcher.dto.Commit;
+import com.example.vc_data_fetcher.dto.ContributorWithCommits;
+import com.example.vc_data_fetcher.dto.FileData;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static com.example.vc_data_fetcher.segment.SegmentFormat.*;
+
+/**
+ * Writes fetched repository data as a segment file (see {@link SegmentFormat}) in one pass.
+ * Patch bytes go straight to the output, copied from the patch arena when the files live there;
+ * only the fixed-width records and the string dictionary are buffered until the patches are done.
+ */
+public final class SegmentWriter {
+
+	public static final String MEDIA_TYPE = "application/vnd.vc-data-fetcher.segment";
+
+	private SegmentWriter() {
+	}
+
+	/**
+	 * Write the segment to {@code target}, replacing it atomically once complete
+	 */
+	public static void write(List<ContributorWithCommits> contributors, Path target) throws IOException {
+		Path parent = target.toAbsolutePath().getParent();
+		Files.createDirectories(parent);
+		Path temp = Files.createTempFile(parent, target.getFileName().toString(), ".tmp");
+		try {
+			try (OutputStream out = Files.newOutputStream(temp)) {
+				write(contributors, out);
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Write the segment to {@code out}, which is flushed but not closed
+	 */
+	public static long write(List<ContributorWithCommits> contributors, OutputStream out) throws IOException {
+		Output output = new Output(new BufferedOutputStream(out, 64 << 10));
+		StringDictionary strings = new StringDictionary();
+		ByteArrayOutputStream fileBytes = new ByteArrayOutputStream();
+		ByteArrayOutputStream commitBytes = new ByteArrayOutputStream();
+		ByteArrayOutputStream contributorBytes = new ByteArrayOutputStream();
+		DataOutputStream files = new DataOutputStream(fileBytes);
+		DataOutputStream commits = new DataOutputStream(commitBytes);
+		DataOutputStream contributorRecords = new DataOutputStream(contributorBytes);
+
+		output.writeInt(MAGIC);
+		output.writeInt(VERSION);
+		output.writeInt(0);
+		output.writeInt(0);
+		output.writeLong(System.currentTimeMillis());
+		output.writeLong(0);
+
+		long patchesOffset = output.position;
+		int fileCount = 0;
+		int commitCount = 0;
+		for (int c = 0; c < contributors.size(); c++) {
+			ContributorWithCommits contributor = contributors.get(c);
+			List<Commit> contributorCommits = contributor.getCommits() != null ? contributor.getCommits() : List.of();
+			contributorRecords.writeInt(id(strings, contributor.getAuthorName()));
+			contributorRecords.writeInt(id(strings, contributor.getGithubUrl()));
+			contributorRecords.writeInt(contributor.getContributions());
+			contributorRecords.writeInt(contributorCommits.size());
+			contributorRecords.writeInt(commitCount);
+			contributorRecords.writeInt(0);
+
+			for (Commit commit : contributorCommits) {
+				List<FileData> commitFiles = commit.getFiles();
+				commits.writeInt(id(strings, commit.getSha()));
+				commits.writeInt(id(strings, commit.getMsg()));
+				commits.writeInt(id(strings, commit.getDate()));
+				commits.writeInt(id(strings, commit.getAuthorName()));
+				commits.writeInt(c);
+				commits.writeInt(commit.getAdditions());
+				commits.writeInt(commit.getDeletions());
+				commits.writeInt(commit.getChangedFiles());
+				commits.writeInt(commitFiles != null ? FLAG_HAS_FILES : 0);
+				commits.writeInt(commitFiles != null ? commitFiles.size() : 0);
+				commits.writeInt(fileCount);
+				commits.writeInt(0);
+				commitCount++;
+
+				if (commitFiles == null) {
+					continue;
+				}
+				for (FileData file : commitFiles) {
+					long patchOffset = output.position - patchesOffset;
+					int patchLength = writePatch(file, output);
+					files.writeInt(id(strings, file.getFileName()));
+					files.writeInt(id(strings, file.getFullPath()));
+					files.writeInt(id(strings, file.getExtension()));
+					files.writeInt(id(strings, file.getOperation()));
+					files.writeInt(id(strings, file.getPreviousFilename()));
+					files.writeInt(file.getAdditions());
+					files.writeInt(file.getDeletions());
+					files.writeInt(file.getChanges());
+					files.writeInt(file.isBinaryFile() ? FLAG_BINARY : 0);
+					files.writeInt(Math.max(patchLength, 0));
+					files.writeLong(patchLength < 0 ? NO_PATCH : patchOffset);
+					fileCount++;
+				}
+			}
+		}
+
+		output.align();
+		long filesOffset = output.position;
+		output.write(fileBytes);
+		long commitsOffset = output.position;
+		output.write(commitBytes);
+		long contributorsOffset = output.position;
+		output.write(contributorBytes);
+
+		long stringsOffset = output.position;
+		long[] stringOffsets = new long[strings.size()];
+		for (int id = 0; id < stringOffsets.length; id++) {
+			byte[] bytes = strings.get(id).getBytes(StandardCharsets.UTF_8);
+			stringOffsets[id] = output.position - stringsOffset;
+			output.writeInt(bytes.length);
+			output.write(bytes, bytes.length);
+		}
+		output.align();
+		long stringOffsetsOffset = output.position;
+		for (long offset : stringOffsets) {
+			output.writeLong(offset);
+		}
+
+		long indexOffset = output.position;
+		output.writeLong(patchesOffset);
+		output.writeLong(filesOffset);
+		output.writeLong(commitsOffset);
+		output.writeLong(contributorsOffset);
+		output.writeLong(stringsOffset);
+		output.writeLong(stringOffsetsOffset);
+		output.writeInt(fileCount);
+		output.writeInt(commitCount);
+		output.writeInt(contributors.size());
+		output.writeInt(stringOffsets.length);
+
+		output.writeLong(indexOffset);
+		output.writeInt(MAGIC);
+		output.writeInt(VERSION);
+		output.out.flush();
+		return output.position;
+	}
+
+	private static int id(StringDictionary strings, String value) {
+		return value == null ? NO_STRING : strings.id(value);
+	}
+
+	/**
+	 * Append a file's patch, returning its length in bytes or -1 when the file has none
+	 */
+	private static int writePatch(FileData file, Output output) throws IOException {
+		if (file instanceof ArenaFileData arenaFile) {
+			int length = arenaFile.getPatch().writeUtf8(output.out);
+			output.position += length;
+			return length;
+		}
+		if (file.getCode() == null) {
+			return -1;
+		}
+		byte[] bytes = file.getCode().getBytes(StandardCharsets.UTF_8);
+		output.write(bytes, bytes.length);
+		return bytes.length;
+	}
+
+	/**
+	 * Big-endian output tracking its position past 2GB, which DataOutputStream does not
+	 */
+	private static final class Output {
+		private final OutputStream out;
+		private final byte[] scratch = new byte[Long.BYTES];
+		private long position;
+
+		private Output(OutputStream out) {
+			this.out = out;
+		}
+
+		void writeInt(int value) throws IOException {
+			for (int i = 0; i < Integer.BYTES; i++) {
+				scratch[i] = (byte) (value >>> (24 - 8 * i));
+			}
+			write(scratch, Integer.BYTES);
+		}
+
+		void writeLong(long value) throws IOException {
+			for (int i = 0; i < Long.BYTES; i++) {
+				scratch[i] = (byte) (value >>> (56 - 8 * i));
+			}
+			write(scratch, Long.BYTES);
+		}
+
+		void write(byte[] bytes, int length) throws IOException {
+			out.write(bytes, 0, length);
+			position += length;
+		}
+
+		void write(ByteArrayOutputStream bytes) throws IOException {
+			bytes.writeTo(out);
+			position += bytes.size();
+		}
+
+		void align() throws IOException {
+			while (position % Long.BYTES != 0) {
+				out.write(0);
+				position++;
+			}
+		}
+	}
+}
@@ -0,0 +1,323 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.compact.LongIntMap;
+import com.example.vc_data_fetcher.compact.StringDictionary;
+import com.example.vc_data_fetcher.dto.CoChangeGraph;
+import com.example.vc_data_fetcher.dto.Commit;
+import com.example.vc_data_fetcher.dto.ContributorCoupling;
+import com.example.vc_data_fetcher.dto.ContributorWithCommits;
+import com.example.vc_data_fetcher.dto.FileCoupling;
+import com.example.vc_data_fetcher.dto.FileData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Co-change analysis: which files change in the same commits, and which contributors change the same files.
+ * <p>
+ * Paths are interned to dense ids and each commit is kept as its sorted, distinct ids in one flat int array.
+ * Pairs are then counted in a {@link LongIntMap} keyed by the packed pair of ids, so the graph costs two
+ * primitive array slots per edge rather than nested maps of boxed counts. Most pairs of a large history
+ * change together once, so counting is split into passes over ranges of the smaller id, each bounded by
+ * {@code cochange.max-pairs-per-pass} pairs; only the top couplings of each node survive a pass, in
+ * fixed-size per-node buffers. Counts stay exact whatever the number of passes.
+ * <p>
+ * Commits touching more than {@code cochange.max-files-per-commit} files (bulk reformatting, vendored
+ * code, mass renames) add quadratically many pairs and little signal, so they are left out of the file
+ * graph; file pairs sharing fewer than {@code cochange.min-shared-commits} commits are dropped. Files
+ * changed by more than {@code cochange.max-authors-per-file} contributors are left out of the contributor
+ * graph for the same reason.
+ */
+@Component
+public class CoChangeAnalyzer {
+
+	private static final Logger logger = LoggerFactory.getLogger(CoChangeAnalyzer.class);
+
+	private final int maxFilesPerCommit;
+	private final int minSharedCommits;
+	private final int maxAuthorsPerFile;
+	private final long maxPairsPerPass;
+
+	public CoChangeAnalyzer(@Value("${cochange.max-files-per-commit:50}") int maxFilesPerCommit,
+							@Value("${cochange.min-shared-commits:2}") int minSharedCommits,
+							@Value("${cochange.max-authors-per-file:200}") int maxAuthorsPerFile,
+							@Value("${cochange.max-pairs-per-pass:1000000}") long maxPairsPerPass) {
+		this.maxFilesPerCommit = maxFilesPerCommit;
+		this.minSharedCommits = Math.max(1, minSharedCommits);
+		this.maxAuthorsPerFile = maxAuthorsPerFile;
+		this.maxPairsPerPass = Math.max(1, maxPairsPerPass);
+	}
+
+	/**
+	 * @param limit number of files and contributors to return
+	 * @param top   number of couplings returned per file and per contributor
+	 */
+	public CoChangeGraph analyze(List<ContributorWithCommits> contributors, int limit, int top) {
+		if (limit < 0 || top < 1) {
+			throw new IllegalArgumentException("limit must be non-negative and top positive");
+		}
+		StringDictionary paths = new StringDictionary();
+		// (path, contributor) pairs of every commit file, including skipped commits
+		long[] touched = new long[1024];
+		int touchedCount = 0;
+		int[] ids = new int[1024];
+		int[] commitEnds = new int[256];
+		int commitCount = 0;
+		int skipped = 0;
+
+		for (int c = 0; c < contributors.size(); c++) {
+			List<Commit> commits = contributors.get(c).getCommits();
+			if (commits == null) {
+				continue;
+			}
+			for (Commit commit : commits) {
+				List<FileData> files = commit.getFiles();
+				if (files == null || files.isEmpty()) {
+					continue;
+				}
+				if (touchedCount + files.size() > touched.length) {
+					touched = Arrays.copyOf(touched, Math.max(touched.length * 2, touchedCount + files.size()));
+				}
+				if (files.size() > maxFilesPerCommit) {
+					for (FileData file : files) {
+						touched[touchedCount++] = incidence(paths.id(path(file)), c);
+					}
+					skipped++;
+					continue;
+				}
+				int from = commitCount > 0 ? commitEnds[commitCount - 1] : 0;
+				if (from + files.size() > ids.length) {
+					ids = Arrays.copyOf(ids, Math.max(ids.length * 2, from + files.size()));
+				}
+				int count = 0;
+				for (FileData file : files) {
+					int path = paths.id(path(file));
+					ids[from + count++] = path;
+					touched[touchedCount++] = incidence(path, c);
+				}
+				if (commitCount == commitEnds.length) {
+					commitEnds = Arrays.copyOf(commitEnds, commitCount * 2);
+				}
+				commitEnds[commitCount++] = from + sortedUnique(ids, from, count);
+			}
+		}
+
+		int pathCount = paths.size();
+		int[] fileCommits = new int[pathCount];
+		// Pairs each id opens as the smaller id of a commit, to size the counting passes
+		long[] pairsFrom = new long[pathCount];
+		for (int commit = 0, from = 0; commit < commitCount; from = commitEnds[commit++]) {
+			for (int i = from; i < commitEnds[commit]; i++) {
+				fileCommits[ids[i]]++;
+				pairsFrom[ids[i]] += commitEnds[commit] - i - 1;
+			}
+		}
+
+		TopCouplings fileTop = new TopCouplings(pathCount, top, paths::get);
+		int coupled = 0;
+		int passes = 0;
+		for (int low = 0; low < pathCount; passes++) {
+			int high = low;
+			long pairs = 0;
+			while (high < pathCount && (high == low || pairs + pairsFrom[high] <= maxPairsPerPass)) {
+				pairs += pairsFrom[high++];
+			}
+			coupled += countPairs(ids, commitEnds, commitCount, low, high, pairs, fileTop);
+			low = high;
+		}
+		logger.debug("Counted co-changes of {} paths in {} passes", pathCount, passes);
+
+		return new CoChangeGraph(commitCount, skipped, coupled, files(paths, fileCommits, fileTop, limit),
+				contributors(contributors, touched, touchedCount, top, limit));
+	}
+
+	/**
+	 * Count the pairs whose smaller id is in {@code [low, high)} and offer those shared by enough commits
+	 * to both ends, returning how many were offered
+	 */
+	private int countPairs(int[] ids, int[] commitEnds, int commitCount, int low, int high, long pairs, TopCouplings top) {
+		LongIntMap counts = new LongIntMap((int) Math.min(pairs, maxPairsPerPass));
+		for (int commit = 0, from = 0; commit < commitCount; from = commitEnds[commit++]) {
+			int end = commitEnds[commit];
+			for (int i = from; i < end && ids[i] < high; i++) {
+				if (ids[i] < low) {
+					continue;
+				}
+				for (int j = i + 1; j < end; j++) {
+					counts.addTo(LongIntMap.pair(ids[i], ids[j]), 1);
+				}
+			}
+		}
+		int[] offered = new int[1];
+		counts.forEach((pair, shared) -> {
+			if (shared >= minSharedCommits) {
+				top.offer(LongIntMap.first(pair), LongIntMap.second(pair), shared);
+				top.offer(LongIntMap.second(pair), LongIntMap.first(pair), shared);
+				offered[0]++;
+			}
+		});
+		return offered[0];
+	}
+
+	private static List<FileCoupling> files(StringDictionary paths, int[] fileCommits, TopCouplings top, int limit) {
+		List<FileCoupling> result = new ArrayList<>();
+		for (int node : top.ranked(id -> fileCommits[id], limit)) {
+			int commits = fileCommits[node];
+			List<FileCoupling.CoupledFile> couplings = new ArrayList<>(top.count(node));
+			for (int i = 0; i < top.count(node); i++) {
+				int shared = top.weight(node, i);
+				couplings.add(new FileCoupling.CoupledFile(paths.get(top.neighbor(node, i)), shared, (double) shared / commits));
+			}
+			result.add(new FileCoupling(paths.get(node), commits, couplings));
+		}
+		return result;
+	}
+
+	private List<ContributorCoupling> contributors(List<ContributorWithCommits> contributors, long[] touched,
+												   int touchedCount, int top, int limit) {
+		// Sorted and distinct, the incidences list each path's contributors contiguously
+		Arrays.sort(touched, 0, touchedCount);
+		int[] filesTouched = new int[contributors.size()];
+		LongIntMap authorPairs = new LongIntMap();
+		for (int from = 0, to; from < touchedCount; from = to) {
+			long path = touched[from] >>> 32;
+			int authors = 0;
+			for (to = from; to < touchedCount && touched[to] >>> 32 == path; to++) {
+				if (authors == 0 || touched[to] != touched[from + authors - 1]) {
+					touched[from + authors++] = touched[to];
+				}
+			}
+			for (int i = from; i < from + authors; i++) {
+				filesTouched[(int) touched[i]]++;
+			}
+			if (authors < 2 || authors > maxAuthorsPerFile) {
+				continue;
+			}
+			for (int i = from; i < from + authors; i++) {
+				for (int j = i + 1; j < from + authors; j++) {
+					authorPairs.addTo(LongIntMap.pair((int) touched[i], (int) touched[j]), 1);
+				}
+			}
+		}
+
+		String[] names = new String[contributors.size()];
+		for (int c = 0; c < names.length; c++) {
+			names[c] = String.valueOf(contributors.get(c).getAuthorName());
+		}
+		TopCouplings authorTop = new TopCouplings(names.length, top, id -> names[id]);
+		authorPairs.forEach((pair, shared) -> {
+			authorTop.offer(LongIntMap.first(pair), LongIntMap.second(pair), shared);
+			authorTop.offer(LongIntMap.second(pair), LongIntMap.first(pair), shared);
+		});
+
+		List<ContributorCoupling> result = new ArrayList<>();
+		for (int node : authorTop.ranked(id -> filesTouched[id], limit)) {
+			List<ContributorCoupling.CoupledContributor> couplings = new ArrayList<>(authorTop.count(node));
+			for (int i = 0; i < authorTop.count(node); i++) {
+				couplings.add(new ContributorCoupling.CoupledContributor(names[authorTop.neighbor(node, i)], authorTop.weight(node, i)));
+			}
+			result.add(new ContributorCoupling(names[node], filesTouched[node], couplings));
+		}
+		return result;
+	}
+
+	private static long incidence(int path, int contributor) {
+		return ((long) path << 32) | contributor;
+	}
+
+	private static String path(FileData file) {
+		String fullPath = file.getFullPath() != null ? file.getFullPath() : file.getFileName();
+		return fullPath != null ? fullPath : "";
+	}
+
+	/**
+	 * Sort the {@code count} ids starting at {@code from} and drop duplicates, returning the new count
+	 */
+	static int sortedUnique(int[] ids, int from, int count) {
+		Arrays.sort(ids, from, from + count);
+		int unique = 0;
+		for (int i = from; i < from + count; i++) {
+			if (unique == 0 || ids[from + unique - 1] != ids[i]) {
+				ids[from + unique++] = ids[i];
+			}
+		}
+		return unique;
+	}
+
+	/**
+	 * The {@code k} heaviest neighbors of every node, in flat arrays of {@code k} slots per node kept sorted
+	 * by weight, then name, so the result does not depend on the iteration order of the pair map
+	 */
+	private static class TopCouplings {
+		private final int k;
+		private final IntFunction<String> names;
+		private final int[] counts;
+		private final int[] neighbors;
+		private final int[] weights;
+
+		private TopCouplings(int nodes, int k, IntFunction<String> names) {
+			this.k = k;
+			this.names = names;
+			this.counts = new int[nodes];
+			this.neighbors = new int[Math.multiplyExact(nodes, k)];
+			this.weights = new int[neighbors.length];
+		}
+
+		private void offer(int node, int neighbor, int weight) {
+			int base = node * k;
+			int count = counts[node];
+			if (count == k && !before(weight, neighbor, weights[base + k - 1], neighbors[base + k - 1])) {
+				return;
+			}
+			int slot = Math.min(count, k - 1);
+			while (slot > 0 && before(weight, neighbor, weights[base + slot - 1], neighbors[base + slot - 1])) {
+				weights[base + slot] = weights[base + slot - 1];
+				neighbors[base + slot] = neighbors[base + slot - 1];
+				slot--;
+			}
+			weights[base + slot] = weight;
+			neighbors[base + slot] = neighbor;
+			counts[node] = Math.min(count + 1, k);
+		}
+
+		private boolean before(int weight, int neighbor, int otherWeight, int otherNeighbor) {
+			return weight != otherWeight ? weight > otherWeight : names.apply(neighbor).compareTo(names.apply(otherNeighbor)) < 0;
+		}
+
+		private int count(int node) {
+			return counts[node];
+		}
+
+		private int neighbor(int node, int index) {
+			return neighbors[node * k + index];
+		}
+
+		private int weight(int node, int index) {
+			return weights[node * k + index];
+		}
+
+		/**
+		 * Nodes with couplings, by their heaviest coupling, then {@code size}, then name
+		 */
+		private List<Integer> ranked(IntToLongFunction size, int limit) {
+			List<Integer> nodes = new ArrayList<>();
+			for (int node = 0; node < counts.length; node++) {
+				if (counts[node] > 0) {
+					nodes.add(node);
+				}
+			}
+			nodes.sort(Comparator.<Integer>comparingInt(node -> -weight(node, 0))
+					.thenComparingLong(node -> -size.applyAsLong(node))
+					.thenComparing(node -> names.apply(node)));
+			return nodes.subList(0, Math.min(limit, nodes.size()));
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.compact.CommitFileTable;
+import com.example.vc_data_fetcher.compact.DirectChunkPool;
+import com.example.vc_data_fetcher.compact.PatchArena;
+import com.example.vc_data_fetcher.compact.PatchArenaScope;
+import com.example.vc_data_fetcher.compact.PatchReducer;
+import com.example.vc_data_fetcher.dto.DetailLevel;
+import com.example.vc_data_fetcher.dto.PatchReduction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Creates the compact file table of each fetch. Fetches with patches get their own {@link PatchArena},
+ * holding up to {@code github.fetch.patch-arena.memory-bytes} off-heap before spilling to mapped temp files,
+ * and their own {@link PatchReducer} built from the {@code github.fetch.reduction.*} defaults and the
+ * request's overrides.
+ * <p>
+ * Arenas draw their direct chunks from a shared {@link DirectChunkPool} and are adopted by the
+ * {@link PatchArenaScope} bound to the calling thread, which releases them when the request is done.
+ * Without a bound scope an arena is left to the collector.
+ */
+@Component
+public class CommitFileTableFactory {
+
+	private final boolean arenaEnabled;
+	private final long arenaMemoryBytes;
+	private final Path spillDir;
+	private final DirectChunkPool chunkPool;
+
+	private final boolean reductionEnabled;
+	private final List<String> reductionExclude;
+	private final int reductionMaxPatchBytes;
+	private final boolean reductionGenerated;
+	private final boolean reductionWhitespaceOnly;
+	private final boolean reductionRenameOnly;
+
+	public CommitFileTableFactory(@Value("${github.fetch.patch-arena.enabled:true}") boolean arenaEnabled,
+								  @Value("${github.fetch.patch-arena.memory-bytes:33554432}") long arenaMemoryBytes,
+								  @Value("${github.fetch.patch-arena.spill-dir:${java.io.tmpdir}/vc-data-fetcher/patches}") String spillDir,
+								  @Value("${github.fetch.patch-arena.pool-bytes:67108864}") long arenaPoolBytes,
+								  @Value("${github.fetch.reduction.enabled:true}") boolean reductionEnabled,
+								  @Value("${github.fetch.reduction.exclude:}") List<String> reductionExclude,
+								  @Value("${github.fetch.reduction.max-patch-bytes:262144}") int reductionMaxPatchBytes,
+								  @Value("${github.fetch.reduction.generated:true}") boolean reductionGenerated,
+								  @Value("${github.fetch.reduction.whitespace-only:true}") boolean reductionWhitespaceOnly,
+								  @Value("${github.fetch.reduction.rename-only:true}") boolean reductionRenameOnly) {
+		this.arenaEnabled = arenaEnabled;
+		this.arenaMemoryBytes = arenaMemoryBytes;
+		this.spillDir = Path.of(spillDir);
+		this.chunkPool = new DirectChunkPool(PatchArena.CHUNK_BYTES, arenaPoolBytes);
+		this.reductionEnabled = reductionEnabled;
+		this.reductionExclude = globs(reductionExclude);
+		this.reductionMaxPatchBytes = reductionMaxPatchBytes;
+		this.reductionGenerated = reductionGenerated;
+		this.reductionWhitespaceOnly = reductionWhitespaceOnly;
+		this.reductionRenameOnly = reductionRenameOnly;
+	}
+
+	public CommitFileTable create(DetailLevel detail) {
+		return create(detail, PatchReduction.defaults());
+	}
+
+	public CommitFileTable create(DetailLevel detail, PatchReduction reduction) {
+		boolean patches = detail == DetailLevel.PATCHES;
+		PatchArena arena = null;
+		if (patches && arenaEnabled) {
+			arena = new PatchArena(arenaMemoryBytes, spillDir, chunkPool);
+			PatchArenaScope scope = PatchArenaScope.current();
+			if (scope != null) {
+				scope.adopt(arena);
+			}
+		}
+		return new CommitFileTable(patches, arena, patches ? reducer(reduction) : null);
+	}
+
+	/**
+	 * Key of the rules a request resolves to, so requests with different reductions are never coalesced
+	 */
+	public String reductionKey(PatchReduction reduction) {
+		PatchReducer reducer = reducer(reduction);
+		return reducer != null ? reducer.key() : "none";
+	}
+
+	private PatchReducer reducer(PatchReduction reduction) {
+		if (!valueOr(reduction.getEnabled(), reductionEnabled)) {
+			return null;
+		}
+		return new PatchReducer(
+				reduction.getExclude() != null ? globs(reduction.getExclude()) : reductionExclude,
+				valueOr(reduction.getMaxPatchBytes(), reductionMaxPatchBytes),
+				valueOr(reduction.getGenerated(), reductionGenerated),
+				valueOr(reduction.getWhitespaceOnly(), reductionWhitespaceOnly),
+				valueOr(reduction.getRenameOnly(), reductionRenameOnly));
+	}
+
+	private static <T> T valueOr(T value, T fallback) {
+		return value != null ? value : fallback;
+	}
+
+	private static List<String> globs(List<String> globs) {
+		return globs.stream().map(String::trim).filter(glob -> !glob.isEmpty()).toList();
+	}
+}
@@ -0,0 +1,153 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.compact.FileOperation;
+import com.example.vc_data_fetcher.dto.FileData;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming decoder for the GitHub "get a commit" payload.
+ * <p>
+ * Maps {@code files[]} straight into {@link FileData} without building a JSON tree; every other
+ * field of the payload, and unused fields of each file, are skipped without materializing them.
+ * Status values and file extensions are deduplicated so the retained objects share one instance.
+ */
+final class CommitFilesDecoder {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private static final Map<String, String> STATUSES = Map.of(
+			"added", "added",
+			"removed", "removed",
+			"modified", "modified",
+			"renamed", "renamed",
+			"copied", "copied",
+			"changed", "changed",
+			"unchanged", "unchanged"
+	);
+
+	private static final int MAX_INTERNED_EXTENSIONS = 4096;
+	private static final Map<String, String> EXTENSIONS = new ConcurrentHashMap<>();
+
+	private CommitFilesDecoder() {
+	}
+
+	static List<FileData> decode(InputStream body) throws IOException {
+		try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new IOException("Commit payload is not a JSON object");
+			}
+			List<FileData> files = new ArrayList<>();
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.currentName();
+				JsonToken value = parser.nextToken();
+				if ("files".equals(field) && value == JsonToken.START_ARRAY) {
+					while (parser.nextToken() == JsonToken.START_OBJECT) {
+						files.add(readFile(parser));
+					}
+				} else {
+					parser.skipChildren();
+				}
+			}
+			return files;
+		}
+	}
+
+	private static FileData readFile(JsonParser parser) throws IOException {
+		String fullPath = null;
+		String status = null;
+		String patch = null;
+		String previousFilename = null;
+		int additions = 0;
+		int deletions = 0;
+		int changes = -1;
+		boolean binary = false;
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.currentName();
+			JsonToken value = parser.nextToken();
+			if (value == JsonToken.VALUE_NULL) {
+				continue;
+			}
+			switch (field) {
+				case "filename":
+					fullPath = parser.getText();
+					break;
+				case "status":
+					String text = parser.getText();
+					status = STATUSES.getOrDefault(text, text);
+					break;
+				case "patch":
+					patch = parser.getText();
+					break;
+				case "previous_filename":
+					previousFilename = parser.getText();
+					break;
+				case "additions":
+					additions = parser.getValueAsInt();
+					break;
+				case "deletions":
+					deletions = parser.getValueAsInt();
+					break;
+				case "changes":
+					changes = parser.getValueAsInt();
+					break;
+				case "binary":
+					binary = parser.getValueAsBoolean();
+					break;
+				default:
+					parser.skipChildren();
+			}
+		}
+
+		if (fullPath == null) {
+			fullPath = "";
+		}
+		if (status == null) {
+			status = "";
+		}
+		String fileName = fullPath.substring(fullPath.lastIndexOf('/') + 1);
+		int dotIndex = fileName.lastIndexOf('.');
+		String extension = dotIndex > 0 ? internExtension(fileName.substring(dotIndex + 1)) : "";
+
+		FileData fileData = new FileData();
+		fileData.setFileName(fileName);
+		fileData.setFullPath(fullPath);
+		fileData.setExtension(extension);
+		fileData.setOperation(status);
+		fileData.setCode(patch != null ? patch : placeholderPatch(status, fullPath, previousFilename));
+		fileData.setAdditions(additions);
+		fileData.setDeletions(deletions);
+		fileData.setChanges(changes >= 0 ? changes : additions + deletions);
+		fileData.setBinaryFile(binary);
+		fileData.setPreviousFilename(previousFilename);
+		return fileData;
+	}
+
+	/**
+	 * Stand-in text for files GitHub returns without a patch (binary, too large, pure rename)
+	 */
+	static String placeholderPatch(String status, String fullPath, String previousFilename) {
+		return FileOperation.of(status).placeholderPatch(fullPath, previousFilename);
+	}
+
+	private static String internExtension(String extension) {
+		String interned = EXTENSIONS.get(extension);
+		if (interned != null) {
+			return interned;
+		}
+		if (EXTENSIONS.size() >= MAX_INTERNED_EXTENSIONS) {
+			return extension;
+		}
+		interned = EXTENSIONS.putIfAbsent(extension, extension);
+		return interned != null ? interned : extension;
+	}
+}
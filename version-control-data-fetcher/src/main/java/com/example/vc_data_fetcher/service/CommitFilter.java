@@ -0,0 +1,131 @@
+package com.example.vc_data_fetcher.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-fetch filter applied to indexed history before any per-commit detail request. It drops merge
+ * commits (their diffs repeat their parents'), commits by logins matching {@code github.fetch.filter.bot-patterns},
+ * and authors outside the allow list or on the deny list. Logins are compared case-insensitively.
+ * <p>
+ * Synced history is stored unfiltered and filtered when read, so changing the configuration takes
+ * effect without a resync.
+ */
+@Component
+public class CommitFilter {
+
+	private final boolean skipMerges;
+	private final List<Pattern> botPatterns;
+	private final Set<String> allowedAuthors;
+	private final Set<String> deniedAuthors;
+
+	private final Counter mergesSkipped;
+	private final Counter botsSkipped;
+	private final Counter authorsSkipped;
+
+	public CommitFilter(@Value("${github.fetch.filter.skip-merges:true}") boolean skipMerges,
+						@Value("${github.fetch.filter.bot-patterns:.*\\[bot\\],dependabot.*,renovate.*}") List<String> botPatterns,
+						@Value("${github.fetch.filter.author-allow:}") List<String> allowedAuthors,
+						@Value("${github.fetch.filter.author-deny:}") List<String> deniedAuthors,
+						MeterRegistry meterRegistry) {
+		this.skipMerges = skipMerges;
+		this.botPatterns = botPatterns.stream()
+				.map(String::trim)
+				.filter(pattern -> !pattern.isEmpty())
+				.map(pattern -> Pattern.compile(pattern, Pattern.CASE_INSENSITIVE))
+				.toList();
+		this.allowedAuthors = normalize(allowedAuthors);
+		this.deniedAuthors = normalize(deniedAuthors);
+		this.mergesSkipped = skippedCounter("merge", meterRegistry);
+		this.botsSkipped = skippedCounter("bot", meterRegistry);
+		this.authorsSkipped = skippedCounter("author", meterRegistry);
+	}
+
+	/**
+	 * Keep the commits that pass the filter, in their original order
+	 */
+	public Result apply(List<CommitHistoryIndex.CommitRef> commits) {
+		Result result = new Result(new ArrayList<>(commits.size()));
+		for (CommitHistoryIndex.CommitRef commit : commits) {
+			String login = commit.getAuthorLogin().toLowerCase(Locale.ROOT);
+			if (skipMerges && commit.getParentCount() > 1) {
+				result.merges++;
+			} else if (isBot(login)) {
+				result.bots++;
+			} else if (deniedAuthors.contains(login) || (!allowedAuthors.isEmpty() && !allowedAuthors.contains(login))) {
+				result.authors++;
+			} else {
+				result.commits.add(commit);
+			}
+		}
+		mergesSkipped.increment(result.merges);
+		botsSkipped.increment(result.bots);
+		authorsSkipped.increment(result.authors);
+		return result;
+	}
+
+	/**
+	 * Index of the commits of {@code index} that pass the filter
+	 */
+	public Result apply(CommitHistoryIndex index) {
+		Result result = apply(index.getCommits());
+		result.index = result.getSkipped() == 0 ? index : CommitHistoryIndex.of(result.commits);
+		return result;
+	}
+
+	private boolean isBot(String login) {
+		for (Pattern pattern : botPatterns) {
+			if (pattern.matcher(login).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Set<String> normalize(List<String> logins) {
+		return logins.stream()
+				.map(login -> login.trim().toLowerCase(Locale.ROOT))
+				.filter(login -> !login.isEmpty())
+				.collect(Collectors.toUnmodifiableSet());
+	}
+
+	private static Counter skippedCounter(String reason, MeterRegistry meterRegistry) {
+		return Counter.builder("github.fetch.commits.skipped").tag("reason", reason).register(meterRegistry);
+	}
+
+	/**
+	 * Commits kept by one run of the filter and how many were skipped for each reason
+	 */
+	@Getter
+	public static class Result {
+		private final List<CommitHistoryIndex.CommitRef> commits;
+		private CommitHistoryIndex index;
+		private int merges;
+		private int bots;
+		private int authors;
+
+		private Result(List<CommitHistoryIndex.CommitRef> commits) {
+			this.commits = commits;
+		}
+
+		public int getSkipped() {
+			return merges + bots + authors;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("kept %d, skipped %d merges, %d bot commits, %d by filtered authors",
+					commits.size(), merges, bots, authors);
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package com.example.vc_data_fetcher.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index of a repository's commit history grouped by resolved author.
+ * Built from a single walk over the GraphQL history pages so contributor counts
+ * and per-author commit lists never require a second pass. The position of every
+ * author and commit is recorded as it is added, so a page cursor is found without a scan.
+ */
+public class CommitHistoryIndex {
+
+	private final Map<String, AuthorCommits> authors = new HashMap<>();
+	private final List<AuthorCommits> authorOrder = new ArrayList<>();
+	private final Map<String, Integer> authorPositions = new HashMap<>();
+	private final List<CommitRef> commits = new ArrayList<>();
+	private final Map<String, Integer> commitPositions = new HashMap<>();
+
+	public void add(CommitRef commit) {
+		AuthorCommits author = authors.get(commit.getAuthorLogin());
+		if (author == null) {
+			author = new AuthorCommits(commit.getAuthorLogin(), commit.getAuthorUrl());
+			authors.put(author.getLogin(), author);
+			authorPositions.put(author.getLogin(), authorOrder.size());
+			authorOrder.add(author);
+		}
+		author.add(commit);
+		commitPositions.putIfAbsent(commit.getSha(), commits.size());
+		commits.add(commit);
+	}
+
+	public static CommitHistoryIndex of(List<CommitRef> commits) {
+		CommitHistoryIndex index = new CommitHistoryIndex();
+		for (CommitRef commit : commits) {
+			index.add(commit);
+		}
+		return index;
+	}
+
+	public AuthorCommits get(String login) {
+		return authors.get(login);
+	}
+
+	/**
+	 * Authors in the order of their first commit in history
+	 */
+	public List<AuthorCommits> getAuthors() {
+		return authorOrder;
+	}
+
+	/**
+	 * Position of an author in {@link #getAuthors()}, or -1 when the login has no commits
+	 */
+	public int indexOfAuthor(String login) {
+		return authorPositions.getOrDefault(login, -1);
+	}
+
+	/**
+	 * All commits in history order (newest first)
+	 */
+	public List<CommitRef> getCommits() {
+		return commits;
+	}
+
+	/**
+	 * Position of a commit in {@link #getCommits()}, or -1 when it is not in this history
+	 */
+	public int indexOfCommit(String sha) {
+		return commitPositions.getOrDefault(sha, -1);
+	}
+
+	public int getTotalCommits() {
+		return commits.size();
+	}
+
+	/**
+	 * All commits of one author, in history order (newest first)
+	 */
+	@Getter
+	public static class AuthorCommits {
+		private final String login;
+		private final String url;
+		private final List<CommitRef> commits = new ArrayList<>();
+		@Getter(AccessLevel.NONE)
+		private final Map<String, Integer> positions = new HashMap<>();
+
+		public AuthorCommits(String login, String url) {
+			this.login = login;
+			this.url = url;
+		}
+
+		private void add(CommitRef commit) {
+			positions.putIfAbsent(commit.getSha(), commits.size());
+			commits.add(commit);
+		}
+
+		/**
+		 * Position of a commit in {@link #getCommits()}, or -1 when it is not one of this author's
+		 */
+		public int indexOf(String sha) {
+			return positions.getOrDefault(sha, -1);
+		}
+
+		public int getContributions() {
+			return commits.size();
+		}
+	}
+
+	/**
+	 * Commit metadata as returned by the history query, before any REST detail call
+	 */
+	@Getter
+	@AllArgsConstructor
+	public static class CommitRef {
+		private final String sha;
+		private final String message;
+		private final String date;
+		private final String authorLogin;
+		private final String authorUrl;
+		private final int additions;
+		private final int deletions;
+		private final int changedFiles;
+		// Number of parents, more than one for merge commits; 0 when not known
+		private final int parentCount;
+	}
+}
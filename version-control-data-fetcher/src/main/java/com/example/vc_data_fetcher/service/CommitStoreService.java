@@ -0,0 +1,91 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.dto.FileData;
+import com.example.vc_data_fetcher.model.CommitDetail;
+import com.example.vc_data_fetcher.repository.CommitDetailRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent store of parsed commit file details, keyed by (repo, sha).
+ * <p>
+ * Lookups go by SHA alone so a fork that shares history with an already stored repo is served
+ * from the same rows. Callers must only ask for SHAs they have just listed from the repository's
+ * history with the requesting user's token; that listing is what re-verifies access to private repos.
+ */
+@Service
+public class CommitStoreService {
+
+	private static final Logger logger = LoggerFactory.getLogger(CommitStoreService.class);
+	private static final TypeReference<List<FileData>> FILE_LIST = new TypeReference<>() {};
+	private static final int LOOKUP_BATCH_SIZE = 1000;
+
+	private final CommitDetailRepository commitDetailRepository;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	public CommitStoreService(CommitDetailRepository commitDetailRepository) {
+		this.commitDetailRepository = commitDetailRepository;
+	}
+
+	public static String repoKey(String owner, String repo) {
+		return (owner + "/" + repo).toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Find stored file details for many commits; SHAs not in the store are absent from the result
+	 */
+	public Map<String, List<FileData>> findAll(List<String> shas) {
+		Map<String, List<FileData>> found = new HashMap<>();
+		try {
+			for (int from = 0; from < shas.size(); from += LOOKUP_BATCH_SIZE) {
+				List<String> batch = shas.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, shas.size()));
+				for (CommitDetail detail : commitDetailRepository.findByShaIn(batch)) {
+					if (!found.containsKey(detail.getSha())) {
+						List<FileData> files = readFiles(detail);
+						if (files != null) {
+							found.put(detail.getSha(), files);
+						}
+					}
+				}
+			}
+			logger.debug("Commit store hits: {} of {}", found.size(), shas.size());
+		} catch (Exception e) {
+			logger.warn("Commit store bulk lookup failed: {}", e.getMessage());
+		}
+		return found;
+	}
+
+	/**
+	 * Store the file details of a successfully fetched commit. Failures are logged and never propagate.
+	 */
+	public void save(String repoKey, String sha, List<FileData> files) {
+		try {
+			if (commitDetailRepository.existsByRepoKeyAndSha(repoKey, sha)) {
+				return;
+			}
+			CommitDetail detail = new CommitDetail();
+			detail.setRepoKey(repoKey);
+			detail.setSha(sha);
+			detail.setFiles(objectMapper.writeValueAsString(files));
+			detail.setFetchedAt(Instant.now());
+			commitDetailRepository.save(detail);
+		} catch (Exception e) {
+			logger.warn("Failed to store details for commit {} of {}: {}", sha, repoKey, e.getMessage());
+		}
+	}
+
+	private List<FileData> readFiles(CommitDetail detail) {
+		try {
+			return objectMapper.readValue(detail.getFiles(), FILE_LIST);
+		} catch (Exception e) {
+			logger.warn("Ignoring unreadable stored details for commit {}: {}", detail.getSha(), e.getMessage());
+			return null;
+		}
+	}
+}
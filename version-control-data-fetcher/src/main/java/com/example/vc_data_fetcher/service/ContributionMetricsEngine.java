@@ -0,0 +1,212 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.compact.IntLongMap;
+import com.example.vc_data_fetcher.compact.StringDictionary;
+import com.example.vc_data_fetcher.dto.Commit;
+import com.example.vc_data_fetcher.dto.ContributorMetrics;
+import com.example.vc_data_fetcher.dto.ContributorWithCommits;
+import com.example.vc_data_fetcher.dto.DirectoryOwnership;
+import com.example.vc_data_fetcher.dto.FileData;
+import com.example.vc_data_fetcher.dto.FileHotspot;
+import com.example.vc_data_fetcher.dto.RepoMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Deterministic contribution metrics computed from commit and file statistics; patch text is never read.
+ * <p>
+ * Each contributor's commits are streamed once, oldest first, on the common fork-join pool, counting
+ * churn per path, directory and module in primitive maps keyed by shared {@link StringDictionary} ids.
+ * The per-contributor results are then merged into directory ownership and file hotspots. All orderings
+ * break ties by name, so the same history always gives the same result.
+ * <p>
+ * Rework is churn on a file the same contributor changed within {@code metrics.rework-window-days} before.
+ */
+@Component
+public class ContributionMetricsEngine {
+
+	private static final String ROOT = ".";
+
+	private final long reworkWindowSeconds;
+
+	public ContributionMetricsEngine(@Value("${metrics.rework-window-days:21}") int reworkWindowDays) {
+		this.reworkWindowSeconds = reworkWindowDays * 86_400L;
+	}
+
+	/**
+	 * @param limit number of directories and hotspots to return
+	 */
+	public RepoMetrics compute(List<ContributorWithCommits> contributors, int limit) {
+		StringDictionary paths = new StringDictionary();
+		StringDictionary directories = new StringDictionary();
+		List<ContributorStats> stats = contributors.parallelStream()
+				.map(contributor -> measure(contributor, paths, directories))
+				.toList();
+
+		IntLongMap directoryChurn = new IntLongMap();
+		IntLongMap fileCommits = new IntLongMap();
+		IntLongMap fileChurn = new IntLongMap();
+		IntLongMap fileAuthors = new IntLongMap();
+		int totalCommits = 0;
+		long totalChurn = 0;
+		for (ContributorStats contributor : stats) {
+			totalCommits += contributor.commits;
+			totalChurn += contributor.additions + contributor.deletions;
+			contributor.directoryChurn.forEach(directoryChurn::addTo);
+			contributor.fileCommits.forEach((path, commits) -> {
+				fileCommits.addTo(path, commits);
+				fileAuthors.addTo(path, 1);
+			});
+			contributor.fileChurn.forEach(fileChurn::addTo);
+		}
+
+		List<ContributorMetrics> contributorMetrics = new ArrayList<>(stats.size());
+		for (ContributorStats contributor : stats) {
+			contributorMetrics.add(contributor.toMetrics());
+		}
+		contributorMetrics.sort(Comparator.comparingLong(ContributorMetrics::getChurn).reversed()
+				.thenComparing(ContributorMetrics::getAuthorName, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+		return new RepoMetrics(totalCommits, totalChurn, contributorMetrics,
+				ownership(stats, directories, directoryChurn, limit), hotspots(paths, fileCommits, fileChurn, fileAuthors, limit));
+	}
+
+	private ContributorStats measure(ContributorWithCommits contributor, StringDictionary paths, StringDictionary directories) {
+		ContributorStats stats = new ContributorStats(contributor.getAuthorName());
+		List<TimedCommit> commits = new ArrayList<>();
+		for (Commit commit : contributor.getCommits() != null ? contributor.getCommits() : List.<Commit>of()) {
+			commits.add(new TimedCommit(epochSecond(commit), commit));
+		}
+		// Histories arrive newest first; rework needs each file's previous change, so walk oldest first
+		commits.sort(Comparator.comparingLong(timed -> timed.time));
+		StringDictionary modules = new StringDictionary();
+
+		for (TimedCommit timed : commits) {
+			Commit commit = timed.commit;
+			stats.commits++;
+			stats.additions += commit.getAdditions();
+			stats.deletions += commit.getDeletions();
+			if (commit.getFiles() == null) {
+				continue;
+			}
+			long time = timed.time;
+			for (FileData file : commit.getFiles()) {
+				String fullPath = file.getFullPath() != null ? file.getFullPath() : file.getFileName();
+				if (fullPath == null) {
+					continue;
+				}
+				long churn = file.getAdditions() + file.getDeletions();
+				int path = paths.id(fullPath);
+				long lastChanged = stats.lastChanged.get(path, Long.MIN_VALUE);
+				if (lastChanged != Long.MIN_VALUE && time - lastChanged <= reworkWindowSeconds) {
+					stats.reworkChurn += churn;
+				}
+				stats.lastChanged.put(path, time);
+				stats.fileChurnTotal += churn;
+				stats.fileCommits.addTo(path, 1);
+				stats.fileChurn.addTo(path, churn);
+				stats.directoryChurn.addTo(directories.id(directory(fullPath)), churn);
+				modules.id(module(fullPath));
+			}
+		}
+		stats.modulesTouched = modules.size();
+		return stats;
+	}
+
+	private static List<DirectoryOwnership> ownership(List<ContributorStats> stats, StringDictionary directories,
+													  IntLongMap directoryChurn, int limit) {
+		List<DirectoryOwnership> result = new ArrayList<>();
+		directoryChurn.forEach((directory, churn) ->
+				result.add(new DirectoryOwnership(directories.get(directory), churn, null)));
+		result.sort(Comparator.comparingLong(DirectoryOwnership::getChurn).reversed()
+				.thenComparing(DirectoryOwnership::getDirectory));
+		List<DirectoryOwnership> top = new ArrayList<>(result.subList(0, Math.min(limit, result.size())));
+
+		for (DirectoryOwnership directory : top) {
+			int id = directories.id(directory.getDirectory());
+			List<DirectoryOwnership.Owner> owners = new ArrayList<>();
+			for (ContributorStats contributor : stats) {
+				long churn = contributor.directoryChurn.get(id, 0);
+				if (churn > 0) {
+					owners.add(new DirectoryOwnership.Owner(contributor.authorName, churn,
+							(double) churn / directory.getChurn()));
+				}
+			}
+			owners.sort(Comparator.comparingLong(DirectoryOwnership.Owner::getChurn).reversed()
+					.thenComparing(DirectoryOwnership.Owner::getAuthorName, Comparator.nullsFirst(Comparator.naturalOrder())));
+			directory.setOwners(owners);
+		}
+		return top;
+	}
+
+	private static List<FileHotspot> hotspots(StringDictionary paths, IntLongMap fileCommits, IntLongMap fileChurn,
+											  IntLongMap fileAuthors, int limit) {
+		List<FileHotspot> result = new ArrayList<>(fileCommits.size());
+		fileCommits.forEach((path, commits) -> result.add(new FileHotspot(paths.get(path), (int) commits,
+				fileChurn.get(path, 0), (int) fileAuthors.get(path, 0))));
+		result.sort(Comparator.comparingInt(FileHotspot::getCommits).reversed()
+				.thenComparing(Comparator.comparingLong(FileHotspot::getChurn).reversed())
+				.thenComparing(FileHotspot::getPath));
+		return new ArrayList<>(result.subList(0, Math.min(limit, result.size())));
+	}
+
+	static String directory(String path) {
+		int slash = path.lastIndexOf('/');
+		return slash > 0 ? path.substring(0, slash) : ROOT;
+	}
+
+	static String module(String path) {
+		int slash = path.indexOf('/');
+		return slash > 0 ? path.substring(0, slash) : ROOT;
+	}
+
+	private static long epochSecond(Commit commit) {
+		try {
+			return commit.getDate() != null ? Instant.parse(commit.getDate()).getEpochSecond() : 0;
+		} catch (DateTimeParseException e) {
+			return 0;
+		}
+	}
+
+	private static class TimedCommit {
+		private final long time;
+		private final Commit commit;
+
+		private TimedCommit(long time, Commit commit) {
+			this.time = time;
+			this.commit = commit;
+		}
+	}
+
+	/**
+	 * Running totals of one contributor
+	 */
+	private static class ContributorStats {
+		private final String authorName;
+		private final IntLongMap fileCommits = new IntLongMap();
+		private final IntLongMap fileChurn = new IntLongMap();
+		private final IntLongMap directoryChurn = new IntLongMap();
+		private final IntLongMap lastChanged = new IntLongMap();
+		private int commits;
+		private long additions;
+		private long deletions;
+		private long fileChurnTotal;
+		private long reworkChurn;
+		private int modulesTouched;
+
+		private ContributorStats(String authorName) {
+			this.authorName = authorName;
+		}
+
+		private ContributorMetrics toMetrics() {
+			return new ContributorMetrics(authorName, commits, additions, deletions, additions + deletions,
+					fileCommits.size(), modulesTouched, fileChurnTotal > 0 ? (double) reworkChurn / fileChurnTotal : 0);
+		}
+	}
+}
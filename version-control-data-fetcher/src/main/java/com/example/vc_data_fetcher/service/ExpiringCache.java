@@ -0,0 +1,103 @@
+package com.example.vc_data_fetcher.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Small in-memory cache bounded by entry count and age.
+ * <p>
+ * Entries expire {@code ttl} after they were written, or after they were last read when created with
+ * {@code refreshOnAccess}; the least recently used entry is dropped once {@code maxEntries} is exceeded.
+ * All operations take the cache's lock, so it suits a few hundred entries, not hot per-item lookups.
+ */
+public class ExpiringCache<K, V> {
+
+	private final int maxEntries;
+	private final long ttlNanos;
+	private final boolean refreshOnAccess;
+	private final LongSupplier clock;
+	private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	public ExpiringCache(int maxEntries, Duration ttl, boolean refreshOnAccess) {
+		this(maxEntries, ttl, refreshOnAccess, System::nanoTime);
+	}
+
+	ExpiringCache(int maxEntries, Duration ttl, boolean refreshOnAccess, LongSupplier clock) {
+		this.maxEntries = maxEntries;
+		this.ttlNanos = ttl.toNanos();
+		this.refreshOnAccess = refreshOnAccess;
+		this.clock = clock;
+	}
+
+	/**
+	 * Live value of {@code key}, or null
+	 */
+	public synchronized V get(K key) {
+		Entry<V> entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		long now = clock.getAsLong();
+		if (now - entry.stamp > ttlNanos) {
+			entries.remove(key);
+			return null;
+		}
+		if (refreshOnAccess) {
+			entry.stamp = now;
+		}
+		return entry.value;
+	}
+
+	public synchronized void put(K key, V value) {
+		if (maxEntries <= 0) {
+			return;
+		}
+		entries.put(key, new Entry<>(value, clock.getAsLong()));
+		evict();
+	}
+
+	/**
+	 * Live value of {@code key}, creating it under the cache's lock when missing or expired
+	 */
+	public synchronized V computeIfAbsent(K key, Function<K, V> factory) {
+		V value = get(key);
+		if (value == null) {
+			value = factory.apply(key);
+			entries.put(key, new Entry<>(value, clock.getAsLong()));
+			evict();
+		}
+		return value;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	private void evict() {
+		long now = clock.getAsLong();
+		Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+		while (eldest.hasNext()) {
+			Map.Entry<K, Entry<V>> next = eldest.next();
+			if (entries.size() > maxEntries || now - next.getValue().stamp > ttlNanos) {
+				eldest.remove();
+			} else if (refreshOnAccess) {
+				// Every access restamps, so access order is stamp order and the rest are live
+				break;
+			}
+		}
+	}
+
+	private static class Entry<V> {
+		private final V value;
+		private long stamp;
+
+		private Entry(V value, long stamp) {
+			this.value = value;
+			this.stamp = stamp;
+		}
+	}
+}
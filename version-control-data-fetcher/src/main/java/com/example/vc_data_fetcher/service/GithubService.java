@@ -28,9 +28,11 @@ public class GithubService {
     private String redirectUri;
 
     private final VCTokenRepository vcTokenRepository;
+    private final RestTemplate restTemplate;
 
-    public GithubService(VCTokenRepository vcTokenRepository) {
+    public GithubService(VCTokenRepository vcTokenRepository, RestTemplate restTemplate) {
         this.vcTokenRepository = vcTokenRepository;
+        this.restTemplate = restTemplate;
     }
 
     public String exchangeCodeForAccessToken(String code) {
@@ -42,8 +44,6 @@ public class GithubService {
         logger.info("Attempting to exchange OAuth code for access token. User ID: {}", userId);
         String url = "https://github.com/login/oauth/access_token";
 
-        RestTemplate restTemplate = new RestTemplate();
-
         Map<String, String> body = new HashMap<>();
         body.put("client_id", clientId);
         body.put("client_secret", clientSecret);
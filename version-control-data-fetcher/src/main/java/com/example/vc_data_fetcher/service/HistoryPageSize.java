@@ -0,0 +1,68 @@
+package com.example.vc_data_fetcher.service;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Page size of one history walk. GitHub answers heavy history pages with 502s or timeouts, so the size
+ * is halved on such a failure and grown back after a run of successful pages. Shared by all windows of a
+ * partitioned walk, since the pages of one repository tend to be equally heavy.
+ */
+class HistoryPageSize {
+
+	static final int MAX = 100;
+	static final int MIN = 10;
+	private static final int GROW_AFTER = 5;
+
+	private final AtomicInteger size = new AtomicInteger(MAX);
+	private final AtomicInteger successes = new AtomicInteger();
+
+	int get() {
+		return size.get();
+	}
+
+	/**
+	 * Halve the page size after a failed page
+	 *
+	 * @return false when the size is already at its minimum and the failure should be surfaced
+	 */
+	boolean shrink() {
+		successes.set(0);
+		int current = size.get();
+		if (current <= MIN) {
+			return false;
+		}
+		size.compareAndSet(current, Math.max(MIN, current / 2));
+		return true;
+	}
+
+	void succeeded() {
+		if (successes.incrementAndGet() >= GROW_AFTER) {
+			successes.set(0);
+			size.updateAndGet(current -> Math.min(MAX, current * 2));
+		}
+	}
+
+	/**
+	 * Whether a failed page request was GitHub giving up on the page rather than rejecting the query
+	 */
+	static boolean isRetryable(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ResourceAccessException) {
+				return true;
+			}
+			if (cause instanceof HttpServerErrorException serverError) {
+				HttpStatusCode status = serverError.getStatusCode();
+				return status.value() == 502 || status.value() == 503 || status.value() == 504;
+			}
+			String message = cause.getMessage();
+			if (message != null && message.startsWith("GraphQL errors") && message.toLowerCase().contains("timeout")) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,164 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.compact.StringDictionary;
+import com.example.vc_data_fetcher.model.HistoryCommit;
+import com.example.vc_data_fetcher.model.RepoSyncState;
+import com.example.vc_data_fetcher.repository.HistoryCommitRepository;
+import com.example.vc_data_fetcher.repository.RepoSyncStateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores synced branch histories so a later fetch only has to walk the commits
+ * that landed after the last known HEAD.
+ * <p>
+ * Commit rows are written with batched JDBC inserts rather than one persisted entity each, and every
+ * write locks the branch's {@link RepoSyncState} row, so concurrent syncs of one branch take turns.
+ */
+@Service
+public class HistorySyncService {
+
+	private static final Logger logger = LoggerFactory.getLogger(HistorySyncService.class);
+
+	private static final String INSERT_COMMIT = """
+			INSERT INTO history_commit (repo_key, branch, seq, sha, message, committed_date, author_login, author_url,
+			                            additions, deletions, changed_files, parent_count)
+			VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+			""";
+
+	private final RepoSyncStateRepository repoSyncStateRepository;
+	private final HistoryCommitRepository historyCommitRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final int batchSize;
+
+	public HistorySyncService(RepoSyncStateRepository repoSyncStateRepository,
+							  HistoryCommitRepository historyCommitRepository,
+							  JdbcTemplate jdbcTemplate,
+							  @Value("${github.fetch.history-sync.batch-size:1000}") int batchSize) {
+		this.repoSyncStateRepository = repoSyncStateRepository;
+		this.historyCommitRepository = historyCommitRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.batchSize = batchSize;
+	}
+
+	public Optional<RepoSyncState> findState(String repoKey, String branch) {
+		try {
+			return repoSyncStateRepository.findByRepoKeyAndBranch(repoKey, branch);
+		} catch (Exception e) {
+			logger.warn("Sync state lookup failed for {}@{}: {}", repoKey, branch, e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Load the stored history of a branch as of {@code state}, newest first. Rows appended by a
+	 * later sync are left out.
+	 */
+	public List<CommitHistoryIndex.CommitRef> loadCommits(RepoSyncState state) {
+		List<HistoryCommit> rows = historyCommitRepository.findByRepoKeyAndBranchAndSeqLessThanEqualOrderBySeqDesc(
+				state.getRepoKey(), state.getBranch(), state.getCommitCount());
+		List<CommitHistoryIndex.CommitRef> commits = new ArrayList<>(rows.size());
+		StringDictionary authors = new StringDictionary();
+		for (HistoryCommit row : rows) {
+			commits.add(new CommitHistoryIndex.CommitRef(
+					row.getSha(),
+					row.getMessage(),
+					row.getCommittedDate(),
+					authors.intern(row.getAuthorLogin()),
+					authors.intern(row.getAuthorUrl()),
+					row.getAdditions(),
+					row.getDeletions(),
+					row.getChangedFiles(),
+					row.getParentCount() != null ? row.getParentCount() : 0
+			));
+		}
+		return commits;
+	}
+
+	/**
+	 * Append commits (newest first) that landed on top of the stored history.
+	 * {@code walkedCount} is the number of history nodes walked to find them. Nothing is written when
+	 * another sync moved the stored HEAD away from {@code state} in the meantime.
+	 */
+	@Transactional
+	public void append(RepoSyncState known, List<CommitHistoryIndex.CommitRef> newCommits, String headOid, int walkedCount) {
+		RepoSyncState state = repoSyncStateRepository.findForUpdate(known.getRepoKey(), known.getBranch()).orElse(null);
+		if (state == null || !state.getHeadOid().equals(known.getHeadOid())) {
+			logger.info("Synced history of {}@{} changed during the walk, not appending", known.getRepoKey(), known.getBranch());
+			return;
+		}
+		saveCommits(state.getRepoKey(), state.getBranch(), newCommits, state.getCommitCount());
+		state.setHeadOid(headOid);
+		state.setCommitCount(state.getCommitCount() + walkedCount);
+		state.setSyncedAt(Instant.now());
+		repoSyncStateRepository.save(state);
+		logger.info("Appended {} commits to synced history of {}@{}", newCommits.size(), state.getRepoKey(), state.getBranch());
+	}
+
+	/**
+	 * Replace the stored history of a branch with a full walk (newest first)
+	 */
+	@Transactional
+	public void replace(String repoKey, String branch, List<CommitHistoryIndex.CommitRef> commits, String headOid, int walkedCount) {
+		// Locks an existing state row; concurrent first syncs are settled by its unique key instead
+		RepoSyncState state = repoSyncStateRepository.findForUpdate(repoKey, branch).orElseGet(() -> {
+			RepoSyncState created = new RepoSyncState();
+			created.setRepoKey(repoKey);
+			created.setBranch(branch);
+			return created;
+		});
+		historyCommitRepository.deleteByRepoKeyAndBranch(repoKey, branch);
+		saveCommits(repoKey, branch, commits, 0);
+		state.setHeadOid(headOid);
+		state.setCommitCount(walkedCount);
+		state.setSyncedAt(Instant.now());
+		repoSyncStateRepository.save(state);
+		logger.info("Stored full history of {}@{} with {} commits", repoKey, branch, commits.size());
+	}
+
+	private void saveCommits(String repoKey, String branch, List<CommitHistoryIndex.CommitRef> commits, int baseSeq) {
+		jdbcTemplate.batchUpdate(INSERT_COMMIT, IndexedCommits.of(commits), batchSize, (statement, indexed) -> {
+			CommitHistoryIndex.CommitRef commit = indexed.commit;
+			statement.setString(1, repoKey);
+			statement.setString(2, branch);
+			// Oldest of the batch gets the lowest seq so seq descending stays newest first
+			statement.setInt(3, baseSeq + commits.size() - indexed.index);
+			statement.setString(4, commit.getSha());
+			statement.setString(5, commit.getMessage());
+			statement.setString(6, commit.getDate());
+			statement.setString(7, commit.getAuthorLogin());
+			statement.setString(8, commit.getAuthorUrl());
+			statement.setInt(9, commit.getAdditions());
+			statement.setInt(10, commit.getDeletions());
+			statement.setInt(11, commit.getChangedFiles());
+			statement.setInt(12, commit.getParentCount());
+		});
+	}
+
+	private static class IndexedCommits {
+		private final int index;
+		private final CommitHistoryIndex.CommitRef commit;
+
+		private IndexedCommits(int index, CommitHistoryIndex.CommitRef commit) {
+			this.index = index;
+			this.commit = commit;
+		}
+
+		private static List<IndexedCommits> of(List<CommitHistoryIndex.CommitRef> commits) {
+			List<IndexedCommits> indexed = new ArrayList<>(commits.size());
+			for (int i = 0; i < commits.size(); i++) {
+				indexed.add(new IndexedCommits(i, commits.get(i)));
+			}
+			return indexed;
+		}
+	}
+}
@@ -0,0 +1,320 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.compact.CommitFileTable;
+import com.example.vc_data_fetcher.compact.StringDictionary;
+import com.example.vc_data_fetcher.dto.Commit;
+import com.example.vc_data_fetcher.dto.ContributorWithCommits;
+import com.example.vc_data_fetcher.dto.DetailLevel;
+import com.example.vc_data_fetcher.dto.FileData;
+import com.example.vc_data_fetcher.dto.HistoryFilter;
+import com.example.vc_data_fetcher.dto.PatchReduction;
+import org.eclipse.jgit.diff.DiffAlgorithm;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.EditList;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.lib.AbbreviatedObjectId;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.CommitTimeRevFilter;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.eclipse.jgit.treewalk.AbstractTreeIterator;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads repository history from a local bare mirror with JGit instead of the GitHub API.
+ * One incremental fetch replaces the per-commit REST calls; diffs are computed locally against the first parent.
+ * <p>
+ * Git only knows author names and emails, so contributors are keyed by author name with the same
+ * https://github.com/{name} fallback URL the API path uses for commits without a linked user.
+ */
+@Component
+public class JGitRepositoryDataProvider implements RepositoryDataProvider {
+
+	private static final Logger logger = LoggerFactory.getLogger(JGitRepositoryDataProvider.class);
+
+	public static final String NAME = "git-clone";
+
+	private final MirrorCacheService mirrorCache;
+	private final CommitFileTableFactory commitFileTableFactory;
+
+	public JGitRepositoryDataProvider(MirrorCacheService mirrorCache, CommitFileTableFactory commitFileTableFactory) {
+		this.mirrorCache = mirrorCache;
+		this.commitFileTableFactory = commitFileTableFactory;
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public List<ContributorWithCommits> getContributorsWithCommits(String repoKey, String cloneUrl, String accessToken,
+																   DetailLevel detail, HistoryFilter filter, PatchReduction reduction) {
+		try {
+			return mirrorCache.withMirror(repoKey, cloneUrl, accessToken, repository -> readHistory(repository, detail, filter, reduction));
+		} catch (Exception e) {
+			logger.error("Error reading history of {} from its mirror: {}", cloneUrl, e.getMessage(), e);
+			throw new RuntimeException("Error reading repository with git: " + e.getMessage(), e);
+		}
+	}
+
+	static UsernamePasswordCredentialsProvider credentials(String accessToken) {
+		return accessToken != null ? new UsernamePasswordCredentialsProvider("x-access-token", accessToken) : null;
+	}
+
+	/**
+	 * Walk HEAD, or the filter's branch, newest first and build per-author commits with locally computed diffs.
+	 * The filter's author matches a git author name or email, since git has no GitHub logins.
+	 */
+	List<ContributorWithCommits> readHistory(Repository repository, DetailLevel detail, HistoryFilter filter,
+											 PatchReduction reduction) throws IOException {
+		Map<String, ContributorWithCommits> contributors = new LinkedHashMap<>();
+		ObjectId head = repository.resolve(filter.getBranch() != null ? Constants.R_HEADS + filter.getBranch() : Constants.HEAD);
+		if (head == null && filter.getBranch() != null) {
+			throw new IllegalArgumentException("Branch not found: " + filter.getBranch());
+		}
+		if (head == null) {
+			logger.warn("Repository {} has no HEAD commit", repository.getDirectory());
+			return new ArrayList<>();
+		}
+
+		ByteArrayOutputStream patchOut = new ByteArrayOutputStream();
+		try (RevWalk walk = new RevWalk(repository);
+			 ObjectReader reader = repository.newObjectReader();
+			 DiffFormatter formatter = new DiffFormatter(patchOut)) {
+			formatter.setRepository(repository);
+			formatter.setDiffComparator(RawTextComparator.DEFAULT);
+			formatter.setDetectRenames(true);
+			FileDiffer differ = new FileDiffer(repository, reader, formatter, patchOut);
+
+			walk.sort(RevSort.COMMIT_TIME_DESC);
+			walk.setRevFilter(timeFilter(filter));
+			if (filter.getPath() != null) {
+				walk.setTreeFilter(AndTreeFilter.create(PathFilter.create(filter.getPath()), TreeFilter.ANY_DIFF));
+				// Keep real parents so diffs are still taken against the first parent
+				walk.setRewriteParents(false);
+			}
+			walk.markStart(walk.parseCommit(head));
+
+			CommitFileTable table = commitFileTableFactory.create(detail, reduction);
+			StringDictionary authors = new StringDictionary();
+			int count = 0;
+			for (RevCommit revCommit : walk) {
+				PersonIdent author = revCommit.getAuthorIdent();
+				if (filter.getAuthor() != null && !filter.getAuthor().equalsIgnoreCase(author.getName())
+						&& !filter.getAuthor().equalsIgnoreCase(author.getEmailAddress())) {
+					continue;
+				}
+				Commit commit = readCommit(reader, formatter, differ, walk, revCommit, detail, table);
+				String login = authors.intern(author.getName());
+				commit.setAuthorName(login);
+				ContributorWithCommits contributor = contributors.computeIfAbsent(login, key ->
+						new ContributorWithCommits(key, "https://github.com/" + key, 0, new ArrayList<>()));
+				contributor.getCommits().add(commit);
+				contributor.setContributions(contributor.getContributions() + 1);
+				count++;
+			}
+			logger.info("Read {} commits from {} contributors with git", count, contributors.size());
+			if (table.getReducer() != null) {
+				logger.info("Patch reduction for {}: {}", repository.getDirectory(), table.getReducer());
+			}
+		}
+		return new ArrayList<>(contributors.values());
+	}
+
+	private static RevFilter timeFilter(HistoryFilter filter) {
+		Instant since = filter.sinceInstant();
+		Instant until = filter.untilInstant();
+		if (since != null && until != null) {
+			return CommitTimeRevFilter.between(Date.from(since), Date.from(until));
+		}
+		if (since != null) {
+			return CommitTimeRevFilter.after(Date.from(since));
+		}
+		if (until != null) {
+			return CommitTimeRevFilter.before(Date.from(until));
+		}
+		return RevFilter.ALL;
+	}
+
+	private Commit readCommit(ObjectReader reader, DiffFormatter formatter, FileDiffer differ, RevWalk walk,
+							  RevCommit revCommit, DetailLevel detail, CommitFileTable table) throws IOException {
+		AbstractTreeIterator oldTree;
+		if (revCommit.getParentCount() > 0) {
+			RevCommit parent = walk.parseCommit(revCommit.getParent(0));
+			oldTree = new CanonicalTreeParser(null, reader, parent.getTree());
+		} else {
+			oldTree = new EmptyTreeIterator();
+		}
+		AbstractTreeIterator newTree = new CanonicalTreeParser(null, reader, revCommit.getTree());
+
+		List<FileData> files = new ArrayList<>();
+		int commitAdditions = 0;
+		int commitDeletions = 0;
+		List<DiffEntry> entries = formatter.scan(oldTree, newTree);
+		for (DiffEntry entry : entries) {
+			FileDiff diff = differ.diff(entry);
+			int additions = 0;
+			int deletions = 0;
+			for (Edit edit : diff.edits) {
+				additions += edit.getLengthB();
+				deletions += edit.getLengthA();
+			}
+			commitAdditions += additions;
+			commitDeletions += deletions;
+			if (detail != DetailLevel.STATS_ONLY) {
+				files.add(toFileData(entry, diff, differ, additions, deletions, detail));
+			}
+		}
+
+		Commit commit = new Commit();
+		commit.setSha(revCommit.getName());
+		commit.setMsg(revCommit.getFullMessage());
+		commit.setDate(Instant.ofEpochSecond(revCommit.getCommitTime()).toString());
+		commit.setAdditions(commitAdditions);
+		commit.setDeletions(commitDeletions);
+		commit.setChangedFiles(entries.size());
+		commit.setFiles(table.view(table.encode(files)));
+		return commit;
+	}
+
+	private FileData toFileData(DiffEntry entry, FileDiff diff, FileDiffer differ,
+								int additions, int deletions, DetailLevel detail) throws IOException {
+		String fullPath = entry.getChangeType() == DiffEntry.ChangeType.DELETE ? entry.getOldPath() : entry.getNewPath();
+		String fileName = fullPath.substring(fullPath.lastIndexOf('/') + 1);
+		int dotIndex = fileName.lastIndexOf('.');
+		String operation = operation(entry.getChangeType());
+		boolean binary = diff.binary;
+		String previousFilename = entry.getChangeType() == DiffEntry.ChangeType.RENAME
+				|| entry.getChangeType() == DiffEntry.ChangeType.COPY ? entry.getOldPath() : null;
+
+		String code;
+		if (detail == DetailLevel.FILES) {
+			code = "";
+		} else {
+			String patch = binary ? null : differ.hunks(diff);
+			code = patch != null ? patch : CommitFilesDecoder.placeholderPatch(operation, fullPath, previousFilename);
+		}
+
+		return new FileData(fileName, fullPath, dotIndex > 0 ? fileName.substring(dotIndex + 1) : "", operation, code,
+				additions, deletions, additions + deletions, binary, previousFilename);
+	}
+
+	private static String operation(DiffEntry.ChangeType changeType) {
+		switch (changeType) {
+			case ADD:
+				return "added";
+			case DELETE:
+				return "removed";
+			case RENAME:
+				return "renamed";
+			case COPY:
+				return "copied";
+			default:
+				return "modified";
+		}
+	}
+
+	/**
+	 * Diffs the files of a commit once each; the edit list serves both the line counts and the patch text
+	 */
+	private static class FileDiffer {
+		// DiffFormatter's default binary file threshold
+		private static final long MAX_TEXT_BYTES = 50L * 1024 * 1024;
+
+		private final ObjectReader reader;
+		private final DiffFormatter formatter;
+		private final ByteArrayOutputStream patchOut;
+		private final DiffAlgorithm algorithm;
+
+		private FileDiffer(Repository repository, ObjectReader reader, DiffFormatter formatter, ByteArrayOutputStream patchOut) {
+			this.reader = reader;
+			this.formatter = formatter;
+			this.patchOut = patchOut;
+			this.algorithm = DiffAlgorithm.getAlgorithm(repository.getConfig().getEnum(ConfigConstants.CONFIG_DIFF_SECTION,
+					null, ConfigConstants.CONFIG_KEY_ALGORITHM, DiffAlgorithm.SupportedAlgorithm.HISTOGRAM));
+		}
+
+		private FileDiff diff(DiffEntry entry) throws IOException {
+			byte[] oldContent = content(entry.getOldMode(), entry.getOldId());
+			byte[] newContent = content(entry.getNewMode(), entry.getNewId());
+			if (oldContent == null || newContent == null || RawText.isBinary(oldContent) || RawText.isBinary(newContent)) {
+				return new FileDiff(null, null, new EditList(), true);
+			}
+			RawText a = new RawText(oldContent);
+			RawText b = new RawText(newContent);
+			return new FileDiff(a, b, algorithm.diff(RawTextComparator.DEFAULT, a, b), false);
+		}
+
+		/**
+		 * Unified diff hunks of one file, without the diff/index/---/+++ header lines, like GitHub's patch field
+		 */
+		private String hunks(FileDiff diff) throws IOException {
+			if (diff.edits.isEmpty()) {
+				return null;
+			}
+			patchOut.reset();
+			formatter.format(diff.edits, diff.a, diff.b);
+			formatter.flush();
+			String patch = patchOut.toString(StandardCharsets.UTF_8);
+			return patch.endsWith("\n") ? patch.substring(0, patch.length() - 1) : patch;
+		}
+
+		/**
+		 * Content of one side of a diff, or null when it is too large to diff as text
+		 */
+		private byte[] content(FileMode mode, AbbreviatedObjectId id) throws IOException {
+			if (mode == FileMode.MISSING || id == null || ObjectId.zeroId().equals(id.toObjectId())) {
+				return new byte[0];
+			}
+			if (mode == FileMode.GITLINK) {
+				return ("Subproject commit " + id.name() + "\n").getBytes(StandardCharsets.US_ASCII);
+			}
+			ObjectLoader loader = reader.open(id.toObjectId(), Constants.OBJ_BLOB);
+			if (loader.getSize() > MAX_TEXT_BYTES) {
+				return null;
+			}
+			return loader.getCachedBytes((int) MAX_TEXT_BYTES);
+		}
+	}
+
+	private static class FileDiff {
+		private final RawText a;
+		private final RawText b;
+		private final EditList edits;
+		private final boolean binary;
+
+		private FileDiff(RawText a, RawText b, EditList edits, boolean binary) {
+			this.a = a;
+			this.b = b;
+			this.edits = edits;
+			this.binary = binary;
+		}
+	}
+}
@@ -0,0 +1,288 @@
+package com.example.vc_data_fetcher.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.transport.RefSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Cache of bare git mirrors on local disk, one per repository.
+ * <p>
+ * The first use of a repository clones it; later uses run an incremental fetch. Every use fetches
+ * with the requesting user's token, so a mirror is only ever read after that token has proven access.
+ * A per-mirror read/write lock lets concurrent analyses of the same repository share one mirror:
+ * fetches and maintenance are exclusive, reads are shared. Mirrors are evicted least recently used
+ * once their total size exceeds {@code github.fetch.mirror.max-bytes}, and repacked in the background.
+ */
+@Service
+public class MirrorCacheService {
+
+	private static final Logger logger = LoggerFactory.getLogger(MirrorCacheService.class);
+	private static final String LAST_USED_MARKER = "last-used";
+
+	@Value("${github.fetch.mirror.dir:${java.io.tmpdir}/vc-data-fetcher/mirrors}")
+	private String mirrorDir;
+
+	@Value("${github.fetch.mirror.max-bytes:21474836480}")
+	private long maxBytes;
+
+	@Value("${github.fetch.mirror.gc-interval-minutes:360}")
+	private long gcIntervalMinutes;
+
+	private final Map<String, Mirror> mirrors = new ConcurrentHashMap<>();
+	private ScheduledExecutorService maintenanceExecutor;
+
+	@FunctionalInterface
+	public interface MirrorReader<T> {
+		T read(Repository repository) throws Exception;
+	}
+
+	@PostConstruct
+	void start() throws IOException {
+		Path root = Path.of(mirrorDir);
+		Files.createDirectories(root);
+		// Pick up mirrors left by a previous run so they count towards the size limit
+		try (Stream<Path> owners = Files.list(root)) {
+			for (Path owner : owners.filter(Files::isDirectory).toList()) {
+				try (Stream<Path> repos = Files.list(owner)) {
+					for (Path repo : repos.filter(Files::isDirectory).toList()) {
+						String key = owner.getFileName() + "/" + repo.getFileName().toString().replaceFirst("\\.git$", "");
+						Mirror mirror = mirrors.computeIfAbsent(key, k -> new Mirror(repo));
+						mirror.sizeBytes = directorySize(repo);
+						mirror.lastUsed.set(lastUsed(repo));
+					}
+				}
+			}
+		}
+		maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "mirror-maintenance");
+			thread.setDaemon(true);
+			return thread;
+		});
+		maintenanceExecutor.scheduleWithFixedDelay(this::collectGarbage, gcIntervalMinutes, gcIntervalMinutes, TimeUnit.MINUTES);
+		logger.info("Mirror cache at {} holds {} mirrors", root, mirrors.size());
+	}
+
+	@PreDestroy
+	void stop() {
+		maintenanceExecutor.shutdownNow();
+	}
+
+	/**
+	 * Bring the mirror of {@code repoKey} up to date with the given credentials and read it
+	 * while holding a shared lock.
+	 */
+	public <T> T withMirror(String repoKey, String cloneUrl, String accessToken, MirrorReader<T> reader) throws Exception {
+		Mirror mirror;
+		ReentrantReadWriteLock.ReadLock readLock;
+
+		while (true) {
+			mirror = mirrors.computeIfAbsent(repoKey, key -> new Mirror(mirrorPath(key)));
+			mirror.lock.writeLock().lock();
+			if (!mirror.evicted) {
+				break;
+			}
+			// Evicted while we waited for the lock; its replacement, if any, is in the map
+			mirror.lock.writeLock().unlock();
+		}
+		try {
+			update(mirror, cloneUrl, accessToken);
+			// Downgrade so other analyses of the same repo can read alongside
+			readLock = mirror.lock.readLock();
+			readLock.lock();
+		} finally {
+			mirror.lock.writeLock().unlock();
+		}
+
+		try (Repository repository = new FileRepositoryBuilder().setGitDir(mirror.path.toFile()).setBare().build()) {
+			return reader.read(repository);
+		} finally {
+			readLock.unlock();
+			evictIfNeeded();
+		}
+	}
+
+	private void update(Mirror mirror, String cloneUrl, String accessToken) throws Exception {
+		long start = System.currentTimeMillis();
+		if (Files.isDirectory(mirror.path.resolve("objects"))) {
+			try (Git git = Git.open(mirror.path.toFile())) {
+				git.fetch()
+						.setRemote(cloneUrl)
+						.setRefSpecs(new RefSpec("+refs/heads/*:refs/heads/*"))
+						.setRemoveDeletedRefs(true)
+						.setCredentialsProvider(JGitRepositoryDataProvider.credentials(accessToken))
+						.call();
+			}
+			logger.info("Fetched mirror {} in {} ms", mirror.path, System.currentTimeMillis() - start);
+		} else {
+			Files.createDirectories(mirror.path.getParent());
+			try (Git git = Git.cloneRepository()
+					.setURI(cloneUrl)
+					// A bare clone takes +refs/heads/*:refs/heads/*, the refspec of later fetches;
+					// a mirror clone would also pull refs/pull/* and every other ref
+					.setBare(true)
+					.setDirectory(mirror.path.toFile())
+					.setCredentialsProvider(JGitRepositoryDataProvider.credentials(accessToken))
+					.call()) {
+				logger.info("Cloned mirror {} in {} ms", mirror.path, System.currentTimeMillis() - start);
+			} catch (Exception e) {
+				FileSystemUtils.deleteRecursively(mirror.path);
+				throw e;
+			}
+		}
+		mirror.sizeBytes = directorySize(mirror.path);
+		touch(mirror);
+	}
+
+	/**
+	 * Evict least recently used mirrors that are not in use until the cache fits its size limit
+	 */
+	void evictIfNeeded() {
+		long total = totalBytes();
+		if (total <= maxBytes) {
+			return;
+		}
+		List<Map.Entry<String, Mirror>> byAge = new ArrayList<>(mirrors.entrySet());
+		byAge.sort(Comparator.comparingLong(entry -> entry.getValue().lastUsed.get()));
+		for (Map.Entry<String, Mirror> entry : byAge) {
+			if (total <= maxBytes) {
+				break;
+			}
+			Mirror mirror = entry.getValue();
+			if (!mirror.lock.writeLock().tryLock()) {
+				continue;
+			}
+			try {
+				if (mirror.evicted) {
+					continue;
+				}
+				// Mark and unmap before deleting, so callers waiting on this mirror's lock look it up again
+				mirror.evicted = true;
+				mirrors.remove(entry.getKey(), mirror);
+				FileSystemUtils.deleteRecursively(mirror.path);
+				total -= mirror.sizeBytes;
+				logger.info("Evicted mirror {} ({} bytes)", entry.getKey(), mirror.sizeBytes);
+			} catch (IOException e) {
+				logger.warn("Failed to evict mirror {}: {}", entry.getKey(), e.getMessage());
+			} finally {
+				mirror.lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Repack every idle mirror; busy mirrors are picked up on the next run
+	 */
+	void collectGarbage() {
+		for (Map.Entry<String, Mirror> entry : mirrors.entrySet()) {
+			Mirror mirror = entry.getValue();
+			if (!mirror.lock.writeLock().tryLock()) {
+				continue;
+			}
+			if (mirror.evicted) {
+				mirror.lock.writeLock().unlock();
+				continue;
+			}
+			try (Git git = Git.open(mirror.path.toFile())) {
+				git.gc().call();
+				mirror.sizeBytes = directorySize(mirror.path);
+				logger.debug("Repacked mirror {} to {} bytes", entry.getKey(), mirror.sizeBytes);
+			} catch (Exception e) {
+				logger.warn("Failed to repack mirror {}: {}", entry.getKey(), e.getMessage());
+			} finally {
+				mirror.lock.writeLock().unlock();
+			}
+		}
+	}
+
+	public long totalBytes() {
+		long total = 0;
+		for (Mirror mirror : mirrors.values()) {
+			total += mirror.sizeBytes;
+		}
+		return total;
+	}
+
+	private Path mirrorPath(String repoKey) {
+		String[] parts = repoKey.split("/", 2);
+		if (parts.length != 2) {
+			throw new IllegalArgumentException("Invalid mirror key: " + repoKey);
+		}
+		return Path.of(mirrorDir, safeName(parts[0]), safeName(parts[1]) + ".git");
+	}
+
+	private static String safeName(String name) {
+		String safe = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]", "_");
+		if (safe.isEmpty() || safe.equals(".") || safe.equals("..")) {
+			throw new IllegalArgumentException("Invalid repository name: " + name);
+		}
+		return safe;
+	}
+
+	private static void touch(Mirror mirror) throws IOException {
+		long now = System.currentTimeMillis();
+		mirror.lastUsed.set(now);
+		Path marker = mirror.path.resolve(LAST_USED_MARKER);
+		if (!Files.exists(marker)) {
+			Files.createFile(marker);
+		}
+		Files.setLastModifiedTime(marker, FileTime.fromMillis(now));
+	}
+
+	private static long lastUsed(Path path) {
+		try {
+			Path marker = path.resolve(LAST_USED_MARKER);
+			return Files.getLastModifiedTime(Files.exists(marker) ? marker : path).toMillis();
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private static long directorySize(Path path) {
+		try (Stream<Path> files = Files.walk(path)) {
+			return files.filter(Files::isRegularFile).mapToLong(file -> {
+				try {
+					return Files.size(file);
+				} catch (IOException e) {
+					return 0;
+				}
+			}).sum();
+		} catch (IOException | UncheckedIOException e) {
+			return 0;
+		}
+	}
+
+	private static class Mirror {
+		private final Path path;
+		private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+		private final AtomicLong lastUsed = new AtomicLong();
+		private volatile long sizeBytes;
+		// Set under the write lock once the mirror is removed from the map and its directory deleted
+		private volatile boolean evicted;
+
+		Mirror(Path path) {
+			this.path = path;
+		}
+	}
+}
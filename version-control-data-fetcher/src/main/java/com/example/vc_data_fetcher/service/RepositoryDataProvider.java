@@ -0,0 +1,42 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.dto.ContributorWithCommits;
+import com.example.vc_data_fetcher.dto.DetailLevel;
+import com.example.vc_data_fetcher.dto.HistoryFilter;
+import com.example.vc_data_fetcher.dto.PatchReduction;
+
+import java.util.List;
+
+/**
+ * Source of contributor and commit data for a repository, selected by
+ * {@code github.fetch.provider}. The GitHub API path built into {@link VCDataService}
+ * is the default; implementations of this interface replace it.
+ */
+public interface RepositoryDataProvider {
+
+	/**
+	 * Name used to select this provider in configuration
+	 */
+	String getName();
+
+	/**
+	 * Read the history of a repository, by default that of its default branch.
+	 *
+	 * @param repoKey     lowercase owner/repo key, as built by {@link CommitStoreService#repoKey}
+	 * @param cloneUrl    git URL of the repository (https://, or file:// for local repositories)
+	 * @param accessToken token authorizing the read, or null for public / local repositories
+	 * @param detail      how much per-commit detail to produce
+	 * @param filter      branch, time range, author and path restriction of the history to read
+	 * @param reduction   overrides of the patch reduction rules applied to produced patches
+	 */
+	List<ContributorWithCommits> getContributorsWithCommits(String repoKey, String cloneUrl, String accessToken,
+															DetailLevel detail, HistoryFilter filter, PatchReduction reduction);
+
+	/**
+	 * Read the history with the configured patch reduction rules
+	 */
+	default List<ContributorWithCommits> getContributorsWithCommits(String repoKey, String cloneUrl, String accessToken,
+																	DetailLevel detail, HistoryFilter filter) {
+		return getContributorsWithCommits(repoKey, cloneUrl, accessToken, detail, filter, PatchReduction.defaults());
+	}
+}
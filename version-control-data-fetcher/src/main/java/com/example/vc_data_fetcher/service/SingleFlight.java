@@ -0,0 +1,82 @@
+package com.example.vc_data_fetcher.service;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one execution.
+ * <p>
+ * The first caller for a key becomes the leader and runs the work on its own thread; callers
+ * arriving while it runs attach to the leader's future and receive the same result. If the leader
+ * fails, followers get a {@link CancellationException} caused by the leader's error instead of
+ * repeating the work. Nothing is cached: the key is released as soon as the leader finishes.
+ */
+public class SingleFlight<K, V> {
+
+	private final Map<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+	public V execute(K key, Supplier<V> work) {
+		return execute(key, work, null);
+	}
+
+	/**
+	 * Like {@link #execute(Object, Supplier)}, calling {@code share} with the result and the number of
+	 * followers before they receive it. No follower can attach any more at that point, so a result holding
+	 * resources can take one reference per follower there.
+	 */
+	public V execute(K key, Supplier<V> work, ObjIntConsumer<V> share) {
+		Flight<V> flight = new Flight<>();
+		Flight<V> leader = inFlight.compute(key, (k, running) -> {
+			if (running == null) {
+				return flight;
+			}
+			running.followers++;
+			return running;
+		});
+		if (leader != flight) {
+			return follow(key, leader.result);
+		}
+
+		try {
+			V result = work.get();
+			inFlight.remove(key, flight);
+			if (share != null && flight.followers > 0) {
+				share.accept(result, flight.followers);
+			}
+			flight.result.complete(result);
+			return result;
+		} catch (RuntimeException | Error e) {
+			inFlight.remove(key, flight);
+			flight.result.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Number of keys with a running leader
+	 */
+	public int inFlightCount() {
+		return inFlight.size();
+	}
+
+	private V follow(K key, CompletableFuture<V> leader) {
+		try {
+			return leader.join();
+		} catch (CompletionException | CancellationException e) {
+			CancellationException cancellation = new CancellationException("Coalesced request for " + key + " failed");
+			cancellation.initCause(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+			throw cancellation;
+		}
+	}
+
+	private static class Flight<V> {
+		private final CompletableFuture<V> result = new CompletableFuture<>();
+		// Updated only inside the map's compute for the key, and read after the key is removed
+		private int followers;
+	}
+}
@@ -0,0 +1,86 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.http.TokenDigest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-token request permits, keyed by a digest of the token.
+ * <p>
+ * A token's semaphore is reference counted by the callers holding or waiting for its permits and dropped
+ * when the last one lets go, so only tokens with requests in flight are kept and a token in use never
+ * gets a second semaphore.
+ */
+class TokenPermits {
+
+	private final int permitsPerToken;
+	private final Map<String, Holder> holders = new HashMap<>();
+
+	TokenPermits(int permitsPerToken) {
+		this.permitsPerToken = permitsPerToken;
+	}
+
+	/**
+	 * Take one of the token's permits, waiting while all of them are in use
+	 */
+	Permit acquire(String accessToken) throws InterruptedException {
+		String key = TokenDigest.sha256(accessToken);
+		Holder holder;
+		synchronized (this) {
+			holder = holders.computeIfAbsent(key, k -> new Holder(k, permitsPerToken));
+			holder.users++;
+		}
+		try {
+			holder.semaphore.acquire();
+		} catch (InterruptedException e) {
+			unreference(holder);
+			throw e;
+		}
+		return new Permit(holder);
+	}
+
+	synchronized int tokenCount() {
+		return holders.size();
+	}
+
+	private synchronized void unreference(Holder holder) {
+		if (--holder.users == 0) {
+			holders.remove(holder.key);
+		}
+	}
+
+	/**
+	 * One held permit; closing it more than once has no further effect
+	 */
+	class Permit implements AutoCloseable {
+		private final Holder holder;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Permit(Holder holder) {
+			this.holder = holder;
+		}
+
+		@Override
+		public void close() {
+			if (released.compareAndSet(false, true)) {
+				holder.semaphore.release();
+				unreference(holder);
+			}
+		}
+	}
+
+	private static class Holder {
+		private final String key;
+		private final Semaphore semaphore;
+		// Callers holding or waiting for a permit, guarded by the TokenPermits lock
+		private int users;
+
+		private Holder(String key, int permits) {
+			this.key = key;
+			this.semaphore = new Semaphore(permits, true);
+		}
+	}
+}
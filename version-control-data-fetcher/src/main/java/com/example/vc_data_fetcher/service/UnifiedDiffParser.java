@@ -0,0 +1,235 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.dto.DiffHunk;
+import com.example.vc_data_fetcher.dto.DiffLine;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser turning a unified diff into {@link DiffHunk}s.
+ * <p>
+ * Reads the patch once through a small buffer and looks at the first character of each line; hunk headers
+ * ({@code @@ -a,b +c,d @@ section}) are parsed by hand, so there is no regex and no backtracking. Line text
+ * is only copied out when changed lines are requested, otherwise a line is skipped without building a String.
+ * Lines outside a hunk (file headers, placeholder text) are ignored, and a hunk ends once its old and new
+ * line counts are used up.
+ */
+public final class UnifiedDiffParser {
+
+	private static final int BUFFER_CHARS = 8192;
+
+	private final Reader reader;
+	private final boolean includeLines;
+	private final char[] buffer = new char[BUFFER_CHARS];
+	private final StringBuilder line = new StringBuilder(128);
+	private int position;
+	private int limit;
+
+	private UnifiedDiffParser(Reader reader, boolean includeLines) {
+		this.reader = reader;
+		this.includeLines = includeLines;
+	}
+
+	public static List<DiffHunk> parse(String patch, boolean includeLines) {
+		if (patch == null || patch.isEmpty()) {
+			return new ArrayList<>();
+		}
+		try {
+			return parse(new StringReader(patch), includeLines);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Parse a patch as it is read. The reader is not closed.
+	 */
+	public static List<DiffHunk> parse(Reader patch, boolean includeLines) throws IOException {
+		return new UnifiedDiffParser(patch, includeLines).parse();
+	}
+
+	private List<DiffHunk> parse() throws IOException {
+		List<DiffHunk> hunks = new ArrayList<>();
+		DiffHunk hunk = null;
+		int oldRemaining = 0;
+		int newRemaining = 0;
+		int oldLine = 0;
+		int newLine = 0;
+
+		int first;
+		while ((first = read()) != -1) {
+			boolean inHunk = oldRemaining > 0 || newRemaining > 0;
+			// Context lines never start with '@', so a header also ends a hunk whose counts were off
+			if (first == '@') {
+				readLine(first);
+				DiffHunk header = parseHeader(line);
+				if (header != null) {
+					hunk = header;
+					hunks.add(hunk);
+					oldRemaining = hunk.getOldLines();
+					newRemaining = hunk.getNewLines();
+					oldLine = hunk.getOldStart();
+					newLine = hunk.getNewStart();
+				}
+				continue;
+			}
+			if (!inHunk || first == '\\') {
+				// Outside a hunk, or "\ No newline at end of file"
+				skipLine(first);
+				continue;
+			}
+
+			if (first == '+') {
+				hunk.setAdditions(hunk.getAdditions() + 1);
+				if (includeLines) {
+					readLine(-1);
+					hunk.getLines().add(new DiffLine(DiffLine.Kind.ADDED, null, newLine, line.toString()));
+				} else {
+					skipLine(first);
+				}
+				newLine++;
+				newRemaining--;
+			} else if (first == '-') {
+				hunk.setDeletions(hunk.getDeletions() + 1);
+				if (includeLines) {
+					readLine(-1);
+					hunk.getLines().add(new DiffLine(DiffLine.Kind.REMOVED, oldLine, null, line.toString()));
+				} else {
+					skipLine(first);
+				}
+				oldLine++;
+				oldRemaining--;
+			} else {
+				// Context line; some tools strip the leading space of empty context lines
+				skipLine(first);
+				oldLine++;
+				newLine++;
+				oldRemaining--;
+				newRemaining--;
+			}
+		}
+		return hunks;
+	}
+
+	/**
+	 * Hunk of a {@code @@ -oldStart[,oldLines] +newStart[,newLines] @@[ section]} line, or null when the
+	 * line is not a well-formed header
+	 */
+	private DiffHunk parseHeader(CharSequence header) {
+		Cursor cursor = new Cursor(header);
+		if (!cursor.expect("@@ -")) {
+			return null;
+		}
+		int oldStart = cursor.number();
+		int oldLines = cursor.expect(",") ? cursor.number() : 1;
+		if (oldStart < 0 || oldLines < 0 || !cursor.expect(" +")) {
+			return null;
+		}
+		int newStart = cursor.number();
+		int newLines = cursor.expect(",") ? cursor.number() : 1;
+		if (newStart < 0 || newLines < 0 || !cursor.expect(" @@")) {
+			return null;
+		}
+		String section = cursor.rest().strip();
+		return new DiffHunk(oldStart, oldLines, newStart, newLines, section.isEmpty() ? null : section, 0, 0,
+				includeLines ? new ArrayList<>() : null);
+	}
+
+	/**
+	 * Make sure the buffer holds unread chars, returning false at the end of the patch
+	 */
+	private boolean fill() throws IOException {
+		if (position < limit) {
+			return true;
+		}
+		int count = reader.read(buffer, 0, buffer.length);
+		position = 0;
+		limit = Math.max(count, 0);
+		return count > 0;
+	}
+
+	private int read() throws IOException {
+		return fill() ? buffer[position++] : -1;
+	}
+
+	/**
+	 * Read the rest of the current line into {@link #line}, starting with {@code first} unless it is -1
+	 */
+	private void readLine(int first) throws IOException {
+		line.setLength(0);
+		if (first == '\n') {
+			return;
+		}
+		if (first != -1) {
+			line.append((char) first);
+		}
+		while (fill()) {
+			int end = position;
+			while (end < limit && buffer[end] != '\n') {
+				end++;
+			}
+			line.append(buffer, position, end - position);
+			if (end < limit) {
+				position = end + 1;
+				break;
+			}
+			position = limit;
+		}
+		if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+			line.setLength(line.length() - 1);
+		}
+	}
+
+	private void skipLine(int first) throws IOException {
+		if (first == '\n') {
+			return;
+		}
+		while (fill()) {
+			while (position < limit) {
+				if (buffer[position++] == '\n') {
+					return;
+				}
+			}
+		}
+	}
+
+	private static final class Cursor {
+		private final CharSequence text;
+		private int index;
+
+		private Cursor(CharSequence text) {
+			this.text = text;
+		}
+
+		boolean expect(String token) {
+			if (index + token.length() > text.length()) {
+				return false;
+			}
+			for (int i = 0; i < token.length(); i++) {
+				if (text.charAt(index + i) != token.charAt(i)) {
+					return false;
+				}
+			}
+			index += token.length();
+			return true;
+		}
+
+		int number() {
+			int start = index;
+			long value = 0;
+			while (index < text.length() && Character.isDigit(text.charAt(index)) && value <= Integer.MAX_VALUE) {
+				value = value * 10 + (text.charAt(index++) - '0');
+			}
+			return index == start || value > Integer.MAX_VALUE ? -1 : (int) value;
+		}
+
+		String rest() {
+			return text.subSequence(index, text.length()).toString();
+		}
+	}
+}
@@ -1,16 +1,31 @@
 package com.example.vc_data_fetcher.service;
 
+import com.example.vc_data_fetcher.compact.CommitFileTable;
+import com.example.vc_data_fetcher.compact.CompactFiles;
+import com.example.vc_data_fetcher.compact.PatchArena;
+import com.example.vc_data_fetcher.compact.PatchArenaScope;
+import com.example.vc_data_fetcher.compact.StringDictionary;
 import com.example.vc_data_fetcher.dto.*;
+import com.example.vc_data_fetcher.http.TokenDigest;
+import com.example.vc_data_fetcher.model.RepoSyncState;
 import com.example.vc_data_fetcher.model.VCToken;
+import com.example.vc_data_fetcher.ratelimit.RateLimitScheduler;
 import com.example.vc_data_fetcher.repository.VCTokenRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
@@ -24,9 +39,72 @@ public class VCDataService {
 	@Autowired
 	private VCTokenRepository vcTokenRepository;
 
-	private final RestTemplate restTemplate = new RestTemplate();
+	@Autowired
+	private CommitStoreService commitStoreService;
+
+	@Autowired
+	private HistorySyncService historySyncService;
+
+	@Autowired
+	private RateLimitScheduler rateLimitScheduler;
+
+	@Autowired
+	private CommitFileTableFactory commitFileTableFactory;
+
+	@Autowired
+	private CommitFilter commitFilter;
+
+	@Autowired
+	private ContributionMetricsEngine contributionMetricsEngine;
+
+	@Autowired
+	private CoChangeAnalyzer coChangeAnalyzer;
+
+	@Value("${github.fetch.detail-threads:16}")
+	private int detailThreads;
+
+	@Value("${github.fetch.per-token-concurrency:8}")
+	private int perTokenConcurrency;
+
+	@Value("${github.fetch.incremental-sync:true}")
+	private boolean incrementalSync;
+
+	@Value("${github.fetch.history-partitions:8}")
+	private int historyPartitions;
+
+	@Value("${github.fetch.history-partition-min-commits:2000}")
+	private int partitionMinCommits;
+
+	@Value("${github.fetch.history-cache.size:32}")
+	private int historyCacheSize;
+
+	@Value("${github.fetch.history-cache.ttl-seconds:300}")
+	private long historyCacheTtlSeconds;
+
+	// "github-api" for the built-in GitHub API path, otherwise the name of a RepositoryDataProvider
+	@Value("${github.fetch.provider:" + GITHUB_API_PROVIDER + "}")
+	private String providerName;
+
+	@Autowired
+	private List<RepositoryDataProvider> repositoryDataProviders;
+
+	private ExecutorService commitDetailExecutor;
+	private ExecutorService historyPageExecutor;
+	private TokenPermits tokenPermits;
+
+	// Concurrent fetches of the same repo, branch, detail level and token share one execution
+	private final SingleFlight<String, SharedContributors> contributorFetches = new SingleFlight<>();
+	private final SingleFlight<String, RepoHistory> historyFetches = new SingleFlight<>();
+	// Indexed histories by the same key, so the pages of one paginated query share one history walk
+	private ExpiringCache<String, RepoHistory> historyCache;
+
+	@Autowired
+	private RestTemplate restTemplate;
 	private final ObjectMapper objectMapper = new ObjectMapper();
 	private static final String GITHUB_GRAPHQL_URL = "https://api.github.com/graphql";
+	private static final String GITHUB_API_PROVIDER = "github-api";
+	// Branch part of coalescing keys when no branch is requested
+	private static final String DEFAULT_BRANCH = "HEAD";
 
 	// GraphQL query to check repository access
 	private static final String REPO_ACCESS_QUERY = """
@@ -41,19 +119,8 @@ public class VCDataService {
         }
         """;
 
-	// GraphQL query to get repository commits (we'll extract contributors from commits)
-	private static final String REPOSITORY_COMMITS_QUERY = """
-        query($owner: String!, $name: String!, $after: String) {
-          repository(owner: $owner, name: $name) {
-            defaultBranchRef {
-              target {
-                ... on Commit {
-                  history(first: 100, after: $after) {
-                    pageInfo {
-                      hasNextPage
-                      endCursor
-                    }
-                    nodes {
+	// Fields read for every commit of a history page
+	private static final String HISTORY_NODE_FIELDS = """
                       oid
                       message
                       committedDate
@@ -68,15 +135,100 @@ public class VCDataService {
                       additions
                       deletions
                       changedFilesIfAvailable
+                      parents {
+                        totalCount
+                      }""";
+
+	// GraphQL query to get repository commits (we'll extract contributors from commits).
+	// Filled in with the ref to read: the default branch, or a named branch.
+	private static final String REPOSITORY_COMMITS_QUERY = """
+        query($owner: String!, $name: String!, $pageSize: Int!, $after: String, $since: GitTimestamp,
+              $until: GitTimestamp, $author: CommitAuthor, $path: String%s) {
+          repository(owner: $owner, name: $name) {
+            branchRef: %s {
+              name
+              target {
+                ... on Commit {
+                  oid
+                  history(first: $pageSize, after: $after, since: $since, until: $until, author: $author, path: $path) {
+                    totalCount
+                    pageInfo {
+                      hasNextPage
+                      endCursor
                     }
+                    nodes {
+        %s
+                    }
+                  }
+                }
+              }
+            }
+          }
+        }
+        """;
+
+	private static final String DEFAULT_BRANCH_COMMITS_QUERY =
+			REPOSITORY_COMMITS_QUERY.formatted("", "defaultBranchRef", HISTORY_NODE_FIELDS);
+	private static final String BRANCH_COMMITS_QUERY =
+			REPOSITORY_COMMITS_QUERY.formatted(", $branch: String!", "ref(qualifiedName: $branch)", HISTORY_NODE_FIELDS);
+
+	// GraphQL query to page the history below a fixed commit, used for the date windows of a partitioned walk
+	private static final String HISTORY_WINDOW_QUERY = """
+        query($owner: String!, $name: String!, $oid: GitObjectID!, $pageSize: Int!, $after: String,
+              $since: GitTimestamp, $until: GitTimestamp, $author: CommitAuthor, $path: String) {
+          repository(owner: $owner, name: $name) {
+            object(oid: $oid) {
+              ... on Commit {
+                history(first: $pageSize, after: $after, since: $since, until: $until, author: $author, path: $path) {
+                  totalCount
+                  pageInfo {
+                    hasNextPage
+                    endCursor
+                  }
+                  nodes {
+        %s
                   }
                 }
               }
             }
           }
         }
+        """.formatted(HISTORY_NODE_FIELDS);
+
+	// GraphQL query to resolve a login to the node id the history author filter expects
+	private static final String USER_ID_QUERY = """
+        query($login: String!) {
+          user(login: $login) {
+            id
+          }
+        }
         """;
 
+	@PostConstruct
+	void startExecutors() {
+		commitDetailExecutor = Executors.newFixedThreadPool(detailThreads, daemonThreads("commit-detail-"));
+		historyPageExecutor = Executors.newFixedThreadPool(historyPartitions, daemonThreads("history-page-"));
+		historyCache = new ExpiringCache<>(historyCacheSize, Duration.ofSeconds(historyCacheTtlSeconds), false);
+		tokenPermits = new TokenPermits(perTokenConcurrency);
+		logger.info("Commit detail executor started with {} threads, {} per token; history walks use up to {} partitions",
+				detailThreads, perTokenConcurrency, historyPartitions);
+	}
+
+	@PreDestroy
+	void stopExecutors() {
+		commitDetailExecutor.shutdownNow();
+		historyPageExecutor.shutdownNow();
+	}
+
+	private static ThreadFactory daemonThreads(String prefix) {
+		AtomicInteger threadCount = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
 	/**
 	 * Extract owner and repo from GitHub URL
 	 */
@@ -105,6 +257,32 @@ public class VCDataService {
 		return tokenOpt.get().getAccess_token();
 	}
 
+	/**
+	 * Key under which concurrent fetches are coalesced. The token is part of the key, hashed,
+	 * so a result is only ever shared between callers with the same access.
+	 */
+	private static String flightKey(String owner, String repo, HistoryFilter filter, DetailLevel detail, String reductionKey,
+									String accessToken) {
+		String branch = filter.getBranch() != null ? filter.getBranch() : DEFAULT_BRANCH;
+		return CommitStoreService.repoKey(owner, repo) + "@" + branch + "#" + filter.key() + "#" + detail
+				+ "#" + reductionKey + "#" + TokenDigest.sha256(accessToken);
+	}
+
+	/**
+	 * Configured repository data provider, or null for the built-in GitHub API path
+	 */
+	private RepositoryDataProvider getProvider() {
+		if (GITHUB_API_PROVIDER.equals(providerName)) {
+			return null;
+		}
+		for (RepositoryDataProvider provider : repositoryDataProviders) {
+			if (provider.getName().equals(providerName)) {
+				return provider;
+			}
+		}
+		throw new IllegalStateException("Unknown repository data provider: " + providerName);
+	}
+
 	/**
 	 * Create HTTP headers for GraphQL requests
 	 */
@@ -189,214 +367,940 @@ public class VCDataService {
 	 * Get all contributors with their commits using GraphQL
 	 */
 	public List<ContributorWithCommits> getContributorsWithCommits(String repoUrl, Long userId) {
-		logger.info("Fetching contributors and commits for repo: {} by user ID: {}", repoUrl, userId);
+		return getContributorsWithCommits(repoUrl, userId, DetailLevel.PATCHES);
+	}
+
+	/**
+	 * Get all contributors with their commits at the given detail level
+	 */
+	public List<ContributorWithCommits> getContributorsWithCommits(String repoUrl, Long userId, DetailLevel detail) {
+		return getContributorsWithCommits(repoUrl, userId, detail, HistoryFilter.none());
+	}
+
+	/**
+	 * Get the contributors with their commits of the part of history selected by {@code filter}
+	 */
+	public List<ContributorWithCommits> getContributorsWithCommits(String repoUrl, Long userId, DetailLevel detail,
+																   HistoryFilter filter) {
+		return getContributorsWithCommits(repoUrl, userId, detail, filter, PatchReduction.defaults());
+	}
+
+	/**
+	 * Get the contributors with their commits of the part of history selected by {@code filter},
+	 * reducing patches by the configured rules with the request's overrides
+	 */
+	public List<ContributorWithCommits> getContributorsWithCommits(String repoUrl, Long userId, DetailLevel detail,
+																   HistoryFilter filter, PatchReduction reduction) {
+		logger.info("Fetching contributors and commits for repo: {} by user ID: {} with detail {}", repoUrl, userId, detail);
 		try {
 			String[] ownerRepo = extractOwnerAndRepo(repoUrl);
 			String owner = ownerRepo[0];
 			String repo = ownerRepo[1];
 			String accessToken = getAccessToken(userId);
 
-			// Get contributors
-			List<Contributor> contributors = getContributorsGraphQL(owner, repo, accessToken);
+			String flightKey = flightKey(owner, repo, filter, detail, commitFileTableFactory.reductionKey(reduction), accessToken);
+			SharedContributors shared = contributorFetches.execute(flightKey,
+					() -> fetchSharedContributors(repoUrl, owner, repo, accessToken, detail, filter, reduction),
+					SharedContributors::retain);
+			shared.adoptInto(PatchArenaScope.current());
+			return shared.contributors;
+		} catch (Exception e) {
+			logger.error("Error fetching contributors with commits for repo {}: {}", repoUrl, e.getMessage(), e);
+			throw new RuntimeException("Error fetching contributors with commits: " + e.getMessage(), e);
+		}
+	}
 
-			// Get commits for each contributor
-			List<ContributorWithCommits> result = new ArrayList<>();
+	/**
+	 * Run one contributor fetch, collecting the patch arenas it creates so every caller sharing the
+	 * result can hold its own reference to them
+	 */
+	private SharedContributors fetchSharedContributors(String repoUrl, String owner, String repo, String accessToken,
+													   DetailLevel detail, HistoryFilter filter, PatchReduction reduction) {
+		PatchArenaScope fetchScope = new PatchArenaScope();
+		try (PatchArenaScope.Binding binding = fetchScope.bind()) {
+			List<ContributorWithCommits> contributors = fetchContributors(repoUrl, owner, repo, accessToken, detail, filter, reduction);
+			return new SharedContributors(contributors, fetchScope.detach());
+		} catch (RuntimeException | Error e) {
+			fetchScope.close();
+			throw e;
+		}
+	}
 
-			for (Contributor contributor : contributors) {
-				try {
-					logger.debug("Fetching commits for contributor: {}", contributor.getAuthorName());
-					List<Commit> commits = getCommitsByAuthorGraphQL(owner, repo, contributor.getAuthorName(), accessToken);
-
-					ContributorWithCommits cwc = new ContributorWithCommits(
-							contributor.getAuthorName(),
-							contributor.getGithubUrl(),
-							contributor.getContributions(),
-							commits
-					);
-					result.add(cwc);
-
-				} catch (Exception e) {
-					System.err.println("Error fetching commits for contributor " + contributor.getAuthorName() + ": " + e.getMessage());
-					logger.error("Error fetching commits for contributor {}: {}", contributor.getAuthorName(), e.getMessage());
-					// Add contributor with empty commits list if commits fetch fails
-					ContributorWithCommits cwc = new ContributorWithCommits(
-							contributor.getAuthorName(),
-							contributor.getGithubUrl(),
-							contributor.getContributions(),
-							new ArrayList<>()
-					);
-					result.add(cwc);
+	private List<ContributorWithCommits> fetchContributors(String repoUrl, String owner, String repo, String accessToken,
+														   DetailLevel detail, HistoryFilter filter, PatchReduction reduction) {
+		RepositoryDataProvider provider = getProvider();
+		if (provider != null) {
+			logger.info("Reading repo {} through provider {}", repoUrl, provider.getName());
+			String cloneUrl = String.format("https://github.com/%s/%s.git", owner, repo);
+			return provider.getContributorsWithCommits(CommitStoreService.repoKey(owner, repo), cloneUrl, accessToken, detail,
+					filter, reduction);
+		}
+
+		try (RateLimitScheduler.Job job = rateLimitScheduler.openJob(accessToken, owner + "/" + repo)) {
+			// Walk the history once and group commits by author, dropping commits not worth a detail call
+			CommitHistoryIndex index = filterCommits(indexCommitHistory(owner, repo, accessToken, filter), owner, repo);
+
+			// Fetch every commit's file details in one bounded-parallel stage
+			List<String> shas = new ArrayList<>(index.getTotalCommits());
+			for (CommitHistoryIndex.AuthorCommits author : index.getAuthors()) {
+				for (CommitHistoryIndex.CommitRef ref : author.getCommits()) {
+					shas.add(ref.getSha());
 				}
 			}
+			CommitFileTable table = commitFileTableFactory.create(detail, reduction);
+			List<CompactFiles> files = detail == DetailLevel.STATS_ONLY
+					? Collections.nCopies(shas.size(), CompactFiles.EMPTY)
+					: fetchCommitFiles(owner, repo, shas, accessToken, table);
+
+			List<ContributorWithCommits> result = new ArrayList<>();
+			int offset = 0;
+
+			for (CommitHistoryIndex.AuthorCommits author : index.getAuthors()) {
+				List<CommitHistoryIndex.CommitRef> refs = author.getCommits();
+				ContributorWithCommits cwc = new ContributorWithCommits(
+						author.getLogin(),
+						author.getUrl(),
+						author.getContributions(),
+						toCommits(refs, table, files.subList(offset, offset + refs.size()))
+				);
+				result.add(cwc);
+				offset += refs.size();
+			}
 			logger.info("Successfully fetched contributor and commit data for repo: {}", repoUrl);
 			return result;
+		}
+	}
+
+	/**
+	 * Contribution metrics of the part of history selected by {@code filter}. They need file lists
+	 * but no patches, so commits are fetched at {@link DetailLevel#FILES}.
+	 *
+	 * @param limit number of directories and file hotspots to return
+	 */
+	public RepoMetrics getRepoMetrics(String repoUrl, Long userId, HistoryFilter filter, int limit) {
+		List<ContributorWithCommits> contributors = getContributorsWithCommits(repoUrl, userId, DetailLevel.FILES, filter);
+		long start = System.currentTimeMillis();
+		RepoMetrics metrics = contributionMetricsEngine.compute(contributors, limit);
+		logger.info("Computed metrics of {} commits by {} contributors for repo {} in {} ms",
+				metrics.getTotalCommits(), contributors.size(), repoUrl, System.currentTimeMillis() - start);
+		return metrics;
+	}
+
+	/**
+	 * Co-change graph of the part of history selected by {@code filter}, built from file lists only.
+	 *
+	 * @param limit number of files and contributors to return
+	 * @param top   number of couplings returned per file and per contributor
+	 */
+	public CoChangeGraph getCoChangeGraph(String repoUrl, Long userId, HistoryFilter filter, int limit, int top) {
+		List<ContributorWithCommits> contributors = getContributorsWithCommits(repoUrl, userId, DetailLevel.FILES, filter);
+		long start = System.currentTimeMillis();
+		CoChangeGraph graph = coChangeAnalyzer.analyze(contributors, limit, top);
+		logger.info("Analyzed co-changes of {} commits ({} skipped, {} coupled file pairs) for repo {} in {} ms",
+				graph.getCommitsAnalyzed(), graph.getCommitsSkipped(), graph.getFileCouplings(), repoUrl,
+				System.currentTimeMillis() - start);
+		return graph;
+	}
+
+	/**
+	 * Index the repository history for paginated access. Only commit metadata is loaded here;
+	 * file details are fetched per requested commit page.
+	 */
+	public RepoHistory getRepoHistory(String repoUrl, Long userId, DetailLevel detail) {
+		return getRepoHistory(repoUrl, userId, detail, HistoryFilter.none());
+	}
+
+	/**
+	 * Index the part of the repository history selected by {@code filter} for paginated access
+	 */
+	public RepoHistory getRepoHistory(String repoUrl, Long userId, DetailLevel detail, HistoryFilter filter) {
+		return getRepoHistory(repoUrl, userId, detail, filter, PatchReduction.defaults());
+	}
+
+	/**
+	 * Index the part of the repository history selected by {@code filter}; files fetched for its
+	 * commit pages are reduced by the configured rules with the request's overrides
+	 */
+	public RepoHistory getRepoHistory(String repoUrl, Long userId, DetailLevel detail, HistoryFilter filter,
+									  PatchReduction reduction) {
+		logger.info("Indexing history for paginated access to repo: {} by user ID: {}", repoUrl, userId);
+		try {
+			String[] ownerRepo = extractOwnerAndRepo(repoUrl);
+			String owner = ownerRepo[0];
+			String repo = ownerRepo[1];
+			String accessToken = getAccessToken(userId);
+
+			String flightKey = flightKey(owner, repo, filter, detail, commitFileTableFactory.reductionKey(reduction), accessToken);
+			RepoHistory cached = historyCache.get(flightKey);
+			if (cached != null) {
+				logger.debug("Serving indexed history of {}/{} from cache", owner, repo);
+				return cached;
+			}
+			return historyFetches.execute(flightKey, () -> {
+				try (RateLimitScheduler.Job job = rateLimitScheduler.openJob(accessToken, owner + "/" + repo)) {
+					CommitHistoryIndex index = filterCommits(indexCommitHistory(owner, repo, accessToken, filter), owner, repo);
+					RepoHistory history = new RepoHistory(repoUrl, owner, repo, accessToken, index, detail, reduction);
+					historyCache.put(flightKey, history);
+					return history;
+				}
+			});
+		} catch (IllegalArgumentException e) {
+			throw e;
 		} catch (Exception e) {
-			logger.error("Error fetching contributors with commits for repo {}: {}", repoUrl, e.getMessage(), e);
-			throw new RuntimeException("Error fetching contributors with commits: " + e.getMessage(), e);
+			logger.error("Error indexing history for repo {}: {}", repoUrl, e.getMessage(), e);
+			throw new RuntimeException("Error indexing repository history: " + e.getMessage(), e);
 		}
 	}
 
 	/**
-	 * Get contributors using GraphQL by extracting unique authors from commits
+	 * One page of the contributors of an indexed history
 	 */
-	private List<Contributor> getContributorsGraphQL(String owner, String repo, String accessToken) {
+	public Connection<ContributorNode> getContributorPage(RepoHistory history, Integer first, String after) {
+		CommitHistoryIndex index = history.getIndex();
+		return Connection.page(index.getAuthors(), first, after, CommitHistoryIndex.AuthorCommits::getLogin,
+				index::indexOfAuthor, page -> {
+			List<ContributorNode> nodes = new ArrayList<>(page.size());
+			for (CommitHistoryIndex.AuthorCommits author : page) {
+				nodes.add(new ContributorNode(history, author));
+			}
+			return nodes;
+		});
+	}
+
+	/**
+	 * One page of the commits of an indexed history, or of one of its authors when {@code author} is set.
+	 * File details are left to {@link #fetchFilesFor}.
+	 */
+	public Connection<Commit> getCommitPage(RepoHistory history, CommitHistoryIndex.AuthorCommits author,
+											Integer first, String after) {
+		if (author != null) {
+			return Connection.page(author.getCommits(), first, after, CommitHistoryIndex.CommitRef::getSha,
+					author::indexOf, page -> toLazyCommits(history, page));
+		}
+		CommitHistoryIndex index = history.getIndex();
+		return Connection.page(index.getCommits(), first, after, CommitHistoryIndex.CommitRef::getSha,
+				index::indexOfCommit, page -> toLazyCommits(history, page));
+	}
+
+	/**
+	 * Get all contributors with their commits, leaving commit file details unfetched.
+	 * GraphQL resolves them through {@link #fetchFilesFor} only when the selection asks for files.
+	 */
+	public List<ContributorWithCommits> getContributorsWithLazyCommits(String repoUrl, Long userId, DetailLevel detail,
+																	   HistoryFilter filter, PatchReduction reduction) {
+		if (getProvider() != null) {
+			// Other providers produce file details as part of reading the history
+			return getContributorsWithCommits(repoUrl, userId, detail, filter, reduction);
+		}
+		RepoHistory history = getRepoHistory(repoUrl, userId, detail, filter, reduction);
+		List<ContributorWithCommits> result = new ArrayList<>();
+		for (CommitHistoryIndex.AuthorCommits author : history.getIndex().getAuthors()) {
+			result.add(new ContributorWithCommits(
+					author.getLogin(),
+					author.getUrl(),
+					author.getContributions(),
+					toLazyCommits(history, author.getCommits())
+			));
+		}
+		return result;
+	}
+
+	/**
+	 * Resolve file details for a batch of commits, in the order given. Commits that already
+	 * carry files are returned as is; the rest are fetched per repository through the detail stage.
+	 */
+	public List<List<FileData>> fetchFilesFor(List<Commit> commits) {
+		List<List<FileData>> results = new ArrayList<>(Collections.nCopies(commits.size(), null));
+		Map<RepoHistory, List<Integer>> pending = new IdentityHashMap<>();
+		for (int i = 0; i < commits.size(); i++) {
+			Commit commit = commits.get(i);
+			if (commit.getFiles() != null || commit.getHistory() == null) {
+				results.set(i, commit.getFiles() != null ? commit.getFiles() : new ArrayList<>());
+			} else {
+				pending.computeIfAbsent(commit.getHistory(), key -> new ArrayList<>()).add(i);
+			}
+		}
+
+		for (Map.Entry<RepoHistory, List<Integer>> group : pending.entrySet()) {
+			RepoHistory history = group.getKey();
+			List<String> shas = new ArrayList<>(group.getValue().size());
+			for (int i : group.getValue()) {
+				shas.add(commits.get(i).getSha());
+			}
+			try (RateLimitScheduler.Job job = rateLimitScheduler.openJob(history.getAccessToken(),
+					history.getOwner() + "/" + history.getRepo())) {
+				CommitFileTable table = commitFileTableFactory.create(history.getDetail(), history.getReduction());
+				List<CompactFiles> files = fetchCommitFiles(history.getOwner(), history.getRepo(), shas,
+						history.getAccessToken(), table);
+				for (int j = 0; j < files.size(); j++) {
+					int index = group.getValue().get(j);
+					List<FileData> view = table.view(files.get(j));
+					commits.get(index).setFiles(view);
+					results.set(index, view);
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Build commits from history metadata only. In STATS_ONLY mode they get an empty file list,
+	 * otherwise files stay null until {@link #fetchFilesFor} resolves them.
+	 */
+	private List<Commit> toLazyCommits(RepoHistory history, List<CommitHistoryIndex.CommitRef> refs) {
+		List<Commit> commits = new ArrayList<>(refs.size());
+		for (CommitHistoryIndex.CommitRef ref : refs) {
+			Commit commit = toCommit(ref);
+			commit.setHistory(history);
+			if (history.getDetail() == DetailLevel.STATS_ONLY) {
+				commit.setFiles(new ArrayList<>());
+			}
+			commits.add(commit);
+		}
+		return commits;
+	}
+
+	private Commit toCommit(CommitHistoryIndex.CommitRef ref) {
+		Commit commit = new Commit();
+		commit.setSha(ref.getSha());
+		commit.setMsg(ref.getMessage());
+		commit.setDate(ref.getDate());
+		commit.setAuthorName(ref.getAuthorLogin());
+		commit.setAdditions(ref.getAdditions());
+		commit.setDeletions(ref.getDeletions());
+		commit.setChangedFiles(ref.getChangedFiles());
+		return commit;
+	}
+
+	/**
+	 * Walk the branch history selected by {@code filter} and index every commit by its resolved author.
+	 * With incremental sync enabled and a filter that selects a whole branch, only commits newer than
+	 * the stored HEAD are walked and they are merged into the stored history.
+	 */
+	private CommitHistoryIndex indexCommitHistory(String owner, String repo, String accessToken, HistoryFilter filter) {
 		try {
-			logger.debug("Starting pagination for contributors in {}/{}", owner, repo);
-			Map<String, Contributor> contributorsMap = new HashMap<>();
-			String cursor = null;
-			boolean hasNextPage = true;
-
-			while (hasNextPage) {
-				Map<String, Object> variables = new HashMap<>();
-				variables.put("owner", owner);
-				variables.put("name", repo);
-				if (cursor != null) {
-					variables.put("after", cursor);
-					logger.debug("Fetching next page of commits using cursor: {}", cursor);
+			if (!incrementalSync || filter.isPartial()) {
+				// A filtered walk covers only part of the branch, so it is neither synced nor merged
+				HistoryWalk walk = walkHistory(owner, repo, accessToken, null, filter);
+				return CommitHistoryIndex.of(walk.commits);
+			}
+
+			String repoKey = CommitStoreService.repoKey(owner, repo);
+			HistoryWalk walk = walkHistory(owner, repo, accessToken, repoKey, filter);
+			if (walk.branch == null) {
+				return CommitHistoryIndex.of(walk.commits);
+			}
+
+			if (walk.knownState == null || !walk.reachedKnownHead) {
+				// First sync, or the known HEAD is no longer in history (force push): the walk was complete
+				storeHistory(repoKey, walk.branch, () ->
+						historySyncService.replace(repoKey, walk.branch, walk.commits, walk.headOid, walk.walkedCount));
+				return CommitHistoryIndex.of(walk.commits);
+			}
+
+			RepoSyncState state = walk.knownState;
+			if (state.getCommitCount() + walk.walkedCount != walk.totalCount) {
+				// Commits from merged branches landed behind the known HEAD; resync from scratch
+				logger.info("Synced history of {}@{} is out of step ({} known + {} new != {}), doing a full walk",
+						repoKey, walk.branch, state.getCommitCount(), walk.walkedCount, walk.totalCount);
+				HistoryWalk full = walkHistory(owner, repo, accessToken, null, filter);
+				if (full.branch != null) {
+					storeHistory(repoKey, full.branch, () ->
+							historySyncService.replace(repoKey, full.branch, full.commits, full.headOid, full.walkedCount));
 				}
+				return CommitHistoryIndex.of(full.commits);
+			}
 
-				JsonNode data = executeGraphQLQuery(REPOSITORY_COMMITS_QUERY, variables, accessToken);
-				JsonNode repository = data.get("repository");
-
-				if (repository != null && !repository.isNull()) {
-					JsonNode defaultBranch = repository.get("defaultBranchRef");
-					if (defaultBranch != null) {
-						JsonNode target = defaultBranch.get("target");
-						JsonNode history = target.get("history");
-						JsonNode nodes = history.get("nodes");
-						JsonNode pageInfo = history.get("pageInfo");
-
-						// Extract contributors from commits
-						for (JsonNode commitNode : nodes) {
-							JsonNode author = commitNode.get("author");
-							if (author != null) {
-								JsonNode user = author.get("user");
-								String login = null;
-								String url = null;
-
-								if (user != null && !user.isNull()) {
-									login = user.get("login").asText();
-									url = user.get("url").asText();
-								} else {
-									// Fallback to author name if user is null
-									login = author.get("name") != null ? author.get("name").asText() : "Unknown";
-									url = "https://github.com/" + login;
-								}
-
-								if (login != null) {
-									contributorsMap.putIfAbsent(login, new Contributor(login, url, 0));
-									// Increment contribution count
-									Contributor contributor = contributorsMap.get(login);
-									contributorsMap.put(login, new Contributor(login, url, contributor.getContributions() + 1));
-								}
-							}
-						}
+			List<CommitHistoryIndex.CommitRef> merged = new ArrayList<>(walk.totalCount);
+			merged.addAll(walk.commits);
+			merged.addAll(historySyncService.loadCommits(state));
+			if (walk.walkedCount > 0) {
+				storeHistory(repoKey, walk.branch, () ->
+						historySyncService.append(state, walk.commits, walk.headOid, walk.walkedCount));
+			}
+			logger.info("Incremental sync of {}@{}: {} new commits, {} total", repoKey, walk.branch, walk.commits.size(), merged.size());
+			return CommitHistoryIndex.of(merged);
+		} catch (AuthorNotFoundException e) {
+			throw e;
+		} catch (Exception e) {
+			logger.error("Error indexing commit history for {}/{}: {}", owner, repo, e.getMessage(), e);
+			throw new RuntimeException("Error indexing commit history: " + e.getMessage(), e);
+		}
+	}
 
-						hasNextPage = pageInfo.get("hasNextPage").asBoolean();
-						if (hasNextPage) {
-							cursor = pageInfo.get("endCursor").asText();
-						}
-					} else {
-						logger.warn("Repository {}/{} has no default branch ref.", owner, repo);
-						break;
-					}
-				} else {
-					logger.warn("Repository {}/{} data not found or is null.", owner, repo);
+	/**
+	 * Write to the history sync store. The walk has already succeeded, so a failed write, such as the unique
+	 * key rejecting a concurrent first sync of the branch, is logged and only makes the next fetch walk further.
+	 */
+	private void storeHistory(String repoKey, String branch, Runnable write) {
+		try {
+			write.run();
+		} catch (RuntimeException e) {
+			logger.warn("Storing synced history failed for {}@{}: {}", repoKey, branch, e.getMessage());
+		}
+	}
+
+	/**
+	 * Apply the pre-fetch commit filter to an indexed history and report what it skipped
+	 */
+	private CommitHistoryIndex filterCommits(CommitHistoryIndex index, String owner, String repo) {
+		CommitFilter.Result result = commitFilter.apply(index);
+		logger.info("Commit filter for {}/{}: {}", owner, repo, result);
+		return result.getIndex();
+	}
+
+	/**
+	 * Page through the history of the default branch, or the branch named by {@code filter}, newest first.
+	 * The filter's time range, author and path are applied by GitHub. When {@code syncRepoKey} is given
+	 * and a sync state exists for the branch, the walk stops at the stored HEAD oid.
+	 */
+	private HistoryWalk walkHistory(String owner, String repo, String accessToken, String syncRepoKey, HistoryFilter filter) {
+		logger.debug("Starting history walk for {}/{}", owner, repo);
+		HistoryWalk walk = new HistoryWalk();
+		HistoryPageSize pageSize = new HistoryPageSize();
+		String cursor = null;
+		boolean hasNextPage = true;
+		int pages = 0;
+
+		Map<String, Object> filterVariables = historyVariables(filter, accessToken);
+		String query = filter.getBranch() != null ? BRANCH_COMMITS_QUERY : DEFAULT_BRANCH_COMMITS_QUERY;
+
+		while (hasNextPage) {
+			Map<String, Object> variables = new HashMap<>(filterVariables);
+			variables.put("owner", owner);
+			variables.put("name", repo);
+			if (cursor != null) {
+				variables.put("after", cursor);
+				logger.debug("Fetching next page of commits using cursor: {}", cursor);
+			}
+
+			JsonNode data = fetchHistoryPage(query, variables, accessToken, pageSize);
+			JsonNode repository = data.get("repository");
+			pages++;
+
+			if (repository == null || repository.isNull()) {
+				logger.warn("Repository {}/{} data not found or is null.", owner, repo);
+				break;
+			}
+			JsonNode defaultBranch = repository.get("branchRef");
+			if (defaultBranch == null || defaultBranch.isNull()) {
+				if (filter.getBranch() != null) {
+					throw new IllegalArgumentException("Branch not found: " + filter.getBranch());
+				}
+				logger.warn("Repository {}/{} has no default branch ref.", owner, repo);
+				break;
+			}
+
+			JsonNode target = defaultBranch.get("target");
+			JsonNode history = target.get("history");
+			JsonNode pageInfo = history.get("pageInfo");
+
+			if (walk.branch == null) {
+				walk.branch = defaultBranch.get("name").asText();
+				walk.headOid = target.get("oid").asText();
+				walk.totalCount = history.path("totalCount").asInt();
+				RateLimitScheduler.Job job = rateLimitScheduler.currentJob();
+				if (job != null) {
+					job.estimate(RateLimitScheduler.Resource.GRAPHQL, (walk.totalCount + 99) / 100);
+				}
+				if (syncRepoKey != null) {
+					walk.knownState = historySyncService.findState(syncRepoKey, walk.branch).orElse(null);
+				}
+				// A full walk of a long history pages date windows concurrently instead of one cursor
+				if (walk.knownState == null && pageInfo.get("hasNextPage").asBoolean()
+						&& walkPartitioned(owner, repo, accessToken, filterVariables, walk, pageSize)) {
+					return walk;
+				}
+			}
+			String knownHead = walk.knownState != null ? walk.knownState.getHeadOid() : null;
+
+			for (JsonNode commitNode : history.get("nodes")) {
+				String oid = commitNode.get("oid").asText();
+				if (oid.equals(knownHead)) {
+					walk.reachedKnownHead = true;
 					break;
 				}
+				walk.walkedCount++;
+
+				CommitHistoryIndex.CommitRef ref = toCommitRef(commitNode, walk.authors);
+				if (ref != null) {
+					walk.commits.add(ref);
+				}
+			}
+
+			hasNextPage = !walk.reachedKnownHead && pageInfo.get("hasNextPage").asBoolean();
+			if (hasNextPage) {
+				cursor = pageInfo.get("endCursor").asText();
 			}
-			logger.info("Finished fetching contributors. Total found: {}", contributorsMap.size());
-			return new ArrayList<>(contributorsMap.values());
-		} catch (Exception e) {
-			logger.error("Error fetching contributors for {}/{}: {}", owner, repo, e.getMessage(), e);
-			throw new RuntimeException("Error fetching contributors: " + e.getMessage(), e);
 		}
+		logger.info("Walked {} commits in {} pages for {}/{}", walk.commits.size(), pages, owner, repo);
+		return walk;
 	}
 
 	/**
-	 * Get commits by author using GraphQL
+	 * Commit reference of a history node, or null for a commit without an author.
+	 * Author strings are interned in {@code authors} so all commits of an author share them.
 	 */
-	private List<Commit> getCommitsByAuthorGraphQL(String owner, String repo, String authorLogin, String accessToken) {
+	private CommitHistoryIndex.CommitRef toCommitRef(JsonNode commitNode, StringDictionary authors) {
+		JsonNode author = commitNode.get("author");
+		if (author == null || author.isNull()) {
+			return null;
+		}
+
+		String login;
+		String url;
+		JsonNode user = author.get("user");
+		if (user != null && !user.isNull()) {
+			login = user.get("login").asText();
+			url = user.get("url").asText();
+		} else {
+			// Fallback to author name if user is null
+			login = author.get("name") != null ? author.get("name").asText() : "Unknown";
+			url = "https://github.com/" + login;
+		}
+
+		return new CommitHistoryIndex.CommitRef(
+				commitNode.get("oid").asText(),
+				commitNode.get("message").asText(),
+				commitNode.get("committedDate").asText(),
+				authors.intern(login),
+				authors.intern(url),
+				commitNode.path("additions").asInt(),
+				commitNode.path("deletions").asInt(),
+				commitNode.path("changedFilesIfAvailable").asInt(),
+				commitNode.path("parents").path("totalCount").asInt()
+		);
+	}
+
+	/**
+	 * Execute one history page query at the walk's current page size. When GitHub gives up on a heavy
+	 * page (502/504 or a timeout) the page size is halved and the same cursor is retried.
+	 */
+	private JsonNode fetchHistoryPage(String query, Map<String, Object> variables, String accessToken, HistoryPageSize pageSize) {
+		while (true) {
+			int size = pageSize.get();
+			variables.put("pageSize", size);
+			try {
+				JsonNode data = executeGraphQLQuery(query, variables, accessToken);
+				pageSize.succeeded();
+				return data;
+			} catch (RuntimeException e) {
+				if (!HistoryPageSize.isRetryable(e) || !pageSize.shrink()) {
+					throw e;
+				}
+				logger.warn("History page of {} commits failed, retrying with {}: {}", size, pageSize.get(), e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Walk the whole history below {@code walk.headOid} as date windows paged concurrently.
+	 * <p>
+	 * Window boundaries are the commit dates at evenly spaced offsets of the history, probed with
+	 * offset cursors ({@code "<oid> <offset>"}), so windows hold about the same number of commits.
+	 * Windows are walked on the history executor under the per-token permits and rate-limit budget.
+	 * A window whose walk disagrees with the count GitHub reports for it is walked again; only when the
+	 * windows still do not add up to {@code walk.totalCount} is the partitioned walk given up. Commits on
+	 * window boundaries are de-duplicated and the result is ordered by committed date, newest first,
+	 * then by position within its window.
+	 *
+	 * @return false, leaving {@code walk} untouched, when the history is too short to split or the
+	 * partitioned walk could not be completed; the caller then pages sequentially
+	 */
+	private boolean walkPartitioned(String owner, String repo, String accessToken, Map<String, Object> filterVariables,
+									HistoryWalk walk, HistoryPageSize pageSize) {
+		int partitions = Math.min(historyPartitions, walk.totalCount / Math.max(1, partitionMinCommits));
+		if (partitions < 2) {
+			return false;
+		}
+		long start = System.currentTimeMillis();
+		Map<String, Object> baseVariables = new HashMap<>(filterVariables);
+		baseVariables.remove("branch");
+		baseVariables.put("owner", owner);
+		baseVariables.put("name", repo);
+		baseVariables.put("oid", walk.headOid);
+
 		try {
-			logger.debug("Starting commit fetching for author: {} in {}/{}", authorLogin, owner, repo);
-			List<Commit> allCommits = new ArrayList<>();
-			String cursor = null;
-			boolean hasNextPage = true;
-
-			while (hasNextPage) {
-				Map<String, Object> variables = new HashMap<>();
-				variables.put("owner", owner);
-				variables.put("name", repo);
-				if (cursor != null) {
-					variables.put("after", cursor);
+			// Probe the dates at the partition offsets
+			List<CompletableFuture<String>> probes = new ArrayList<>(partitions - 1);
+			for (int k = 1; k < partitions; k++) {
+				Map<String, Object> variables = new HashMap<>(baseVariables);
+				variables.put("pageSize", 1);
+				variables.put("after", walk.headOid + " " + ((long) walk.totalCount * k / partitions - 1));
+				probes.add(submitWithTokenPermit(accessToken, () ->
+						executeGraphQLQuery(HISTORY_WINDOW_QUERY, variables, accessToken), historyPageExecutor)
+						.thenApply(data -> data.path("repository").path("object").path("history")
+								.path("nodes").path(0).path("committedDate").asText(null)));
+			}
+			TreeSet<String> boundarySet = new TreeSet<>(Comparator.reverseOrder());
+			for (CompletableFuture<String> probe : probes) {
+				String date = probe.join();
+				if (date == null) {
+					logger.info("History offset probe for {}/{} returned no commit, walking sequentially", owner, repo);
+					return false;
+				}
+				boundarySet.add(date);
+			}
+			List<String> boundaries = new ArrayList<>(boundarySet);
+
+			// Window i spans boundaries[i] .. boundaries[i - 1]; the outer windows keep the filter's own range
+			List<Map<String, Object>> windowVariables = new ArrayList<>(boundaries.size() + 1);
+			for (int i = 0; i <= boundaries.size(); i++) {
+				Map<String, Object> variables = new HashMap<>(baseVariables);
+				if (i < boundaries.size()) {
+					variables.put("since", boundaries.get(i));
 				}
+				if (i > 0) {
+					variables.put("until", boundaries.get(i - 1));
+				}
+				windowVariables.add(variables);
+			}
+			List<HistoryWindow> windows = walkWindows(windowVariables, accessToken, pageSize, walk.authors);
+			int pages = probes.size();
+			for (HistoryWindow window : windows) {
+				pages += window.pages;
+			}
 
-				JsonNode data = executeGraphQLQuery(REPOSITORY_COMMITS_QUERY, variables, accessToken);
-				JsonNode repository = data.get("repository");
-
-				if (repository != null && !repository.isNull()) {
-					JsonNode defaultBranch = repository.get("defaultBranchRef");
-					if (defaultBranch != null) {
-						JsonNode target = defaultBranch.get("target");
-						JsonNode history = target.get("history");
-						JsonNode nodes = history.get("nodes");
-						JsonNode pageInfo = history.get("pageInfo");
-
-						for (JsonNode commitNode : nodes) {
-							JsonNode author = commitNode.get("author");
-							if (author != null) {
-								String commitAuthor = null;
-								JsonNode user = author.get("user");
-
-								if (user != null && !user.isNull()) {
-									commitAuthor = user.get("login").asText();
-								} else {
-									commitAuthor = author.get("name") != null ? author.get("name").asText() : "Unknown";
-								}
-
-								// Filter commits by author
-								if (authorLogin.equals(commitAuthor)) {
-									String sha = commitNode.get("oid").asText();
-									String message = commitNode.get("message").asText();
-									String date = commitNode.get("committedDate").asText();
-
-									// Get comprehensive file changes for this commit
-									List<FileData> files = getCommitFilesWithPatchData(owner, repo, sha, accessToken);
-
-									Commit commit = new Commit();
-									commit.setSha(sha);
-									commit.setMsg(message);
-									commit.setDate(date);
-									commit.setFiles(files);
-
-									allCommits.add(commit);
-								}
-							}
-						}
+			// Walk again only the windows that lost or gained commits against their own count
+			List<Integer> mismatched = new ArrayList<>();
+			for (int i = 0; i < windows.size(); i++) {
+				if (!windows.get(i).isComplete()) {
+					mismatched.add(i);
+				}
+			}
+			if (!mismatched.isEmpty()) {
+				logger.info("Re-walking {} of {} history windows of {}/{} whose counts did not match",
+						mismatched.size(), windows.size(), owner, repo);
+				List<HistoryWindow> retries = walkWindows(mismatched.stream().map(windowVariables::get).toList(),
+						accessToken, pageSize, walk.authors);
+				for (int r = 0; r < retries.size(); r++) {
+					windows.set(mismatched.get(r), retries.get(r));
+					pages += retries.get(r).pages;
+				}
+			}
 
-						hasNextPage = pageInfo.get("hasNextPage").asBoolean();
-						if (hasNextPage) {
-							cursor = pageInfo.get("endCursor").asText();
-						}
-					} else {
-						break;
+			Set<String> seen = new HashSet<>(walk.totalCount * 2);
+			List<CommitHistoryIndex.CommitRef> commits = new ArrayList<>(walk.totalCount);
+			for (HistoryWindow window : windows) {
+				for (int j = 0; j < window.oids.size(); j++) {
+					if (seen.add(window.oids.get(j)) && window.refs.get(j) != null) {
+						commits.add(window.refs.get(j));
 					}
-				} else {
-					break;
 				}
 			}
-			logger.info("Finished fetching commits for author {}. Total: {}", authorLogin, allCommits.size());
-			return allCommits;
-		} catch (Exception e) {
-			logger.error("Error fetching commits for author {}: {}", authorLogin, e.getMessage(), e);
-			throw new RuntimeException("Error fetching commits: " + e.getMessage(), e);
+			if (seen.size() != walk.totalCount) {
+				logger.info("Partitioned walk of {}/{} saw {} of {} commits, walking sequentially",
+						owner, repo, seen.size(), walk.totalCount);
+				return false;
+			}
+
+			// Stored rows follow this order. GitHub's ISO-8601 UTC dates sort as strings, and the stable sort
+			// keeps window order, then position within a window, for commits with the same date
+			commits.sort(Comparator.comparing(CommitHistoryIndex.CommitRef::getDate, Comparator.reverseOrder()));
+			walk.commits.addAll(commits);
+			walk.walkedCount = seen.size();
+			logger.info("Walked {} commits in {} pages over {} windows for {}/{} in {} ms",
+					commits.size(), pages, windows.size(), owner, repo, System.currentTimeMillis() - start);
+			return true;
+		} catch (CompletionException | CancellationException e) {
+			logger.warn("Partitioned walk of {}/{} failed, walking sequentially: {}", owner, repo, e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Walk date windows concurrently on the history executor, returning them in the order given.
+	 * A window pages sequentially, so it holds one token permit for its whole walk.
+	 */
+	private List<HistoryWindow> walkWindows(List<Map<String, Object>> windowVariables, String accessToken,
+											HistoryPageSize pageSize, StringDictionary authors) {
+		List<CompletableFuture<HistoryWindow>> futures = new ArrayList<>(windowVariables.size());
+		for (Map<String, Object> variables : windowVariables) {
+			futures.add(submitWithTokenPermit(accessToken, () ->
+					walkWindow(variables, accessToken, pageSize, authors), historyPageExecutor));
+		}
+		List<HistoryWindow> windows = new ArrayList<>(futures.size());
+		for (CompletableFuture<HistoryWindow> future : futures) {
+			windows.add(future.join());
+		}
+		return windows;
+	}
+
+	/**
+	 * Page through one date window of a partitioned walk
+	 */
+	private HistoryWindow walkWindow(Map<String, Object> windowVariables, String accessToken, HistoryPageSize pageSize,
+									 StringDictionary authors) {
+		HistoryWindow window = new HistoryWindow();
+		String cursor = null;
+		boolean hasNextPage = true;
+		while (hasNextPage) {
+			Map<String, Object> variables = new HashMap<>(windowVariables);
+			if (cursor != null) {
+				variables.put("after", cursor);
+			}
+			JsonNode history = fetchHistoryPage(HISTORY_WINDOW_QUERY, variables, accessToken, pageSize)
+					.path("repository").path("object").path("history");
+			window.pages++;
+			if (window.pages == 1) {
+				window.totalCount = history.path("totalCount").asInt(-1);
+			}
+			for (JsonNode commitNode : history.path("nodes")) {
+				window.oids.add(commitNode.get("oid").asText());
+				window.refs.add(toCommitRef(commitNode, authors));
+			}
+			JsonNode pageInfo = history.path("pageInfo");
+			hasNextPage = pageInfo.path("hasNextPage").asBoolean();
+			cursor = pageInfo.path("endCursor").asText(null);
+		}
+		return window;
+	}
+
+	/**
+	 * Run {@code request} on {@code executor} under one of the access token's concurrency permits.
+	 * The permit is taken on the calling thread, so pool threads never sit waiting for one and a busy
+	 * token cannot starve the others; it is released when the request completes.
+	 */
+	private <T> CompletableFuture<T> submitWithTokenPermit(String accessToken, Supplier<T> request, Executor executor) {
+		TokenPermits.Permit permit;
+		try {
+			permit = tokenPermits.acquire(accessToken);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return CompletableFuture.failedFuture(new IllegalStateException("Interrupted waiting for a request permit", e));
+		}
+		try {
+			return CompletableFuture.supplyAsync(rateLimitScheduler.propagate(() -> {
+				try {
+					return request.get();
+				} finally {
+					permit.close();
+				}
+			}), executor);
+		} catch (RejectedExecutionException e) {
+			permit.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * GraphQL variables for the history arguments of a filter. Absent values are left out
+	 * so GitHub treats the argument as not given.
+	 */
+	private Map<String, Object> historyVariables(HistoryFilter filter, String accessToken) {
+		Map<String, Object> variables = new HashMap<>();
+		if (filter.getBranch() != null) {
+			variables.put("branch", filter.getBranch());
+		}
+		if (filter.getSince() != null) {
+			variables.put("since", filter.sinceInstant().toString());
+		}
+		if (filter.getUntil() != null) {
+			variables.put("until", filter.untilInstant().toString());
+		}
+		if (filter.getPath() != null) {
+			variables.put("path", filter.getPath());
+		}
+		if (filter.getAuthor() != null) {
+			variables.put("author", commitAuthor(filter.getAuthor(), accessToken));
+		}
+		return variables;
+	}
+
+	/**
+	 * CommitAuthor input for a login or email. GitHub filters by author node id, so logins are resolved first.
+	 */
+	private Map<String, Object> commitAuthor(String author, String accessToken) {
+		if (author.contains("@")) {
+			return Map.of("emails", List.of(author));
+		}
+		JsonNode user;
+		try {
+			user = executeGraphQLQuery(USER_ID_QUERY, Map.of("login", author), accessToken).get("user");
+		} catch (RuntimeException e) {
+			if (e.getMessage() != null && e.getMessage().contains("Could not resolve to a User")) {
+				throw new AuthorNotFoundException(author);
+			}
+			throw e;
+		}
+		if (user == null || user.isNull()) {
+			throw new AuthorNotFoundException(author);
+		}
+		return Map.of("id", user.get("id").asText());
+	}
+
+	/**
+	 * An author filter named a login GitHub has no user for
+	 */
+	private static class AuthorNotFoundException extends IllegalArgumentException {
+		private AuthorNotFoundException(String login) {
+			super("GitHub user not found: " + login);
 		}
 	}
 
 	/**
-	 * Get comprehensive file details with all patch data for a commit using REST API
+	 * Commits of one date window, in history order; refs are null for commits without an author
 	 */
-	private List<FileData> getCommitFilesWithPatchData(String owner, String repo, String sha, String accessToken) {
+	private static class HistoryWindow {
+		private final List<String> oids = new ArrayList<>();
+		private final List<CommitHistoryIndex.CommitRef> refs = new ArrayList<>();
+		private int pages;
+		// Commits GitHub counts in the window, -1 when not reported
+		private int totalCount = -1;
+
+		private boolean isComplete() {
+			return totalCount < 0 || oids.size() == totalCount;
+		}
+	}
+
+	/**
+	 * Result of one history walk
+	 */
+	private static class HistoryWalk {
+		private String branch;
+		private String headOid;
+		private int totalCount;
+		private RepoSyncState knownState;
+		private boolean reachedKnownHead;
+		// History nodes walked, including commits without an author
+		private int walkedCount;
+		private final List<CommitHistoryIndex.CommitRef> commits = new ArrayList<>();
+		private final StringDictionary authors = new StringDictionary();
+	}
+
+	/**
+	 * Contributors of one coalesced fetch and the patch arenas their files live in. Each caller that gets
+	 * them holds one reference to every arena, which its request scope releases.
+	 */
+	private static class SharedContributors {
+		private final List<ContributorWithCommits> contributors;
+		private final List<PatchArena> arenas;
+
+		private SharedContributors(List<ContributorWithCommits> contributors, List<PatchArena> arenas) {
+			this.contributors = contributors;
+			this.arenas = arenas;
+		}
+
+		private void retain(int followers) {
+			for (PatchArena arena : arenas) {
+				arena.retain(followers);
+			}
+		}
+
+		/**
+		 * Hand this caller's references to its request scope; without one the arenas are left to the collector
+		 */
+		private void adoptInto(PatchArenaScope scope) {
+			if (scope != null) {
+				arenas.forEach(scope::adopt);
+			}
+		}
+	}
+
+	/**
+	 * Get contributors with their contribution counts from the history index
+	 */
+	private List<Contributor> getContributorsGraphQL(String owner, String repo, String accessToken) {
+		CommitHistoryIndex index = indexCommitHistory(owner, repo, accessToken, HistoryFilter.none());
+		List<Contributor> contributors = new ArrayList<>(index.getAuthors().size());
+		for (CommitHistoryIndex.AuthorCommits author : index.getAuthors()) {
+			contributors.add(new Contributor(author.getLogin(), author.getUrl(), author.getContributions()));
+		}
+		return contributors;
+	}
+
+	/**
+	 * Get commits by author, letting GitHub filter the history by author. Authors without a GitHub
+	 * account are indexed under their git name, so when the login resolves to no GitHub user they are
+	 * looked up in the full history instead. Any other failure is the caller's.
+	 */
+	private List<Commit> getCommitsByAuthorGraphQL(String owner, String repo, String authorLogin, String accessToken) {
+		CommitHistoryIndex index;
+		try {
+			index = indexCommitHistory(owner, repo, accessToken, HistoryFilter.of(null, null, authorLogin, null, null));
+		} catch (AuthorNotFoundException e) {
+			logger.debug("Author {} is not a GitHub user, reading the full history", authorLogin);
+			index = indexCommitHistory(owner, repo, accessToken, HistoryFilter.none());
+		}
+		CommitHistoryIndex.AuthorCommits author = filterCommits(index, owner, repo).get(authorLogin);
+		if (author == null) {
+			logger.info("No commits found for author {} in {}/{}", authorLogin, owner, repo);
+			return new ArrayList<>();
+		}
+		List<String> shas = new ArrayList<>(author.getContributions());
+		for (CommitHistoryIndex.CommitRef ref : author.getCommits()) {
+			shas.add(ref.getSha());
+		}
+		CommitFileTable table = commitFileTableFactory.create(DetailLevel.PATCHES);
+		List<Commit> commits = toCommits(author.getCommits(), table, fetchCommitFiles(owner, repo, shas, accessToken, table));
+		logger.info("Finished fetching commits for author {}. Total: {}", authorLogin, commits.size());
+		return commits;
+	}
+
+	/**
+	 * Build commit DTOs for indexed commits from their already fetched file details.
+	 * Files stay compact until the response is serialized.
+	 */
+	private List<Commit> toCommits(List<CommitHistoryIndex.CommitRef> refs, CommitFileTable table, List<CompactFiles> files) {
+		List<Commit> commits = new ArrayList<>(refs.size());
+		for (int i = 0; i < refs.size(); i++) {
+			Commit commit = toCommit(refs.get(i));
+			commit.setFiles(table.view(files.get(i)));
+			commits.add(commit);
+		}
+		return commits;
+	}
+
+	/**
+	 * Fetch file details for many commits through the bounded detail executor.
+	 * At most {@code perTokenConcurrency} requests run at once for the same access token;
+	 * results come back in the order of {@code shas} and a failed commit yields no files.
+	 * Commits already in the commit store are served from it without any request.
+	 * Every commit's files are encoded into {@code table} as soon as they arrive.
+	 */
+	List<CompactFiles> fetchCommitFiles(String owner, String repo, List<String> shas, String accessToken, CommitFileTable table) {
+		Map<String, List<FileData>> stored = commitStoreService.findAll(shas);
+		logger.debug("Fetching file details for {} commits in {}/{} ({} already stored)",
+				shas.size(), owner, repo, stored.size());
+		RateLimitScheduler.Job job = rateLimitScheduler.currentJob();
+		if (job != null) {
+			job.estimate(RateLimitScheduler.Resource.CORE, shas.size() - stored.size());
+		}
+
+		List<CompletableFuture<CompactFiles>> futures = new ArrayList<>(shas.size());
+		for (String sha : shas) {
+			List<FileData> storedFiles = stored.remove(sha);
+			if (storedFiles != null) {
+				futures.add(CompletableFuture.completedFuture(table.encode(storedFiles)));
+				continue;
+			}
+			futures.add(submitWithTokenPermit(accessToken, () ->
+					table.encode(downloadCommitFiles(owner, repo, sha, accessToken)), commitDetailExecutor));
+		}
+
+		List<CompactFiles> results = new ArrayList<>(shas.size());
+		for (int i = 0; i < futures.size(); i++) {
+			try {
+				results.add(futures.get(i).join());
+			} catch (CompletionException | CancellationException e) {
+				logger.error("Error fetching file details for commit {}: {}", shas.get(i), e.getMessage());
+				results.add(CompactFiles.EMPTY);
+			}
+		}
+		if (table.getReducer() != null) {
+			logger.info("Patch reduction for {} commits of {}/{}: {}", results.size(), owner, repo, table.getReducer());
+		}
+		PatchArena arena = table.getArena();
+		logger.debug("Encoded files of {} commits with {} distinct paths; patch arena {} bytes off-heap, {} spilled",
+				results.size(), table.pathCount(), arena != null ? arena.getOffHeapBytes() : 0,
+				arena != null ? arena.getSpilledBytes() : 0);
+		return results;
+	}
+
+	/**
+	 * Download file details with all patch data for a commit using REST API and store them on success
+	 */
+	private List<FileData> downloadCommitFiles(String owner, String repo, String sha, String accessToken) {
 		logger.debug("Fetching file patch data for commit SHA: {}", sha);
 		try {
 			String commitUrl = String.format("https://api.github.com/repos/%s/%s/commits/%s", owner, repo, sha);
@@ -406,105 +1310,30 @@ public class VCDataService {
 			headers.set("Accept", "application/vnd.github+json");
 			headers.set("X-GitHub-Api-Version", "2022-11-28");
 
-			HttpEntity<?> entity = new HttpEntity<>(headers);
-			ResponseEntity<String> response = restTemplate.exchange(commitUrl, HttpMethod.GET, entity, String.class);
-
-			if (response.getStatusCode() == HttpStatus.OK) {
-				JsonNode commitDetail = objectMapper.readTree(response.getBody());
-				JsonNode filesArray = commitDetail.get("files");
-
-				List<FileData> fileDataList = new ArrayList<>();
-
-				if (filesArray != null && filesArray.isArray()) {
-					for (JsonNode fileNode : filesArray) {
-						FileData fileData = new FileData();
-
-						// Get full filename path
-						String fullFilename = fileNode.get("filename").asText();
-						String fileName = fullFilename.substring(fullFilename.lastIndexOf('/') + 1);
-						fileData.setFileName(fileName);
-						fileData.setFullPath(fullFilename); // Store full path
-
-						// Extract file extension
-						int dotIndex = fileName.lastIndexOf('.');
-						String extension = dotIndex > 0 ? fileName.substring(dotIndex + 1) : "";
-						fileData.setExtension(extension);
-
-						// Get file operation status (added, modified, deleted, renamed)
-						String status = fileNode.get("status").asText();
-						fileData.setOperation(status);
-
-						// Get the patch/code changes - this is the key data
-						String patchData = "";
-						if (fileNode.has("patch") && !fileNode.get("patch").isNull()) {
-							patchData = fileNode.get("patch").asText();
-						} else {
-							// Handle special cases
-							switch (status) {
-								case "added":
-									patchData = "// New file added";
-									break;
-								case "removed":
-									patchData = "// File deleted";
-									break;
-								case "renamed":
-									String previousFilename = fileNode.has("previous_filename") ?
-											fileNode.get("previous_filename").asText() : "unknown";
-									patchData = "// File renamed from: " + previousFilename + " to: " + fullFilename;
-									break;
-								default:
-									patchData = "// No patch data available";
-							}
-						}
-						fileData.setCode(patchData);
-
-						// Get comprehensive file statistics
-						fileData.setAdditions(fileNode.has("additions") ? fileNode.get("additions").asInt() : 0);
-						fileData.setDeletions(fileNode.has("deletions") ? fileNode.get("deletions").asInt() : 0);
-						fileData.setChanges(fileNode.has("changes") ? fileNode.get("changes").asInt() :
-								(fileData.getAdditions() + fileData.getDeletions()));
-
-						// Additional metadata
-						fileData.setBinaryFile(fileNode.has("binary") ? fileNode.get("binary").asBoolean() : false);
-						if (fileNode.has("previous_filename")) {
-							fileData.setPreviousFilename(fileNode.get("previous_filename").asText());
+			// Decode the response body as it streams in rather than buffering it into a string and a tree
+			List<FileData> fileDataList = restTemplate.execute(commitUrl, HttpMethod.GET,
+					request -> request.getHeaders().putAll(headers),
+					response -> {
+						if (response.getStatusCode().value() != HttpStatus.OK.value()) {
+							logger.error("Failed to fetch commit details for SHA {}. Status: {}", sha, response.getStatusCode());
+							return null;
 						}
+						return CommitFilesDecoder.decode(response.getBody());
+					});
 
-						fileDataList.add(fileData);
-
-						// Debug logging
-						System.out.println(String.format(
-								"File: %s, Status: %s, Patch length: %d chars, +%d -%d",
-								fileName, status, patchData.length(),
-								fileData.getAdditions(), fileData.getDeletions()
-						));
-						logger.debug("Processed file: {}, Status: {}, Additions: {}, Deletions: {}", fileName, status, fileData.getAdditions(), fileData.getDeletions());
-					}
-				}
-
-				return fileDataList;
-			} else {
-				System.err.println("Failed to fetch commit details. Status: " + response.getStatusCode());
-				logger.error("Failed to fetch commit details for SHA {}. Status: {}", sha, response.getStatusCode());
+			if (fileDataList == null) {
 				return new ArrayList<>();
 			}
+			logger.debug("Processed {} files for commit SHA: {}", fileDataList.size(), sha);
+			commitStoreService.save(CommitStoreService.repoKey(owner, repo), sha, fileDataList);
+			return fileDataList;
 
 		} catch (Exception e) {
-			System.err.println("Error fetching file details for commit " + sha + ": " + e.getMessage());
-			e.printStackTrace();
-			logger.error("Error fetching file details for commit {}: {}", sha, e.getMessage(), e);
+			logger.warn("Error fetching file details for commit {}", sha, e);
 			return new ArrayList<>();
 		}
 	}
 
-	/**
-	 * Legacy method - kept for backward compatibility
-	 */
-	private List<FileData> getCommitFilesGraphQL(String owner, String repo, JsonNode commitNode, String accessToken) {
-		String sha = commitNode.get("oid").asText();
-		return getCommitFilesWithPatchData(owner, repo, sha, accessToken);
-	}
-
 	// Legacy methods for backward compatibility
 	public ContributorsResponse getContributors(String repoUrl, Long userId) {
 		logger.info("LEGACY: Fetching contributors for repo: {} by user ID: {}", repoUrl, userId);
@@ -514,8 +1343,10 @@ public class VCDataService {
 			String repo = ownerRepo[1];
 			String accessToken = getAccessToken(userId);
 
-			List<Contributor> contributors = getContributorsGraphQL(owner, repo, accessToken);
-			return new ContributorsResponse(contributors);
+			try (RateLimitScheduler.Job job = rateLimitScheduler.openJob(accessToken, owner + "/" + repo)) {
+				List<Contributor> contributors = getContributorsGraphQL(owner, repo, accessToken);
+				return new ContributorsResponse(contributors);
+			}
 		} catch (Exception e) {
 			logger.error("LEGACY: Error fetching contributors for repo {}: {}", repoUrl, e.getMessage(), e);
 			throw new RuntimeException("Error fetching contributors: " + e.getMessage(), e);
@@ -530,8 +1361,10 @@ public class VCDataService {
 			String repo = ownerRepo[1];
 			String accessToken = getAccessToken(userId);
 
-			List<Commit> commits = getCommitsByAuthorGraphQL(owner, repo, authorName, accessToken);
-			return new CommitsResponse(commits, authorName, commits.size());
+			try (RateLimitScheduler.Job job = rateLimitScheduler.openJob(accessToken, owner + "/" + repo)) {
+				List<Commit> commits = getCommitsByAuthorGraphQL(owner, repo, authorName, accessToken);
+				return new CommitsResponse(commits, authorName, commits.size());
+			}
 		} catch (Exception e) {
 			logger.error("LEGACY: Error fetching commits for author {} in repo {}: {}", authorName, repoUrl, e.getMessage(), e);
 			throw new RuntimeException("Error fetching commits: " + e.getMessage(), e);
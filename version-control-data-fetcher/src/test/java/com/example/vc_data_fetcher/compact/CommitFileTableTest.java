@@ -0,0 +1,64 @@
+package com.example.vc_data_fetcher.compact;
+
+import com.example.vc_data_fetcher.dto.FileData;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommitFileTableTest {
+
+	private static final FileData MODIFIED = new FileData("App.java", "src/App.java", "java", "modified",
+			"@@ -1 +1 @@\n-a\n+b", 1, 1, 2, false, null);
+	private static final FileData RENAMED = new FileData("Main.java", "src/Main.java", "java", "renamed",
+			"// File renamed from: src/Old.java to: src/Main.java", 0, 0, 0, false, "src/Old.java");
+
+	@Test
+	void roundTripsFilesThroughDictionary() {
+		CommitFileTable table = new CommitFileTable(true);
+		CompactFiles first = table.encode(List.of(MODIFIED, RENAMED));
+		CompactFiles second = table.encode(List.of(MODIFIED));
+
+		// src/App.java, src/Main.java and src/Old.java, each stored once
+		assertEquals(3, table.pathCount());
+		// The rename placeholder is regenerated instead of stored
+		assertNull(first.patches[1]);
+
+		List<FileData> files = table.view(first);
+		assertEquals(2, files.size());
+		assertFile(MODIFIED, files.get(0));
+		assertFile(RENAMED, files.get(1));
+		assertFile(MODIFIED, table.view(second).get(0));
+	}
+
+	@Test
+	void dropsPatchesWhenOnlyFilesAreKept() {
+		CommitFileTable table = new CommitFileTable(false);
+		FileData file = table.view(table.encode(List.of(MODIFIED))).get(0);
+
+		assertEquals("", file.getCode());
+		assertEquals("src/App.java", file.getFullPath());
+		assertEquals(2, file.getChanges());
+	}
+
+	@Test
+	void keepsUnknownStatusesAsChanged() {
+		assertEquals(FileOperation.CHANGED, FileOperation.of("typechange"));
+		assertEquals(FileOperation.NONE, FileOperation.of(null));
+		assertEquals(FileOperation.REMOVED, FileOperation.of("removed"));
+	}
+
+	private static void assertFile(FileData expected, FileData actual) {
+		assertEquals(expected.getFileName(), actual.getFileName());
+		assertEquals(expected.getFullPath(), actual.getFullPath());
+		assertEquals(expected.getExtension(), actual.getExtension());
+		assertEquals(expected.getOperation(), actual.getOperation());
+		assertEquals(expected.getCode(), actual.getCode());
+		assertEquals(expected.getAdditions(), actual.getAdditions());
+		assertEquals(expected.getDeletions(), actual.getDeletions());
+		assertEquals(expected.getChanges(), actual.getChanges());
+		assertEquals(expected.isBinaryFile(), actual.isBinaryFile());
+		assertEquals(expected.getPreviousFilename(), actual.getPreviousFilename());
+	}
+}
@@ -0,0 +1,36 @@
+package com.example.vc_data_fetcher.compact;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntLongMapTest {
+
+	@Test
+	void addsAndGrowsWithoutLosingEntries() {
+		IntLongMap map = new IntLongMap(2);
+		for (int key = 0; key < 1000; key++) {
+			map.addTo(key, key);
+			map.addTo(key, 1);
+		}
+
+		assertEquals(1000, map.size());
+		assertEquals(500, map.get(499, -1));
+		assertEquals(-1, map.get(1000, -1));
+		long[] sum = new long[1];
+		map.forEach((key, value) -> sum[0] += value - key);
+		assertEquals(1000, sum[0]);
+	}
+
+	@Test
+	void putOverwritesAndRejectsNegativeKeys() {
+		IntLongMap map = new IntLongMap();
+		map.put(7, 3);
+		map.put(7, 5);
+
+		assertTrue(map.containsKey(7));
+		assertFalse(map.containsKey(-1));
+		assertEquals(5, map.get(7, 0));
+		assertThrows(IllegalArgumentException.class, () -> map.put(-1, 1));
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.vc_data_fetcher.compact;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntMapTest {
+
+	@Test
+	void countsUnorderedPairsAndGrows() {
+		LongIntMap map = new LongIntMap(2);
+		for (int a = 0; a < 100; a++) {
+			for (int b = a + 1; b < 100; b++) {
+				map.addTo(LongIntMap.pair(b, a), 1);
+				map.addTo(LongIntMap.pair(a, b), 1);
+			}
+		}
+
+		assertEquals(4950, map.size());
+		assertEquals(2, map.get(LongIntMap.pair(99, 3), 0));
+		assertEquals(0, map.get(LongIntMap.pair(3, 3), 0));
+		int[] total = new int[1];
+		map.forEach((pair, count) -> {
+			assertTrue(LongIntMap.first(pair) < LongIntMap.second(pair));
+			total[0] += count;
+		});
+		assertEquals(9900, total[0]);
+	}
+
+	@Test
+	void packsLargeIdsAndRejectsNegativeKeys() {
+		long pair = LongIntMap.pair(Integer.MAX_VALUE, 7);
+
+		assertEquals(7, LongIntMap.first(pair));
+		assertEquals(Integer.MAX_VALUE, LongIntMap.second(pair));
+		assertThrows(IllegalArgumentException.class, () -> new LongIntMap().addTo(-1, 1));
+	}
+}
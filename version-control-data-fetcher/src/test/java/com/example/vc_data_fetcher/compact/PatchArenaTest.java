@@ -0,0 +1,81 @@
+package com.example.vc_data_fetcher.compact;
+
+import com.example.vc_data_fetcher.dto.FileData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatchArenaTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void spillsToMappedSegmentsPastMemoryLimit() {
+		// No off-heap allowance, so every patch goes to a mapped segment
+		PatchArena arena = new PatchArena(0, tempDir);
+		List<Long> handles = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			handles.add(arena.write("@@ -1 +1 @@\n-old " + i + "\n+new ✓ " + i));
+		}
+
+		assertEquals(0, arena.getOffHeapBytes());
+		assertTrue(arena.getSpilledBytes() > 0);
+		assertEquals("@@ -1 +1 @@\n-old 0\n+new ✓ 0", arena.read(handles.get(0)));
+		assertEquals("@@ -1 +1 @@\n-old 999\n+new ✓ 999", arena.read(handles.get(999)));
+	}
+
+	@Test
+	void streamsPatchesIntoJson() throws Exception {
+		CommitFileTable table = new CommitFileTable(true, new PatchArena(1 << 20, tempDir));
+		FileData source = new FileData("App.java", "src/App.java", "java", "modified",
+				"@@ -1 +1 @@\n-\"a\"\n+\"b\"", 1, 1, 2, false, null);
+		List<FileData> files = table.view(table.encode(List.of(source)));
+
+		assertEquals(source.getCode(), files.get(0).getCode());
+
+		JsonNode json = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(files)).get(0);
+		assertEquals(source.getCode(), json.get("code").asText());
+		assertEquals("src/App.java", json.get("fullPath").asText());
+		assertFalse(json.has("patch"));
+	}
+
+	@Test
+	void releaseReturnsChunksForTheNextArena() {
+		DirectChunkPool pool = new DirectChunkPool(PatchArena.CHUNK_BYTES, 2L * PatchArena.CHUNK_BYTES);
+		PatchArena arena = new PatchArena(1 << 30, tempDir, pool);
+		long handle = arena.write("@@ -1 +1 @@");
+		arena.release();
+
+		assertEquals(PatchArena.CHUNK_BYTES, pool.getPooledBytes());
+		assertThrows(IllegalStateException.class, () -> arena.read(handle));
+
+		PatchArena next = new PatchArena(1 << 30, tempDir, pool);
+		assertEquals("@@ -2 +2 @@", next.read(next.write("@@ -2 +2 @@")));
+		assertEquals(0, pool.getPooledBytes());
+	}
+
+	@Test
+	void releasesSpilledSegmentsWithTheLastReference() {
+		PatchArena arena = new PatchArena(0, tempDir);
+		long handle = arena.write("@@ -1 +1 @@");
+		arena.retain(1);
+
+		try (PatchArenaScope first = new PatchArenaScope(); PatchArenaScope second = new PatchArenaScope()) {
+			first.adopt(arena);
+			second.adopt(arena);
+			first.close();
+			assertEquals("@@ -1 +1 @@", arena.read(handle));
+		}
+
+		assertTrue(arena.isReleased());
+		assertThrows(IllegalStateException.class, () -> arena.read(handle));
+	}
+}
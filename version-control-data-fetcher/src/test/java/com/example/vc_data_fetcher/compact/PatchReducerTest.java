@@ -0,0 +1,79 @@
+package com.example.vc_data_fetcher.compact;
+
+import com.example.vc_data_fetcher.dto.FileData;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatchReducerTest {
+
+	private static final String CODE_PATCH = "@@ -1,2 +1,2 @@\n int a = 1;\n-int b = 2;\n+int b = 3;";
+
+	private final PatchReducer reducer = new PatchReducer(List.of("package-lock.json", "*.min.js", "docs/**"),
+			1024, true, true, true);
+
+	@Test
+	void stubsExcludedPathsByNameOrFullPath() {
+		assertEquals("// Patch omitted (matches package-lock.json)",
+				reduce("web/package-lock.json", FileOperation.MODIFIED, CODE_PATCH));
+		assertEquals("// Patch omitted (matches docs/**)", reduce("docs/guide/intro.md", FileOperation.MODIFIED, CODE_PATCH));
+		assertEquals(CODE_PATCH, reduce("src/docs/Intro.java", FileOperation.MODIFIED, CODE_PATCH));
+		assertEquals(2, reducer.getReducedFiles());
+	}
+
+	@Test
+	void detectsGeneratedFilesByNameMarkerAndLineLength() {
+		assertEquals("// Patch omitted (generated file)", reduce("api/service.pb.go", FileOperation.ADDED, CODE_PATCH));
+		assertEquals("// Patch omitted (generated file)", reduce("src/Client.java", FileOperation.ADDED,
+				"@@ -0,0 +1,2 @@\n+// Code generated by protoc-gen-go. DO NOT EDIT.\n+package api"));
+		assertEquals("// Patch omitted (generated file)", reduce("static/app.js", FileOperation.MODIFIED,
+				"@@ -1 +1 @@\n-x\n+" + "a".repeat(2000)));
+	}
+
+	@Test
+	void stubsPureRenamesAsPlaceholders() {
+		String reduced = reducer.reduce("src/New.java", FileOperation.RENAMED, "src/Old.java", 0, 0,
+				"diff --git a/src/Old.java b/src/New.java\nsimilarity index 100%");
+
+		assertEquals(FileOperation.RENAMED.placeholderPatch("src/New.java", "src/Old.java"), reduced);
+	}
+
+	@Test
+	void dropsOnlyWhitespaceOnlyHunks() {
+		String whitespaceHunk = "@@ -10,2 +10,2 @@\n-\tif (x) {\n+    if (x) {\n }";
+		String patch = CODE_PATCH + "\n" + whitespaceHunk;
+
+		assertEquals(CODE_PATCH, reduce("src/A.java", FileOperation.MODIFIED, patch));
+		assertEquals("// Patch omitted (whitespace-only changes)", reduce("src/B.java", FileOperation.MODIFIED, whitespaceHunk));
+		assertEquals(CODE_PATCH, reduce("src/C.java", FileOperation.MODIFIED, CODE_PATCH));
+	}
+
+	@Test
+	void stubsOversizedPatchesAndReportsSavedBytes() {
+		String patch = "@@ -1,40 +1,40 @@\n" + "+line of code\n".repeat(100);
+
+		String reduced = reduce("src/Big.java", FileOperation.MODIFIED, patch);
+
+		assertEquals("// Patch omitted (" + patch.length() + " bytes, limit 1024)", reduced);
+		assertEquals(patch.length() - reduced.length(), reducer.getSavedBytes());
+	}
+
+	@Test
+	void tableKeepsStatsAndStoresReducedPatch() {
+		CommitFileTable table = new CommitFileTable(true, null, reducer);
+
+		FileData file = table.view(table.encode(List.of(new FileData("package-lock.json", "package-lock.json", "json",
+				"modified", CODE_PATCH, 120, 80, 200, false, null)))).get(0);
+
+		assertEquals("// Patch omitted (matches package-lock.json)", file.getCode());
+		assertEquals(120, file.getAdditions());
+		assertEquals(80, file.getDeletions());
+		assertSame(reducer, table.getReducer());
+	}
+
+	private String reduce(String path, FileOperation operation, String patch) {
+		return reducer.reduce(path, operation, null, 1, 1, patch);
+	}
+}
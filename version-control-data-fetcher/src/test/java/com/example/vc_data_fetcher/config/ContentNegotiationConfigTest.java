@@ -0,0 +1,70 @@
+package com.example.vc_data_fetcher.config;
+
+import com.example.vc_data_fetcher.compact.CommitFileTable;
+import com.example.vc_data_fetcher.compact.PatchArena;
+import com.example.vc_data_fetcher.dto.FileData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentNegotiationConfigTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void registersBinaryFormatsAfterJson() {
+		List<HttpMessageConverter<?>> converters = configuredConverters();
+
+		assertInstanceOf(MappingJackson2HttpMessageConverter.class, converters.get(0));
+		assertTrue(converters.get(1).getSupportedMediaTypes().contains(MediaType.valueOf("application/x-jackson-smile")));
+		assertTrue(converters.get(2).getSupportedMediaTypes().contains(MediaType.APPLICATION_CBOR));
+	}
+
+	@Test
+	void binaryFormatsCarryArenaPatches() throws Exception {
+		CommitFileTable table = new CommitFileTable(true, new PatchArena(1 << 20, tempDir));
+		List<FileData> files = table.view(table.encode(List.of(new FileData("App.java", "src/App.java", "java",
+				"modified", "@@ -1 +1 @@\n-a\n+b", 1, 1, 2, false, null))));
+
+		for (HttpMessageConverter<?> converter : configuredConverters().subList(1, 3)) {
+			ObjectMapper mapper = objectMapper(converter);
+			JsonNode file = mapper.readTree(mapper.writeValueAsBytes(files)).get(0);
+			assertEquals("@@ -1 +1 @@\n-a\n+b", file.get("code").asText());
+			assertEquals("src/App.java", file.get("fullPath").asText());
+		}
+	}
+
+	private static List<HttpMessageConverter<?>> configuredConverters() {
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("builder", new Jackson2ObjectMapperBuilder());
+		List<HttpMessageConverter<?>> converters = new ArrayList<>();
+		converters.add(new MappingJackson2HttpMessageConverter());
+		converters.add(new MappingJackson2SmileHttpMessageConverter());
+		new ContentNegotiationConfig().binaryFormatsConfigurer(beans.getBeanProvider(Jackson2ObjectMapperBuilder.class))
+				.extendMessageConverters(converters);
+		assertEquals(3, converters.size());
+		return converters;
+	}
+
+	private static ObjectMapper objectMapper(HttpMessageConverter<?> converter) {
+		if (converter instanceof MappingJackson2SmileHttpMessageConverter smile) {
+			return smile.getObjectMapper();
+		}
+		return ((MappingJackson2CborHttpMessageConverter) converter).getObjectMapper();
+	}
+}
@@ -0,0 +1,57 @@
+package com.example.vc_data_fetcher.config;
+
+import com.example.vc_data_fetcher.compact.PatchArena;
+import com.example.vc_data_fetcher.compact.PatchArenaScope;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatchArenaScopeConfigTest {
+
+	@TempDir
+	Path tempDir;
+
+	private final Filter filter = new PatchArenaScopeConfig().patchArenaScopeFilter();
+
+	@Test
+	void releasesArenasWhenTheResponseIsWritten() throws Exception {
+		AtomicReference<PatchArena> created = new AtomicReference<>();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/v1.0.0/repo-data"), new MockHttpServletResponse(),
+				(request, response) -> created.set(adoptedArena()));
+
+		assertTrue(created.get().isReleased());
+		assertNull(PatchArenaScope.current());
+	}
+
+	@Test
+	void keepsArenasOfAStreamedResponseUntilItCompletes() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1.0.0/repo-export");
+		request.setAsyncSupported(true);
+		AtomicReference<PatchArena> created = new AtomicReference<>();
+
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+			created.set(adoptedArena());
+			req.startAsync();
+		});
+
+		assertFalse(created.get().isReleased());
+		((MockAsyncContext) request.getAsyncContext()).complete();
+		assertTrue(created.get().isReleased());
+	}
+
+	private PatchArena adoptedArena() {
+		PatchArena arena = new PatchArena(1 << 20, tempDir);
+		arena.write("@@ -1 +1 @@");
+		PatchArenaScope.current().adopt(arena);
+		return arena;
+	}
+}
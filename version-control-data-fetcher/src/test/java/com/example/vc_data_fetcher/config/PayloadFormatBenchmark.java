@@ -0,0 +1,112 @@
+package com.example.vc_data_fetcher.config;
+
+import com.example.vc_data_fetcher.compact.CommitFileTable;
+import com.example.vc_data_fetcher.compact.PatchArena;
+import com.example.vc_data_fetcher.dto.Commit;
+import com.example.vc_data_fetcher.dto.ContributorWithCommits;
+import com.example.vc_data_fetcher.dto.FileData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares bytes on the wire and serialization time of a synthetic repoData payload
+ * in JSON, Smile and CBOR, each with and without gzip. Not picked up by the default
+ * test run; run it with {@code mvn test -Dtest=PayloadFormatBenchmark}.
+ */
+class PayloadFormatBenchmark {
+
+	private static final int CONTRIBUTORS = 20;
+	private static final int COMMITS_PER_CONTRIBUTOR = 25;
+	private static final int FILES_PER_COMMIT = 8;
+	private static final int ITERATIONS = 20;
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void compareFormats() throws IOException {
+		List<ContributorWithCommits> payload = payload();
+		Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+		mappers.put("json", new ObjectMapper());
+		mappers.put("smile", new ObjectMapper(new SmileFactory()));
+		mappers.put("cbor", new ObjectMapper(new CBORFactory()));
+
+		long jsonBytes = 0;
+		System.out.printf("%-12s %12s %12s%n", "format", "bytes", "ms/op");
+		for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+			for (boolean gzip : new boolean[]{false, true}) {
+				long bytes = 0;
+				for (int i = 0; i < ITERATIONS / 4; i++) {
+					bytes = serialize(entry.getValue(), payload, gzip);
+				}
+				long start = System.nanoTime();
+				for (int i = 0; i < ITERATIONS; i++) {
+					bytes = serialize(entry.getValue(), payload, gzip);
+				}
+				double millis = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+				System.out.printf("%-12s %12d %12.2f%n", entry.getKey() + (gzip ? "+gzip" : ""), bytes, millis);
+
+				if (entry.getKey().equals("json") && !gzip) {
+					jsonBytes = bytes;
+				} else if (gzip) {
+					assertTrue(bytes < jsonBytes, entry.getKey() + "+gzip should be smaller than plain JSON");
+				}
+			}
+		}
+	}
+
+	private static long serialize(ObjectMapper mapper, Object payload, boolean gzip) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+		try (OutputStream out = gzip ? new GZIPOutputStream(bytes, 8192) : bytes) {
+			mapper.writeValue(out, payload);
+		}
+		return bytes.size();
+	}
+
+	private List<ContributorWithCommits> payload() {
+		CommitFileTable table = new CommitFileTable(true, new PatchArena(64L << 20, tempDir));
+		List<ContributorWithCommits> contributors = new ArrayList<>();
+		for (int c = 0; c < CONTRIBUTORS; c++) {
+			List<Commit> commits = new ArrayList<>();
+			for (int i = 0; i < COMMITS_PER_CONTRIBUTOR; i++) {
+				List<FileData> files = new ArrayList<>();
+				for (int f = 0; f < FILES_PER_COMMIT; f++) {
+					String path = "src/main/java/module" + (f % 5) + "/Type" + ((c * 7 + i + f) % 40) + ".java";
+					files.add(new FileData(path.substring(path.lastIndexOf('/') + 1), path, "java", "modified",
+							patch(c, i, f), 12, 4, 16, false, null));
+				}
+				commits.add(new Commit("Change " + c + "-" + i, String.format("%040x", (long) c * 1000 + i),
+						"2024-01-01T00:00:00Z", "author" + c, 12 * FILES_PER_COMMIT, 4 * FILES_PER_COMMIT,
+						FILES_PER_COMMIT, table.view(table.encode(files)), null));
+			}
+			contributors.add(new ContributorWithCommits("author" + c, "https://github.com/author" + c,
+					commits.size(), commits));
+		}
+		return contributors;
+	}
+
+	private static String patch(int contributor, int commit, int file) {
+		StringBuilder patch = new StringBuilder("@@ -10,8 +10,16 @@ public class Type").append(file).append(" {\n");
+		for (int line = 0; line < 16; line++) {
+			char marker = line % 4 == 0 ? '-' : line % 4 == 1 ? ' ' : '+';
+			patch.append(marker).append("\t\tint value").append(line).append(" = compute(")
+					.append(contributor).append(", ").append(commit + line).append(");\n");
+		}
+		return patch.toString();
+	}
+}
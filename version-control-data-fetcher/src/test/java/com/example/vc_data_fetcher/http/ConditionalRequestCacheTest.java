@@ -0,0 +1,82 @@
+package com.example.vc_data_fetcher.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalRequestCacheTest {
+
+	private final ConditionalRequestCache cache = new ConditionalRequestCache(1024, 16, new SimpleMeterRegistry());
+
+	@Test
+	void revalidatesSmallResponses() throws IOException {
+		List<MockClientHttpRequest> sent = new ArrayList<>();
+
+		assertEquals("small", body(get("https://api.github.com/repos/o/r", "small", true, sent)));
+		ClientHttpResponse revalidated = cache.intercept(request("https://api.github.com/repos/o/r"), new byte[0],
+				(request, body) -> {
+					sent.add((MockClientHttpRequest) request);
+					return new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+				});
+
+		assertEquals("\"v1\"", sent.get(1).getHeaders().getIfNoneMatch().get(0));
+		assertEquals("small", body(revalidated));
+		assertEquals(5, cache.sizeInBytes());
+	}
+
+	@Test
+	void streamsLargeResponsesWithoutCaching() throws IOException {
+		String large = "x".repeat(100);
+
+		assertEquals(large, body(get("https://api.github.com/repos/o/r/contributors", large, true, new ArrayList<>())));
+		assertEquals(large, body(get("https://api.github.com/repos/o/r/branches", large, false, new ArrayList<>())));
+		assertEquals(0, cache.sizeInBytes());
+	}
+
+	@Test
+	void revalidatesCommitDetails() throws IOException {
+		List<MockClientHttpRequest> sent = new ArrayList<>();
+		String url = "https://api.github.com/repos/o/r/commits/" + "a".repeat(40);
+
+		get(url, "files", true, sent);
+		ClientHttpResponse revalidated = cache.intercept(request(url), new byte[0], (request, body) -> {
+			sent.add((MockClientHttpRequest) request);
+			return new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+		});
+
+		assertEquals("\"v1\"", sent.get(1).getHeaders().getIfNoneMatch().get(0));
+		assertEquals("files", body(revalidated));
+	}
+
+	private ClientHttpResponse get(String url, String body, boolean contentLength, List<MockClientHttpRequest> sent) throws IOException {
+		return cache.intercept(request(url), new byte[0], (request, requestBody) -> {
+			sent.add((MockClientHttpRequest) request);
+			MockClientHttpResponse response = new MockClientHttpResponse(new ByteArrayInputStream(body.getBytes()), HttpStatus.OK);
+			response.getHeaders().setETag("\"v1\"");
+			if (contentLength) {
+				response.getHeaders().setContentLength(body.length());
+			}
+			return response;
+		});
+	}
+
+	private static MockClientHttpRequest request(String url) {
+		return new MockClientHttpRequest(HttpMethod.GET, URI.create(url));
+	}
+
+	private static String body(ClientHttpResponse response) throws IOException {
+		return new String(response.getBody().readAllBytes());
+	}
+}
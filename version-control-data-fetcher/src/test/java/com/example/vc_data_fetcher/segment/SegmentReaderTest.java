@@ -0,0 +1,99 @@
+package com.example.vc_data_fetcher.segment;
+
+import com.example.vc_data_fetcher.compact.CommitFileTable;
+import com.example.vc_data_fetcher.compact.PatchArena;
+import com.example.vc_data_fetcher.dto.Commit;
+import com.example.vc_data_fetcher.dto.ContributorWithCommits;
+import com.example.vc_data_fetcher.dto.FileData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentReaderTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void roundTripsContributorsCommitsAndFiles() throws Exception {
+		List<FileData> files = List.of(
+				new FileData("App.java", "src/App.java", "java", "modified", "@@ -1 +1 @@\n-a\n+b ✓", 1, 1, 2, false, null),
+				new FileData("logo.png", "img/logo.png", "png", "renamed", null, 0, 0, 0, true, "old/logo.png"));
+		List<ContributorWithCommits> contributors = List.of(
+				new ContributorWithCommits("alice", "https://github.com/alice", 2, List.of(
+						new Commit("First", "a1", "2024-01-01T00:00:00Z", "alice", 1, 1, 2, files, null),
+						new Commit("Second", "a2", "2024-01-02T00:00:00Z", "alice", 3, 0, 1, List.of(), null))),
+				new ContributorWithCommits("bob", null, 1, List.of(
+						new Commit("Stats only", "b1", "2024-01-03T00:00:00Z", "bob", 5, 2, 4, null, null))));
+
+		Path file = tempDir.resolve("repo.seg");
+		SegmentWriter.write(contributors, file);
+		SegmentReader reader = SegmentReader.open(file);
+
+		assertEquals(2, reader.getContributorCount());
+		assertEquals(3, reader.getCommitCount());
+		assertEquals(2, reader.getFileCount());
+
+		SegmentReader.SegmentContributor alice = reader.contributors().get(0);
+		assertEquals("alice", alice.getAuthorName());
+		assertEquals("https://github.com/alice", alice.getGithubUrl());
+		assertEquals(2, alice.getContributions());
+		assertEquals(List.of("a1", "a2"), alice.getCommits().stream().map(SegmentReader.SegmentCommit::getSha).toList());
+		assertNull(reader.contributors().get(1).getGithubUrl());
+
+		SegmentReader.SegmentCommit first = reader.commits().get(0);
+		assertEquals("First", first.getMsg());
+		assertEquals("2024-01-01T00:00:00Z", first.getDate());
+		assertEquals(0, first.getContributorIndex());
+		assertEquals(2, first.getChangedFiles());
+
+		SegmentReader.SegmentFile patched = first.getFiles().get(0);
+		assertEquals("src/App.java", patched.getFullPath());
+		assertEquals("modified", patched.getOperation());
+		assertEquals("@@ -1 +1 @@\n-a\n+b ✓", patched.getCode());
+		assertFalse(patched.isBinaryFile());
+
+		SegmentReader.SegmentFile renamed = first.getFiles().get(1);
+		assertNull(renamed.getCode());
+		assertTrue(renamed.isBinaryFile());
+		assertEquals("old/logo.png", renamed.getPreviousFilename());
+
+		assertTrue(reader.commits().get(1).getFiles().isEmpty());
+		SegmentReader.SegmentCommit statsOnly = reader.commits().get(2);
+		assertNull(statsOnly.getFiles());
+		assertEquals(1, statsOnly.getContributorIndex());
+		assertEquals(5, statsOnly.getAdditions());
+	}
+
+	@Test
+	void copiesArenaPatchesWithoutChangingThem() throws Exception {
+		CommitFileTable table = new CommitFileTable(true, new PatchArena(1 << 20, tempDir.resolve("arena")));
+		String patch = "@@ -1,2 +1,2 @@\n-old line\n+new line\n";
+		List<FileData> files = table.view(table.encode(List.of(
+				new FileData("A.java", "src/A.java", "java", "modified", patch, 1, 1, 2, false, null))));
+		List<ContributorWithCommits> contributors = List.of(new ContributorWithCommits("alice", null, 1,
+				List.of(new Commit("Change", "a1", "2024-01-01T00:00:00Z", "alice", 1, 1, 1, files, null))));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long bytes = SegmentWriter.write(contributors, out);
+		assertEquals(out.size(), bytes);
+
+		Path file = Files.write(tempDir.resolve("streamed.seg"), out.toByteArray());
+		SegmentReader.SegmentFile read = SegmentReader.open(file).commits().get(0).getFiles().get(0);
+		assertEquals(patch, read.getCode());
+		assertEquals(patch.length(), read.getPatchLength());
+	}
+
+	@Test
+	void rejectsFilesThatAreNotSegments() throws Exception {
+		Path file = Files.write(tempDir.resolve("data.json"), new byte[256]);
+
+		assertThrows(IllegalArgumentException.class, () -> SegmentReader.open(file));
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.compact.CommitFileTable;
+import com.example.vc_data_fetcher.dto.CoChangeGraph;
+import com.example.vc_data_fetcher.dto.Commit;
+import com.example.vc_data_fetcher.dto.ContributorWithCommits;
+import com.example.vc_data_fetcher.dto.FileData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Time and heap of {@link CoChangeAnalyzer} on a monorepo-sized history: 100k commits of 20 files each,
+ * stored in a {@link CommitFileTable} as fetches do. Not picked up by the default test run; run it with
+ * {@code mvn test -Dtest=CoChangeAnalyzerBenchmark}.
+ */
+class CoChangeAnalyzerBenchmark {
+
+	private static final int COMMITS = 100_000;
+	private static final int FILES_PER_COMMIT = 20;
+	private static final int MODULES = 500;
+	private static final int FILES_PER_MODULE = 40;
+	private static final int CONTRIBUTORS = 300;
+
+	@Test
+	void analyzeLargeHistory() {
+		List<ContributorWithCommits> contributors = history();
+		CoChangeAnalyzer analyzer = new CoChangeAnalyzer(50, 2, 200, 1_000_000);
+		Runtime runtime = Runtime.getRuntime();
+		System.gc();
+		long before = runtime.totalMemory() - runtime.freeMemory();
+
+		long start = System.nanoTime();
+		CoChangeGraph graph = analyzer.analyze(contributors, 20, 5);
+		double millis = (System.nanoTime() - start) / 1e6;
+		long after = runtime.totalMemory() - runtime.freeMemory();
+
+		System.out.printf("%d commits x %d files: %.0f ms, %d coupled pairs, heap growth %.1f MB (max heap %.0f MB)%n",
+				COMMITS, FILES_PER_COMMIT, millis, graph.getFileCouplings(), (after - before) / 1e6, runtime.maxMemory() / 1e6);
+		assertEquals(COMMITS, graph.getCommitsAnalyzed());
+		assertEquals(20, graph.getFiles().size());
+	}
+
+	/**
+	 * Commits mostly stay inside one module, with an occasional file from another, like a real monorepo
+	 */
+	private static List<ContributorWithCommits> history() {
+		Random random = new Random(42);
+		CommitFileTable table = new CommitFileTable(false);
+		List<ContributorWithCommits> contributors = new ArrayList<>();
+		for (int c = 0; c < CONTRIBUTORS; c++) {
+			contributors.add(new ContributorWithCommits("dev" + c, "https://github.com/dev" + c, 0, new ArrayList<>()));
+		}
+		for (int i = 0; i < COMMITS; i++) {
+			int module = random.nextInt(MODULES);
+			List<FileData> files = new ArrayList<>(FILES_PER_COMMIT);
+			for (int f = 0; f < FILES_PER_COMMIT; f++) {
+				int fileModule = random.nextInt(10) == 0 ? random.nextInt(MODULES) : module;
+				String path = "module" + fileModule + "/src/File" + random.nextInt(FILES_PER_MODULE) + ".java";
+				files.add(new FileData(null, path, "java", "modified", "", 3, 1, 4, false, null));
+			}
+			Commit commit = new Commit();
+			commit.setChangedFiles(files.size());
+			commit.setFiles(table.view(table.encode(files)));
+			contributors.get(random.nextInt(CONTRIBUTORS)).getCommits().add(commit);
+		}
+		return contributors;
+	}
+}
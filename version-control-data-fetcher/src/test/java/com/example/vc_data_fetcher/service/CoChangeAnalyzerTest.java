@@ -0,0 +1,120 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.dto.CoChangeGraph;
+import com.example.vc_data_fetcher.dto.Commit;
+import com.example.vc_data_fetcher.dto.ContributorCoupling;
+import com.example.vc_data_fetcher.dto.ContributorWithCommits;
+import com.example.vc_data_fetcher.dto.FileCoupling;
+import com.example.vc_data_fetcher.dto.FileData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoChangeAnalyzerTest {
+
+	private final CoChangeAnalyzer analyzer = new CoChangeAnalyzer(3, 2, 200, 1_000_000);
+
+	@Test
+	void ranksFilesChangedTogether() {
+		ContributorWithCommits alice = contributor("alice",
+				commit("src/A.java", "src/ATest.java"),
+				commit("src/A.java", "src/ATest.java", "src/B.java"),
+				commit("src/A.java", "src/A.java", "src/ATest.java"),
+				commit("src/B.java", "src/A.java"));
+		ContributorWithCommits bob = contributor("bob",
+				commit("src/B.java", "src/C.java"));
+
+		CoChangeGraph graph = analyzer.analyze(List.of(alice, bob), 10, 5);
+
+		assertEquals(5, graph.getCommitsAnalyzed());
+		// A-ATest (3 commits) and A-B (2) reach the minimum; B-ATest and B-C do not
+		assertEquals(2, graph.getFileCouplings());
+		FileCoupling first = graph.getFiles().get(0);
+		assertEquals("src/A.java", first.getPath());
+		assertEquals(4, first.getCommits());
+		assertEquals(List.of("src/ATest.java", "src/B.java"),
+				first.getCouplings().stream().map(FileCoupling.CoupledFile::getPath).toList());
+		assertEquals(0.75, first.getCouplings().get(0).getConfidence(), 1e-9);
+		assertEquals("src/ATest.java", graph.getFiles().get(1).getPath());
+		assertEquals(1.0, graph.getFiles().get(1).getCouplings().get(0).getConfidence(), 1e-9);
+		assertEquals(3, graph.getFiles().size());
+	}
+
+	@Test
+	void skipsLargeCommitsButKeepsTheirFilesForContributors() {
+		ContributorWithCommits alice = contributor("alice",
+				commit("a", "b", "c", "d"), commit("a", "b", "c", "d"));
+		ContributorWithCommits bob = contributor("bob", commit("c"), commit("d"));
+		ContributorWithCommits carol = contributor("carol", commit("d"));
+
+		CoChangeGraph graph = analyzer.analyze(List.of(alice, bob, carol), 10, 5);
+
+		assertEquals(2, graph.getCommitsSkipped());
+		assertEquals(0, graph.getFileCouplings());
+		assertTrue(graph.getFiles().isEmpty());
+		ContributorCoupling first = graph.getContributors().get(0);
+		assertEquals("alice", first.getAuthorName());
+		assertEquals(4, first.getFiles());
+		assertEquals("bob", first.getCouplings().get(0).getAuthorName());
+		assertEquals(2, first.getCouplings().get(0).getSharedFiles());
+		assertEquals("carol", first.getCouplings().get(1).getAuthorName());
+	}
+
+	@Test
+	void keepsOnlyTopCouplingsWithTiesByName() {
+		List<Commit> commits = new ArrayList<>();
+		for (String other : List.of("d", "c", "b", "e")) {
+			commits.add(commit("a", other));
+			commits.add(commit("a", other));
+		}
+		ContributorWithCommits alice = new ContributorWithCommits("alice", "https://github.com/alice", commits.size(), commits);
+
+		CoChangeGraph graph = analyzer.analyze(List.of(alice), 1, 2);
+
+		assertEquals(1, graph.getFiles().size());
+		assertEquals(List.of("b", "c"),
+				graph.getFiles().get(0).getCouplings().stream().map(FileCoupling.CoupledFile::getPath).toList());
+		assertThrows(IllegalArgumentException.class, () -> analyzer.analyze(List.of(alice), 1, 0));
+	}
+
+	@Test
+	void countsExactlyAcrossPasses() {
+		List<Commit> commits = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			commits.add(commit("f" + i % 7, "f" + i % 5, "f" + i % 3));
+		}
+		List<ContributorWithCommits> history = List.of(
+				new ContributorWithCommits("alice", "https://github.com/alice", commits.size(), commits));
+
+		CoChangeGraph single = analyzer.analyze(history, 20, 3);
+		CoChangeGraph split = new CoChangeAnalyzer(3, 2, 200, 1).analyze(history, 20, 3);
+
+		assertEquals(single.getFileCouplings(), split.getFileCouplings());
+		assertEquals(describe(single), describe(split));
+	}
+
+	private static List<String> describe(CoChangeGraph graph) {
+		return graph.getFiles().stream()
+				.map(file -> file.getPath() + file.getCouplings().stream()
+						.map(coupled -> " " + coupled.getPath() + "=" + coupled.getSharedCommits()).toList())
+				.toList();
+	}
+
+	private static ContributorWithCommits contributor(String name, Commit... commits) {
+		return new ContributorWithCommits(name, "https://github.com/" + name, commits.length, new ArrayList<>(List.of(commits)));
+	}
+
+	static Commit commit(String... paths) {
+		List<FileData> files = new ArrayList<>();
+		for (String path : paths) {
+			files.add(new FileData(path.substring(path.lastIndexOf('/') + 1), path, "", "modified", "", 1, 1, 2, false, null));
+		}
+		Commit commit = new Commit();
+		commit.setChangedFiles(files.size());
+		commit.setFiles(files);
+		return commit;
+	}
+}
@@ -0,0 +1,55 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.dto.FileData;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommitFilesDecoderTest {
+
+	private static List<FileData> decode(String json) throws Exception {
+		return CommitFilesDecoder.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	void mapsFilesAndSkipsOtherFields() throws Exception {
+		List<FileData> files = decode("""
+				{
+				  "sha": "abc",
+				  "commit": {"message": "m", "tree": {"sha": "t"}},
+				  "stats": {"total": 3},
+				  "files": [
+				    {"filename": "src/Main.java", "status": "modified", "additions": 2, "deletions": 1,
+				     "changes": 3, "blob_url": "x", "patch": "@@ -1 +1,2 @@"},
+				    {"filename": "docs/new.md", "status": "renamed", "previous_filename": "docs/old.md",
+				     "additions": 0, "deletions": 0}
+				  ],
+				  "parents": [{"sha": "p"}]
+				}
+				""");
+
+		assertEquals(2, files.size());
+		FileData modified = files.get(0);
+		assertEquals("Main.java", modified.getFileName());
+		assertEquals("src/Main.java", modified.getFullPath());
+		assertEquals("java", modified.getExtension());
+		assertEquals("modified", modified.getOperation());
+		assertEquals("@@ -1 +1,2 @@", modified.getCode());
+		assertEquals(3, modified.getChanges());
+
+		FileData renamed = files.get(1);
+		assertEquals("docs/old.md", renamed.getPreviousFilename());
+		assertEquals("// File renamed from: docs/old.md to: docs/new.md", renamed.getCode());
+		assertEquals(0, renamed.getChanges());
+	}
+
+	@Test
+	void handlesMissingFilesArray() throws Exception {
+		assertTrue(decode("{\"sha\": \"abc\", \"files\": null}").isEmpty());
+		assertTrue(decode("{\"sha\": \"abc\"}").isEmpty());
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.vc_data_fetcher.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommitFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void skipsMergesAndBotsAndCountsThem() {
+		CommitFilter filter = new CommitFilter(true, List.of(".*\\[bot\\]", "renovate.*"), List.of(), List.of(), meterRegistry);
+
+		CommitFilter.Result result = filter.apply(List.of(
+				commit("a1", "alice", 1),
+				commit("m1", "alice", 2),
+				commit("b1", "dependabot[bot]", 1),
+				commit("b2", "Renovate-Bot", 1),
+				commit("c1", "carol", 0)));
+
+		assertEquals(List.of("a1", "c1"), shas(result));
+		assertEquals(1, result.getMerges());
+		assertEquals(2, result.getBots());
+		assertEquals(3, result.getSkipped());
+		assertEquals(2.0, meterRegistry.get("github.fetch.commits.skipped").tag("reason", "bot").counter().count());
+	}
+
+	@Test
+	void keepsMergesWhenConfigured() {
+		CommitFilter filter = new CommitFilter(false, List.of(), List.of(), List.of(), meterRegistry);
+
+		assertEquals(0, filter.apply(List.of(commit("m1", "alice", 2))).getSkipped());
+	}
+
+	@Test
+	void appliesAllowAndDenyListsIgnoringCase() {
+		CommitFilter allow = new CommitFilter(true, List.of(), List.of(" Alice ", "bob"), List.of(), meterRegistry);
+		CommitFilter deny = new CommitFilter(true, List.of(), List.of(), List.of("BOB"), meterRegistry);
+		List<CommitHistoryIndex.CommitRef> commits = List.of(
+				commit("a1", "alice", 1), commit("b1", "bob", 1), commit("c1", "carol", 1));
+
+		assertEquals(List.of("a1", "b1"), shas(allow.apply(commits)));
+		CommitFilter.Result denied = deny.apply(commits);
+		assertEquals(List.of("a1", "c1"), shas(denied));
+		assertEquals(1, denied.getAuthors());
+	}
+
+	@Test
+	void rebuildsIndexOnlyWhenSomethingWasSkipped() {
+		CommitFilter filter = new CommitFilter(true, List.of(), List.of(), List.of(), meterRegistry);
+		CommitHistoryIndex clean = CommitHistoryIndex.of(List.of(commit("a1", "alice", 1)));
+		CommitHistoryIndex withMerge = CommitHistoryIndex.of(List.of(commit("a1", "alice", 1), commit("m1", "alice", 2)));
+
+		assertSame(clean, filter.apply(clean).getIndex());
+		CommitHistoryIndex filtered = filter.apply(withMerge).getIndex();
+		assertEquals(1, filtered.getTotalCommits());
+		assertEquals(1, filtered.get("alice").getContributions());
+	}
+
+	private static CommitHistoryIndex.CommitRef commit(String sha, String login, int parents) {
+		return new CommitHistoryIndex.CommitRef(sha, "msg", "2024-01-01T00:00:00Z", login,
+				"https://github.com/" + login, 1, 0, 1, parents);
+	}
+
+	private static List<String> shas(CommitFilter.Result result) {
+		return result.getCommits().stream().map(CommitHistoryIndex.CommitRef::getSha).toList();
+	}
+}
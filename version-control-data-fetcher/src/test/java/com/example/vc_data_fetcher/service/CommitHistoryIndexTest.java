@@ -0,0 +1,54 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.dto.Connection;
+import com.example.vc_data_fetcher.dto.Edge;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommitHistoryIndexTest {
+
+	private final CommitHistoryIndex index = CommitHistoryIndex.of(List.of(
+			commit("c3", "alice"), commit("c2", "bob"), commit("c1", "alice")));
+
+	@Test
+	void recordsPositionsAsCommitsAreAdded() {
+		assertEquals(2, index.indexOfCommit("c1"));
+		assertEquals(-1, index.indexOfCommit("c0"));
+		assertEquals(1, index.indexOfAuthor("bob"));
+		assertEquals(1, index.get("alice").indexOf("c1"));
+		assertEquals(-1, index.get("alice").indexOf("c2"));
+	}
+
+	@Test
+	void pagesFromTheCursorOfThePreviousPage() {
+		Connection<String> firstPage = page(null);
+		assertEquals(List.of("c3", "c2"), nodes(firstPage));
+		assertTrue(firstPage.getPageInfo().isHasNextPage());
+
+		Connection<String> secondPage = page(firstPage.getPageInfo().getEndCursor());
+		assertEquals(List.of("c1"), nodes(secondPage));
+		assertFalse(secondPage.getPageInfo().isHasNextPage());
+
+		// A cursor from another author's commits is not one of bob's
+		assertThrows(IllegalArgumentException.class, () -> Connection.page(index.get("bob").getCommits(), 2,
+				firstPage.getEdges().get(0).getCursor(), CommitHistoryIndex.CommitRef::getSha,
+				index.get("bob")::indexOf, List::of));
+	}
+
+	private Connection<String> page(String after) {
+		return Connection.page(index.getCommits(), 2, after, CommitHistoryIndex.CommitRef::getSha, index::indexOfCommit,
+				page -> page.stream().map(CommitHistoryIndex.CommitRef::getSha).toList());
+	}
+
+	private static List<String> nodes(Connection<String> connection) {
+		return connection.getEdges().stream().map(Edge::getNode).toList();
+	}
+
+	private static CommitHistoryIndex.CommitRef commit(String sha, String login) {
+		return new CommitHistoryIndex.CommitRef(sha, "msg", "2024-01-01T00:00:00Z", login,
+				"https://github.com/" + login, 1, 0, 1, 1);
+	}
+}
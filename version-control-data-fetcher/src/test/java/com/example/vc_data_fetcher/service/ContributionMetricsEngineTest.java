@@ -0,0 +1,101 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.dto.Commit;
+import com.example.vc_data_fetcher.dto.ContributorMetrics;
+import com.example.vc_data_fetcher.dto.ContributorWithCommits;
+import com.example.vc_data_fetcher.dto.DirectoryOwnership;
+import com.example.vc_data_fetcher.dto.FileData;
+import com.example.vc_data_fetcher.dto.FileHotspot;
+import com.example.vc_data_fetcher.dto.RepoMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContributionMetricsEngineTest {
+
+	private final ContributionMetricsEngine engine = new ContributionMetricsEngine(21);
+
+	@Test
+	void computesChurnModulesAndRework() {
+		// Newest first, as histories are fetched
+		ContributorWithCommits alice = contributor("alice",
+				commit("2024-01-10T00:00:00Z", file("src/app/App.java", 4, 2)),
+				commit("2024-01-01T00:00:00Z", file("src/app/App.java", 10, 0), file("README.md", 1, 0)));
+		ContributorWithCommits bob = contributor("bob",
+				commit("2024-03-01T00:00:00Z", file("src/app/App.java", 3, 3)),
+				commit("2024-01-01T00:00:00Z", file("src/app/App.java", 1, 1), file("docs/guide.md", 5, 0)));
+
+		RepoMetrics metrics = engine.compute(List.of(bob, alice), 10);
+
+		assertEquals(4, metrics.getTotalCommits());
+		assertEquals(30, metrics.getTotalChurn());
+		ContributorMetrics first = metrics.getContributors().get(0);
+		assertEquals("alice", first.getAuthorName());
+		assertEquals(17, first.getChurn());
+		assertEquals(2, first.getFilesTouched());
+		assertEquals(2, first.getModulesTouched());
+		assertEquals(6.0 / 17, first.getReworkRate(), 1e-9);
+		// Bob's second change to App.java is outside the 21 day window
+		assertEquals(0.0, metrics.getContributors().get(1).getReworkRate());
+	}
+
+	@Test
+	void ranksOwnershipAndHotspotsDeterministically() {
+		ContributorWithCommits alice = contributor("alice",
+				commit("2024-01-02T00:00:00Z", file("lib/a.txt", 6, 0)),
+				commit("2024-01-01T00:00:00Z", file("lib/b.txt", 2, 0)));
+		ContributorWithCommits bob = contributor("bob",
+				commit("2024-01-03T00:00:00Z", file("lib/a.txt", 2, 0), file("top.txt", 1, 1)));
+
+		RepoMetrics metrics = engine.compute(List.of(alice, bob), 1);
+
+		assertEquals(1, metrics.getDirectories().size());
+		DirectoryOwnership lib = metrics.getDirectories().get(0);
+		assertEquals("lib", lib.getDirectory());
+		assertEquals(10, lib.getChurn());
+		assertEquals("alice", lib.getOwners().get(0).getAuthorName());
+		assertEquals(0.8, lib.getOwners().get(0).getShare(), 1e-9);
+		assertEquals(0.2, lib.getOwners().get(1).getShare(), 1e-9);
+
+		FileHotspot hotspot = metrics.getHotspots().get(0);
+		assertEquals("lib/a.txt", hotspot.getPath());
+		assertEquals(2, hotspot.getCommits());
+		assertEquals(8, hotspot.getChurn());
+		assertEquals(2, hotspot.getAuthors());
+	}
+
+	@Test
+	void mapsRootFilesToTheRootDirectory() {
+		assertEquals(".", ContributionMetricsEngine.directory("pom.xml"));
+		assertEquals("src/main", ContributionMetricsEngine.directory("src/main/App.java"));
+		assertEquals(".", ContributionMetricsEngine.module("pom.xml"));
+		assertEquals("src", ContributionMetricsEngine.module("src/main/App.java"));
+	}
+
+	private static ContributorWithCommits contributor(String name, Commit... commits) {
+		for (Commit commit : commits) {
+			commit.setAuthorName(name);
+		}
+		return new ContributorWithCommits(name, "https://github.com/" + name, commits.length, new ArrayList<>(List.of(commits)));
+	}
+
+	private static Commit commit(String date, FileData... files) {
+		Commit commit = new Commit();
+		commit.setDate(date);
+		for (FileData file : files) {
+			commit.setAdditions(commit.getAdditions() + file.getAdditions());
+			commit.setDeletions(commit.getDeletions() + file.getDeletions());
+		}
+		commit.setChangedFiles(files.length);
+		commit.setFiles(List.of(files));
+		return commit;
+	}
+
+	private static FileData file(String path, int additions, int deletions) {
+		return new FileData(path.substring(path.lastIndexOf('/') + 1), path, "", "modified", "",
+				additions, deletions, additions + deletions, false, null);
+	}
+}
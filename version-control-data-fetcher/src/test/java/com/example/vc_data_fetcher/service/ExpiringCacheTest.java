@@ -0,0 +1,51 @@
+package com.example.vc_data_fetcher.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringCacheTest {
+
+	private final AtomicLong now = new AtomicLong();
+
+	@Test
+	void expiresEntriesAfterWrite() {
+		ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofNanos(100), false, now::get);
+		cache.put("a", "1");
+
+		now.set(60);
+		assertEquals("1", cache.get("a"));
+		now.set(101);
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void refreshesOnAccessWhenConfigured() {
+		ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofNanos(100), true, now::get);
+		cache.computeIfAbsent("a", key -> "1");
+
+		now.set(60);
+		assertEquals("1", cache.get("a"));
+		now.set(150);
+		assertEquals("1", cache.computeIfAbsent("a", key -> "2"));
+		now.set(251);
+		assertEquals("2", cache.computeIfAbsent("a", key -> "2"));
+	}
+
+	@Test
+	void dropsLeastRecentlyUsedOverCapacity() {
+		ExpiringCache<String, String> cache = new ExpiringCache<>(2, Duration.ofSeconds(1), false, now::get);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.get("a");
+		cache.put("c", "3");
+
+		assertEquals(2, cache.size());
+		assertNull(cache.get("b"));
+		assertEquals("1", cache.get("a"));
+	}
+}
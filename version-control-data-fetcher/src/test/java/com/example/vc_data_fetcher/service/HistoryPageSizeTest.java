@@ -0,0 +1,45 @@
+package com.example.vc_data_fetcher.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryPageSizeTest {
+
+	@Test
+	void shrinksToMinimumAndGrowsBack() {
+		HistoryPageSize pageSize = new HistoryPageSize();
+		assertEquals(100, pageSize.get());
+
+		assertTrue(pageSize.shrink());
+		assertEquals(50, pageSize.get());
+		assertTrue(pageSize.shrink());
+		assertTrue(pageSize.shrink());
+		assertTrue(pageSize.shrink());
+		assertEquals(HistoryPageSize.MIN, pageSize.get());
+		assertFalse(pageSize.shrink());
+
+		for (int i = 0; i < 5; i++) {
+			pageSize.succeeded();
+		}
+		assertEquals(20, pageSize.get());
+	}
+
+	@Test
+	void retriesOnlyGatewayErrorsAndTimeouts() {
+		assertTrue(HistoryPageSize.isRetryable(new RuntimeException("Error executing GraphQL query",
+				new HttpServerErrorException(HttpStatus.BAD_GATEWAY))));
+		assertTrue(HistoryPageSize.isRetryable(new RuntimeException("Error executing GraphQL query",
+				new ResourceAccessException("Read timed out"))));
+		assertTrue(HistoryPageSize.isRetryable(new RuntimeException("Error executing GraphQL query",
+				new RuntimeException("GraphQL errors: [{\"message\":\"Something went wrong, possibly a timeout\"}]"))));
+
+		assertFalse(HistoryPageSize.isRetryable(new RuntimeException("Error executing GraphQL query",
+				new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR))));
+		assertFalse(HistoryPageSize.isRetryable(new HttpClientErrorException(HttpStatus.UNAUTHORIZED)));
+	}
+}
@@ -0,0 +1,203 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.dto.Commit;
+import com.example.vc_data_fetcher.dto.ContributorWithCommits;
+import com.example.vc_data_fetcher.dto.DetailLevel;
+import com.example.vc_data_fetcher.dto.FileData;
+import com.example.vc_data_fetcher.dto.HistoryFilter;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JGitRepositoryDataProviderTest {
+
+	@TempDir
+	Path tempDir;
+
+	private MirrorCacheService mirrorCache;
+	private JGitRepositoryDataProvider provider;
+	private Path work;
+	private String repoUrl;
+
+	@BeforeEach
+	void createRepository() throws Exception {
+		mirrorCache = new MirrorCacheService();
+		ReflectionTestUtils.setField(mirrorCache, "mirrorDir", tempDir.resolve("mirrors").toString());
+		ReflectionTestUtils.setField(mirrorCache, "maxBytes", Long.MAX_VALUE);
+		ReflectionTestUtils.setField(mirrorCache, "gcIntervalMinutes", 60L);
+		mirrorCache.start();
+		provider = new JGitRepositoryDataProvider(mirrorCache,
+				new CommitFileTableFactory(true, 1 << 20, tempDir.resolve("patches").toString(), 0,
+						false, List.of(), 0, false, false, false));
+
+		work = tempDir.resolve("origin");
+		try (Git git = Git.init().setDirectory(work.toFile()).call()) {
+			PersonIdent alice = new PersonIdent("alice", "alice@example.com");
+			PersonIdent bob = new PersonIdent("bob", "bob@example.com");
+
+			Files.writeString(work.resolve("App.java"), "class App {\n}\n");
+			git.add().addFilepattern(".").call();
+			git.commit().setMessage("Initial commit").setAuthor(alice).setCommitter(alice).call();
+
+			Files.writeString(work.resolve("App.java"), "class App {\n\tint x;\n}\n");
+			git.add().addFilepattern(".").call();
+			git.commit().setMessage("Add field").setAuthor(bob).setCommitter(bob).call();
+		}
+		repoUrl = work.toUri().toString();
+	}
+
+	@AfterEach
+	void stopMirrorCache() {
+		mirrorCache.stop();
+	}
+
+	@Test
+	void readsHistoryWithLocalDiffs() {
+		List<ContributorWithCommits> contributors = provider.getContributorsWithCommits("local/origin", repoUrl, null, DetailLevel.PATCHES, HistoryFilter.none());
+
+		assertEquals(2, contributors.size());
+		ContributorWithCommits bob = contributors.stream().filter(c -> c.getAuthorName().equals("bob")).findFirst().orElseThrow();
+		assertEquals(1, bob.getContributions());
+
+		Commit commit = bob.getCommits().get(0);
+		assertEquals("Add field", commit.getMsg());
+		assertEquals(1, commit.getAdditions());
+		assertEquals(0, commit.getDeletions());
+
+		FileData file = commit.getFiles().get(0);
+		assertEquals("App.java", file.getFullPath());
+		assertEquals("java", file.getExtension());
+		assertEquals("modified", file.getOperation());
+		assertTrue(file.getCode().startsWith("@@"));
+		assertTrue(file.getCode().contains("+\tint x;"));
+		assertEquals("@@ -1,2 +1,3 @@\n class App {\n+\tint x;\n }", file.getCode());
+
+		ContributorWithCommits alice = contributors.stream().filter(c -> c.getAuthorName().equals("alice")).findFirst().orElseThrow();
+		assertEquals("added", alice.getCommits().get(0).getFiles().get(0).getOperation());
+	}
+
+	@Test
+	void statsOnlySkipsFiles() {
+		List<ContributorWithCommits> contributors = provider.getContributorsWithCommits("local/origin", repoUrl, null, DetailLevel.STATS_ONLY, HistoryFilter.none());
+
+		for (ContributorWithCommits contributor : contributors) {
+			for (Commit commit : contributor.getCommits()) {
+				assertTrue(commit.getFiles().isEmpty());
+				assertEquals(1, commit.getChangedFiles());
+				assertEquals(commit.getMsg().equals("Add field") ? 1 : 2, commit.getAdditions());
+			}
+		}
+	}
+
+	@Test
+	void reusesMirrorAndFetchesNewCommits() throws Exception {
+		provider.getContributorsWithCommits("local/origin", repoUrl, null, DetailLevel.STATS_ONLY, HistoryFilter.none());
+		Path mirror = tempDir.resolve("mirrors/local/origin.git");
+		assertTrue(Files.isDirectory(mirror.resolve("objects")));
+
+		try (Git git = Git.open(work.toFile())) {
+			PersonIdent carol = new PersonIdent("carol", "carol@example.com");
+			Files.writeString(work.resolve("README.md"), "# App\n");
+			git.add().addFilepattern(".").call();
+			git.commit().setMessage("Add readme").setAuthor(carol).setCommitter(carol).call();
+		}
+
+		List<ContributorWithCommits> contributors = provider.getContributorsWithCommits("local/origin", repoUrl, null, DetailLevel.STATS_ONLY, HistoryFilter.none());
+		assertEquals(3, contributors.size());
+		assertEquals("Add readme", contributors.get(0).getCommits().get(0).getMsg());
+	}
+
+	@Test
+	void clonesOnlyBranches() throws Exception {
+		try (Git git = Git.open(work.toFile())) {
+			git.branchCreate().setName("feature").call();
+			RefUpdate update = git.getRepository().updateRef("refs/pull/1/head");
+			update.setNewObjectId(git.getRepository().resolve("HEAD"));
+			update.update();
+		}
+
+		provider.getContributorsWithCommits("local/origin", repoUrl, null, DetailLevel.STATS_ONLY, HistoryFilter.none());
+
+		try (Git mirror = Git.open(tempDir.resolve("mirrors/local/origin.git").toFile())) {
+			assertNotNull(mirror.getRepository().exactRef("refs/heads/feature"));
+			assertNull(mirror.getRepository().exactRef("refs/pull/1/head"));
+		}
+	}
+
+	@Test
+	void evictsMirrorsOverSizeLimit() {
+		provider.getContributorsWithCommits("local/origin", repoUrl, null, DetailLevel.STATS_ONLY, HistoryFilter.none());
+		assertTrue(mirrorCache.totalBytes() > 0);
+
+		ReflectionTestUtils.setField(mirrorCache, "maxBytes", 0L);
+		mirrorCache.evictIfNeeded();
+
+		assertEquals(0, mirrorCache.totalBytes());
+		assertFalse(Files.exists(tempDir.resolve("mirrors/local/origin.git")));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void callerWaitingOnEvictedMirrorUsesItsReplacement() throws Exception {
+		provider.getContributorsWithCommits("local/origin", repoUrl, null, DetailLevel.STATS_ONLY, HistoryFilter.none());
+		Map<String, ?> mirrors = (Map<String, ?>) ReflectionTestUtils.getField(mirrorCache, "mirrors");
+		Object evicted = mirrors.get("local/origin");
+		ReentrantReadWriteLock lock = (ReentrantReadWriteLock) ReflectionTestUtils.getField(evicted, "lock");
+
+		lock.writeLock().lock();
+		CompletableFuture<List<ContributorWithCommits>> waiting = CompletableFuture.supplyAsync(() ->
+				provider.getContributorsWithCommits("local/origin", repoUrl, null, DetailLevel.STATS_ONLY, HistoryFilter.none()));
+		while (!lock.hasQueuedThreads()) {
+			Thread.onSpinWait();
+		}
+		ReflectionTestUtils.setField(mirrorCache, "maxBytes", 0L);
+		mirrorCache.evictIfNeeded();
+		ReflectionTestUtils.setField(mirrorCache, "maxBytes", Long.MAX_VALUE);
+		lock.writeLock().unlock();
+
+		assertEquals(2, waiting.get(30, TimeUnit.SECONDS).size());
+		assertNotNull(mirrors.get("local/origin"));
+		assertNotSame(evicted, mirrors.get("local/origin"));
+		assertTrue(Files.isDirectory(tempDir.resolve("mirrors/local/origin.git/objects")));
+	}
+
+	@Test
+	void appliesAuthorAndPathFilters() throws Exception {
+		try (Git git = Git.open(work.toFile())) {
+			PersonIdent alice = new PersonIdent("alice", "alice@example.com");
+			Files.createDirectories(work.resolve("docs"));
+			Files.writeString(work.resolve("docs/guide.md"), "# Guide\n");
+			git.add().addFilepattern(".").call();
+			git.commit().setMessage("Add guide").setAuthor(alice).setCommitter(alice).call();
+		}
+
+		List<ContributorWithCommits> byPath = provider.getContributorsWithCommits("local/origin", repoUrl, null,
+				DetailLevel.FILES, HistoryFilter.of(null, null, null, "/docs/", null));
+		assertEquals(1, byPath.size());
+		assertEquals("Add guide", byPath.get(0).getCommits().get(0).getMsg());
+
+		List<ContributorWithCommits> byAuthor = provider.getContributorsWithCommits("local/origin", repoUrl, null,
+				DetailLevel.STATS_ONLY, HistoryFilter.of(null, null, "alice@example.com", null, null));
+		assertEquals(1, byAuthor.size());
+		assertEquals(2, byAuthor.get(0).getContributions());
+
+		List<ContributorWithCommits> future = provider.getContributorsWithCommits("local/origin", repoUrl, null,
+				DetailLevel.STATS_ONLY, HistoryFilter.of("2037-01-01", null, null, null, null));
+		assertTrue(future.isEmpty());
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.vc_data_fetcher.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+	private final SingleFlight<String, String> flights = new SingleFlight<>();
+	private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+	@Test
+	void followersShareTheLeadersResult() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger executions = new AtomicInteger();
+
+		Future<String> leader = executor.submit(() -> flights.execute("repo", () -> {
+			executions.incrementAndGet();
+			started.countDown();
+			await(release);
+			return "result";
+		}));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		Future<String> follower = executor.submit(() -> flights.execute("repo", () -> {
+			executions.incrementAndGet();
+			return "duplicate";
+		}));
+		waitForFollower(follower);
+		release.countDown();
+
+		assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+		assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+		assertEquals(1, executions.get());
+		assertEquals(0, flights.inFlightCount());
+	}
+
+	@Test
+	void followersAreCancelledWhenTheLeaderFails() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		Future<String> leader = executor.submit(() -> flights.execute("repo", () -> {
+			started.countDown();
+			await(release);
+			throw new IllegalStateException("rate limited");
+		}));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		Future<String> follower = executor.submit(() -> flights.execute("repo", () -> "duplicate"));
+		waitForFollower(follower);
+		release.countDown();
+
+		Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+		Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(CancellationException.class, followerError.getCause());
+		assertEquals("rate limited", followerError.getCause().getCause().getMessage());
+
+		// The failed flight is released, so the next call runs again
+		assertEquals("retry", flights.execute("repo", () -> "retry"));
+	}
+
+	@Test
+	void leaderSharesTheResultWithItsFollowerCount() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger shared = new AtomicInteger(-1);
+
+		Future<String> leader = executor.submit(() -> flights.execute("repo", () -> {
+			started.countDown();
+			await(release);
+			return "result";
+		}, (result, followers) -> shared.set(followers)));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		Future<String> follower = executor.submit(() -> flights.execute("repo", () -> "duplicate"));
+		waitForFollower(follower);
+		release.countDown();
+
+		assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+		assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+		assertEquals(1, shared.get());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Give the follower time to attach to the running flight
+	 */
+	private static void waitForFollower(Future<String> follower) throws InterruptedException {
+		Thread.sleep(200);
+		assertFalse(follower.isDone());
+	}
+}
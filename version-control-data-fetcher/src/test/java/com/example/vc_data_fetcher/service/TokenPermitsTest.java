@@ -0,0 +1,53 @@
+package com.example.vc_data_fetcher.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenPermitsTest {
+
+	private final TokenPermits permits = new TokenPermits(2);
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@Test
+	void capsConcurrentPermitsPerToken() throws Exception {
+		TokenPermits.Permit first = permits.acquire("token");
+		TokenPermits.Permit second = permits.acquire("token");
+
+		Future<TokenPermits.Permit> third = executor.submit(() -> permits.acquire("token"));
+		assertThrows(TimeoutException.class, () -> third.get(200, TimeUnit.MILLISECONDS));
+		// Another token is not held back by the busy one
+		permits.acquire("other").close();
+
+		first.close();
+		third.get(5, TimeUnit.SECONDS).close();
+		second.close();
+		executor.shutdownNow();
+	}
+
+	@Test
+	void dropsATokenOnlyOnceNoPermitIsHeld() throws Exception {
+		TokenPermits.Permit first = permits.acquire("token");
+		TokenPermits.Permit second = permits.acquire("token");
+		first.close();
+		first.close();
+		assertEquals(1, permits.tokenCount());
+
+		// A double close did not hand out an extra permit
+		TokenPermits.Permit third = permits.acquire("token");
+		Future<TokenPermits.Permit> fourth = executor.submit(() -> permits.acquire("token"));
+		assertThrows(TimeoutException.class, () -> fourth.get(200, TimeUnit.MILLISECONDS));
+
+		second.close();
+		third.close();
+		fourth.get(5, TimeUnit.SECONDS).close();
+		assertEquals(0, permits.tokenCount());
+		executor.shutdownNow();
+	}
+}
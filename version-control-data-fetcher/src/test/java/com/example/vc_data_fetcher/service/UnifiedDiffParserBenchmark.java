@@ -0,0 +1,60 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.dto.DiffHunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parse throughput of {@link UnifiedDiffParser} on large patches, with and without changed lines.
+ * Not picked up by the default test run; run it with {@code mvn test -Dtest=UnifiedDiffParserBenchmark}.
+ */
+class UnifiedDiffParserBenchmark {
+
+	private static final int HUNKS = 2_000;
+	private static final int WARMUP = 20;
+	private static final int ITERATIONS = 50;
+
+	@Test
+	void parseLargePatches() {
+		String patch = largePatch();
+		System.out.printf("patch: %d hunks, %.1f MB%n", HUNKS, patch.length() / 1e6);
+		System.out.printf("%-14s %10s %10s%n", "mode", "ms/op", "MB/s");
+		for (boolean lines : new boolean[]{false, true}) {
+			for (int i = 0; i < WARMUP; i++) {
+				UnifiedDiffParser.parse(patch, lines);
+			}
+			long start = System.nanoTime();
+			List<DiffHunk> hunks = null;
+			for (int i = 0; i < ITERATIONS; i++) {
+				hunks = UnifiedDiffParser.parse(patch, lines);
+			}
+			double millis = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+			System.out.printf("%-14s %10.2f %10.1f%n", lines ? "with lines" : "ranges only", millis,
+					patch.length() / 1e6 / (millis / 1000));
+			assertEquals(HUNKS, hunks.size());
+		}
+	}
+
+	private static String largePatch() {
+		StringBuilder patch = new StringBuilder();
+		int line = 1;
+		for (int h = 0; h < HUNKS; h++) {
+			patch.append("@@ -").append(line).append(",12 +").append(line).append(",14 @@ void method").append(h).append("() {\n");
+			for (int i = 0; i < 12; i++) {
+				if (i % 3 == 0) {
+					patch.append("-\t\tint value").append(i).append(" = compute(").append(h).append(");\n");
+					patch.append("+\t\tlong value").append(i).append(" = computeLong(").append(h).append(");\n");
+				} else {
+					patch.append(" \t\tprocess(value").append(i).append(", context, options);\n");
+				}
+			}
+			patch.append("+\t\tlog.debug(\"hunk ").append(h).append("\");\n");
+			patch.append("+\t\tmetrics.increment();\n");
+			line += 20;
+		}
+		return patch.toString();
+	}
+}
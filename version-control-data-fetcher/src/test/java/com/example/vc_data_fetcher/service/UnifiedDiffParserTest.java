@@ -0,0 +1,116 @@
+package com.example.vc_data_fetcher.service;
+
+import com.example.vc_data_fetcher.dto.DiffHunk;
+import com.example.vc_data_fetcher.dto.DiffLine;
+import org.junit.jupiter.api.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnifiedDiffParserTest {
+
+	private static final String PATCH = """
+			@@ -1,4 +1,5 @@ public class App {
+			 import a;
+			-import b;
+			+import c;
+			+import d;
+			 
+			 class App {
+			@@ -20 +21,2 @@
+			-return 1;
+			+return 2;
+			+}
+			\\ No newline at end of file""";
+
+	@Test
+	void parsesRangesAndCounts() {
+		List<DiffHunk> hunks = UnifiedDiffParser.parse(PATCH, false);
+
+		assertEquals(2, hunks.size());
+		DiffHunk first = hunks.get(0);
+		assertEquals(1, first.getOldStart());
+		assertEquals(4, first.getOldLines());
+		assertEquals(1, first.getNewStart());
+		assertEquals(5, first.getNewLines());
+		assertEquals("public class App {", first.getSection());
+		assertEquals(2, first.getAdditions());
+		assertEquals(1, first.getDeletions());
+		assertNull(first.getLines());
+
+		DiffHunk second = hunks.get(1);
+		assertEquals(20, second.getOldStart());
+		assertEquals(1, second.getOldLines());
+		assertEquals(21, second.getNewStart());
+		assertEquals(2, second.getNewLines());
+		assertNull(second.getSection());
+		assertEquals(2, second.getAdditions());
+		assertEquals(1, second.getDeletions());
+	}
+
+	@Test
+	void numbersChangedLines() {
+		List<DiffLine> lines = UnifiedDiffParser.parse(PATCH, true).get(0).getLines();
+
+		assertEquals(3, lines.size());
+		assertLine(lines.get(0), DiffLine.Kind.REMOVED, 2, null, "import b;");
+		assertLine(lines.get(1), DiffLine.Kind.ADDED, null, 2, "import c;");
+		assertLine(lines.get(2), DiffLine.Kind.ADDED, null, 3, "import d;");
+
+		List<DiffLine> tail = UnifiedDiffParser.parse(PATCH, true).get(1).getLines();
+		assertLine(tail.get(0), DiffLine.Kind.REMOVED, 20, null, "return 1;");
+		assertLine(tail.get(2), DiffLine.Kind.ADDED, null, 22, "}");
+	}
+
+	@Test
+	void ignoresFileHeadersPlaceholdersAndMalformedHeaders() {
+		String patch = "diff --git a/A.java b/A.java\n--- a/A.java\n+++ b/A.java\n@@ -1 +1 @@\n-a\n+b\n";
+
+		List<DiffHunk> hunks = UnifiedDiffParser.parse(patch, true);
+
+		assertEquals(1, hunks.size());
+		assertEquals(1, hunks.get(0).getAdditions());
+		assertEquals(1, hunks.get(0).getDeletions());
+		assertTrue(UnifiedDiffParser.parse("// File renamed from: a to: b", false).isEmpty());
+		assertTrue(UnifiedDiffParser.parse("@@ -x +1 @@\n+a", false).isEmpty());
+		assertTrue(UnifiedDiffParser.parse((String) null, false).isEmpty());
+	}
+
+	@Test
+	void handlesCrLfAndLinesSplitAcrossReads() throws Exception {
+		String patch = "@@ -1,2 +1,2 @@\r\n-" + "x".repeat(20_000) + "\r\n+short\r\n keep\r\n";
+
+		List<DiffHunk> hunks = UnifiedDiffParser.parse(new OneCharReader(patch), true);
+
+		assertEquals(1, hunks.size());
+		assertEquals(20_000, hunks.get(0).getLines().get(0).getText().length());
+		assertEquals("short", hunks.get(0).getLines().get(1).getText());
+	}
+
+	private static void assertLine(DiffLine line, DiffLine.Kind kind, Integer oldLine, Integer newLine, String text) {
+		assertEquals(kind, line.getKind());
+		assertEquals(oldLine, line.getOldLine());
+		assertEquals(newLine, line.getNewLine());
+		assertEquals(text, line.getText());
+	}
+
+	private static final class OneCharReader extends Reader {
+		private final Reader delegate;
+
+		private OneCharReader(String text) {
+			this.delegate = new StringReader(text);
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) throws java.io.IOException {
+			return delegate.read(buffer, offset, Math.min(length, 1));
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}